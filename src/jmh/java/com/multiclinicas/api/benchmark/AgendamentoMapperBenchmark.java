@@ -0,0 +1,55 @@
+package com.multiclinicas.api.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.multiclinicas.api.dtos.AgendamentoDTO;
+import com.multiclinicas.api.mappers.AgendamentoMapper;
+import com.multiclinicas.api.models.Agendamento;
+
+/**
+ * Conversão de uma página de agendamentos para DTO, com as entidades já
+ * carregadas em memória.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AgendamentoMapperBenchmark {
+
+    @Param({ "1000" })
+    private int tamanhoPagina;
+
+    private AgendamentoMapper mapper;
+    private List<Agendamento> pagina;
+
+    @Setup
+    public void setUp() {
+        mapper = new AgendamentoMapper();
+        pagina = DadosSinteticos.gerar(300, 30).agendamentos.subList(0, tamanhoPagina);
+    }
+
+    @Benchmark
+    public List<AgendamentoDTO> toDTO() {
+        List<AgendamentoDTO> dtos = new ArrayList<>(pagina.size());
+        for (Agendamento agendamento : pagina) {
+            dtos.add(mapper.toDTO(agendamento));
+        }
+        return dtos;
+    }
+}
@@ -0,0 +1,190 @@
+package com.multiclinicas.api.benchmark;
+
+import java.sql.Date;
+import java.sql.Time;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.multiclinicas.api.ApiApplication;
+import com.multiclinicas.api.dtos.DisponibilidadeDTO;
+import com.multiclinicas.api.models.Agendamento;
+import com.multiclinicas.api.models.GradeHorario;
+import com.multiclinicas.api.models.Medico;
+import com.multiclinicas.api.models.Paciente;
+import com.multiclinicas.api.models.enums.StatusAgendamento;
+import com.multiclinicas.api.models.enums.TipoPagamento;
+import com.multiclinicas.api.repositories.AgendamentoRepository;
+import com.multiclinicas.api.services.AgendamentoService;
+
+/**
+ * Caminhos que dependem do banco, medidos contra o H2 do perfil de teste com
+ * as migrations do Flyway aplicadas e a massa de {@link DadosSinteticos}
+ * carregada via JDBC. O cache de ocupação fica desligado para que a busca de
+ * disponibilidade sempre vá ao banco.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConflitoHorarioBenchmark {
+
+    @Param({ "300" })
+    private int medicos;
+
+    @Param({ "30" })
+    private int dias;
+
+    private ConfigurableApplicationContext contexto;
+    private AgendamentoRepository agendamentoRepository;
+    private AgendamentoService agendamentoService;
+    private TransactionTemplate transacao;
+    private DadosSinteticos dados;
+    private List<Agendamento> ativos;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = new SpringApplicationBuilder(ApiApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "spring.jpa.show-sql=false",
+                        "logging.level.root=WARN",
+                        "logging.level.org.hibernate.SQL=WARN",
+                        "api.agenda.ocupacao.max-entries=0",
+                        "api.agenda.ocupacao.ttl=PT0S")
+                .run();
+        agendamentoRepository = contexto.getBean(AgendamentoRepository.class);
+        agendamentoService = contexto.getBean(AgendamentoService.class);
+        transacao = contexto.getBean(TransactionTemplate.class);
+
+        dados = DadosSinteticos.gerar(medicos, dias);
+        carregar(contexto.getBean(JdbcTemplate.class));
+        ativos = dados.agendamentos.stream()
+                .filter(a -> a.getStatus() == StatusAgendamento.AGENDADO)
+                .toList();
+    }
+
+    private void carregar(JdbcTemplate jdbc) {
+        jdbc.update("INSERT INTO clinicas (id, nome_fantasia, subdominio, ativo) VALUES (?, ?, ?, true)",
+                dados.clinica.getId(), dados.clinica.getNomeFantasia(), dados.clinica.getSubdominio());
+
+        List<Paciente> pacientes = dados.pacientes;
+        jdbc.batchUpdate("INSERT INTO pacientes (id, clinic_id, nome, cpf) VALUES (?, ?, ?, ?)",
+                pacientes, 1000, (ps, p) -> {
+                    ps.setLong(1, p.getId());
+                    ps.setLong(2, DadosSinteticos.CLINICA_ID);
+                    ps.setString(3, p.getNome());
+                    ps.setString(4, p.getCpf());
+                });
+
+        List<Medico> listaMedicos = dados.medicos;
+        jdbc.batchUpdate("INSERT INTO medicos (id, clinic_id, nome, crm, ativo, duracao_consulta) VALUES (?, ?, ?, ?, true, ?)",
+                listaMedicos, 1000, (ps, m) -> {
+                    ps.setLong(1, m.getId());
+                    ps.setLong(2, DadosSinteticos.CLINICA_ID);
+                    ps.setString(3, m.getNome());
+                    ps.setString(4, m.getCrm());
+                    ps.setInt(5, m.getDuracaoConsulta());
+                });
+
+        List<GradeHorario> grades = dados.grades;
+        jdbc.batchUpdate("INSERT INTO grades_horario (id, medico_id, dia_semana, hora_inicio, hora_fim) VALUES (?, ?, ?, ?, ?)",
+                grades, 1000, (ps, g) -> {
+                    ps.setLong(1, g.getId());
+                    ps.setLong(2, g.getMedico().getId());
+                    ps.setInt(3, g.getDiaSemana());
+                    ps.setTime(4, Time.valueOf(g.getHoraInicio()));
+                    ps.setTime(5, Time.valueOf(g.getHoraFim()));
+                });
+
+        List<Agendamento> agendamentos = dados.agendamentos;
+        jdbc.batchUpdate("""
+                INSERT INTO agendamentos (id, clinic_id, paciente_id, medico_id, data_consulta, hora_inicio, hora_fim,
+                    status, tipo_pagamento)
+                VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)
+                """, agendamentos, 1000, (ps, a) -> {
+                    ps.setLong(1, a.getId());
+                    ps.setLong(2, DadosSinteticos.CLINICA_ID);
+                    ps.setLong(3, a.getPaciente().getId());
+                    ps.setLong(4, a.getMedico().getId());
+                    ps.setDate(5, Date.valueOf(a.getDataConsulta()));
+                    ps.setTime(6, Time.valueOf(a.getHoraInicio()));
+                    ps.setTime(7, Time.valueOf(a.getHoraFim()));
+                    ps.setString(8, a.getStatus().name());
+                    ps.setString(9, a.getTipoPagamento().name());
+                });
+
+        // Os ids acima foram gravados explicitamente; a sequência (blocos de 50)
+        // precisa começar depois deles
+        jdbc.execute("ALTER SEQUENCE agendamentos_id_seq RESTART WITH " + (agendamentos.size() + 100));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    private long proximoMedico() {
+        return (cursor++ % medicos) + 1;
+    }
+
+    private LocalDate proximoDia() {
+        return dados.diasUteis.get(cursor % dados.diasUteis.size());
+    }
+
+    // Mesmo caminho da criação: o INSERT sobreposto é barrado pela constraint
+    // de exclusão (trigger no H2) e a transação é desfeita
+    @Benchmark
+    public boolean validarConflitoHorario() {
+        Agendamento existente = ativos.get(cursor++ % ativos.size());
+        Agendamento sobreposto = new Agendamento();
+        sobreposto.setClinica(dados.clinica);
+        sobreposto.setPaciente(existente.getPaciente());
+        sobreposto.setMedico(existente.getMedico());
+        sobreposto.setDataConsulta(existente.getDataConsulta());
+        sobreposto.setHoraInicio(existente.getHoraInicio().plusMinutes(10));
+        sobreposto.setHoraFim(existente.getHoraFim().plusMinutes(10));
+        sobreposto.setStatus(StatusAgendamento.AGENDADO);
+        sobreposto.setTipoPagamento(TipoPagamento.PARTICULAR);
+
+        return transacao.execute(status -> {
+            status.setRollbackOnly();
+            try {
+                agendamentoRepository.saveAndFlush(sobreposto);
+                return false;
+            } catch (DataIntegrityViolationException ex) {
+                return true;
+            }
+        });
+    }
+
+    @Benchmark
+    public DisponibilidadeDTO buscarDisponibilidade() {
+        LocalDate data = proximoDia();
+        return agendamentoService.buscarDisponibilidade(proximoMedico(), data, DadosSinteticos.CLINICA_ID);
+    }
+}
@@ -0,0 +1,209 @@
+package com.multiclinicas.api.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.function.Function;
+
+import com.multiclinicas.api.agenda.IntervaloOcupado;
+import com.multiclinicas.api.agenda.MedicoAgenda;
+import com.multiclinicas.api.agenda.PeriodoGrade;
+import com.multiclinicas.api.models.Agendamento;
+import com.multiclinicas.api.models.Clinica;
+import com.multiclinicas.api.models.GradeHorario;
+import com.multiclinicas.api.models.Medico;
+import com.multiclinicas.api.models.Paciente;
+import com.multiclinicas.api.models.enums.StatusAgendamento;
+import com.multiclinicas.api.models.enums.TipoPagamento;
+import com.multiclinicas.api.repositories.AgendamentoRepository;
+import com.multiclinicas.api.repositories.GradeHorarioRepository;
+import com.multiclinicas.api.repositories.MedicoRepository;
+
+/**
+ * Massa de dados de uma clínica para os benchmarks: médicos com grade de
+ * segunda a sexta (08:00-12:00 e 13:00-18:00) e cerca de metade dos horários
+ * de cada dia útil ocupados. Com os valores padrão (300 médicos, 30 dias) são
+ * gerados em torno de 50 mil agendamentos. A geração é determinística para uma
+ * mesma semente.
+ */
+final class DadosSinteticos {
+
+    static final long CLINICA_ID = 1L;
+
+    private static final int[] DURACOES = { 20, 30, 40 };
+    private static final int PACIENTES = 2000;
+
+    final Clinica clinica;
+    final List<Medico> medicos = new ArrayList<>();
+    final List<GradeHorario> grades = new ArrayList<>();
+    final List<Paciente> pacientes = new ArrayList<>();
+    final List<Agendamento> agendamentos = new ArrayList<>();
+    final List<LocalDate> diasUteis = new ArrayList<>();
+
+    private final Map<Long, Medico> medicosPorId = new HashMap<>();
+    private final Map<Long, Map<Integer, List<GradeHorario>>> gradesPorMedico = new HashMap<>();
+    private final Map<Long, Map<LocalDate, List<Agendamento>>> agendamentosPorMedico = new HashMap<>();
+
+    private DadosSinteticos(int quantidadeMedicos, int dias, long semente) {
+        Random random = new Random(semente);
+
+        clinica = new Clinica();
+        clinica.setId(CLINICA_ID);
+        clinica.setNomeFantasia("Clínica Benchmark");
+        clinica.setSubdominio("benchmark");
+
+        for (long id = 1; id <= PACIENTES; id++) {
+            Paciente paciente = new Paciente();
+            paciente.setId(id);
+            paciente.setClinica(clinica);
+            paciente.setNome("Paciente " + id);
+            paciente.setCpf(String.format("%011d", id));
+            pacientes.add(paciente);
+        }
+
+        LocalDate primeiroDia = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        for (int i = 0; i < dias; i++) {
+            LocalDate data = primeiroDia.plusDays(i);
+            if (data.getDayOfWeek().getValue() <= 5) {
+                diasUteis.add(data);
+            }
+        }
+
+        long agendamentoId = 1;
+        for (long id = 1; id <= quantidadeMedicos; id++) {
+            Medico medico = new Medico();
+            medico.setId(id);
+            medico.setClinica(clinica);
+            medico.setNome("Médico " + id);
+            medico.setCrm("CRM-" + id);
+            medico.setDuracaoConsulta(DURACOES[(int) (id % DURACOES.length)]);
+            medicos.add(medico);
+            medicosPorId.put(id, medico);
+
+            for (int diaSemana = 1; diaSemana <= 5; diaSemana++) {
+                adicionarGrade(medico, diaSemana, LocalTime.of(8, 0), LocalTime.of(12, 0));
+                adicionarGrade(medico, diaSemana, LocalTime.of(13, 0), LocalTime.of(18, 0));
+            }
+
+            for (LocalDate data : diasUteis) {
+                for (GradeHorario grade : gradesPorMedico.get(id).get(data.getDayOfWeek().getValue())) {
+                    for (LocalTime hora = grade.getHoraInicio();
+                            !hora.plusMinutes(medico.getDuracaoConsulta()).isAfter(grade.getHoraFim());
+                            hora = hora.plusMinutes(medico.getDuracaoConsulta())) {
+                        if (random.nextBoolean()) {
+                            continue;
+                        }
+                        Agendamento agendamento = new Agendamento();
+                        agendamento.setId(agendamentoId++);
+                        agendamento.setClinica(clinica);
+                        agendamento.setMedico(medico);
+                        agendamento.setPaciente(pacientes.get(random.nextInt(PACIENTES)));
+                        agendamento.setDataConsulta(data);
+                        agendamento.setHoraInicio(hora);
+                        agendamento.setHoraFim(hora.plusMinutes(medico.getDuracaoConsulta()));
+                        agendamento.setStatus(random.nextInt(10) == 0
+                                ? StatusAgendamento.CANCELADO_PACIENTE
+                                : StatusAgendamento.AGENDADO);
+                        agendamento.setTipoPagamento(TipoPagamento.PARTICULAR);
+                        agendamentos.add(agendamento);
+                        agendamentosPorMedico.computeIfAbsent(id, k -> new HashMap<>())
+                                .computeIfAbsent(data, k -> new ArrayList<>())
+                                .add(agendamento);
+                    }
+                }
+            }
+        }
+    }
+
+    static DadosSinteticos gerar(int quantidadeMedicos, int dias) {
+        return new DadosSinteticos(quantidadeMedicos, dias, 42L);
+    }
+
+    private void adicionarGrade(Medico medico, int diaSemana, LocalTime inicio, LocalTime fim) {
+        GradeHorario grade = new GradeHorario();
+        grade.setId((long) grades.size() + 1);
+        grade.setMedico(medico);
+        grade.setDiaSemana(diaSemana);
+        grade.setHoraInicio(inicio);
+        grade.setHoraFim(fim);
+        grades.add(grade);
+        gradesPorMedico.computeIfAbsent(medico.getId(), k -> new HashMap<>())
+                .computeIfAbsent(diaSemana, k -> new ArrayList<>())
+                .add(grade);
+    }
+
+    // Repositórios em memória: apenas os métodos usados pelos caminhos medidos
+
+    MedicoRepository medicoRepository() {
+        return repositorio(MedicoRepository.class, Map.of(
+                "findByIdAndClinicaId", args -> medicosPorId.get((Long) args[0]),
+                "findAgendaAtivos", args -> medicos.stream().map(DadosSinteticos::agenda).toList(),
+                "findAgendaAtivosByIds", args -> {
+                    Set<?> ids = new HashSet<>((Collection<?>) args[1]);
+                    return medicos.stream().filter(m -> ids.contains(m.getId())).map(DadosSinteticos::agenda).toList();
+                }));
+    }
+
+    GradeHorarioRepository gradeHorarioRepository() {
+        return repositorio(GradeHorarioRepository.class, Map.of(
+                "findPeriodosByMedicoIds", args -> {
+                    Set<?> ids = new HashSet<>((Collection<?>) args[0]);
+                    return grades.stream()
+                            .filter(g -> ids.contains(g.getMedico().getId()))
+                            .map(PeriodoGrade::de)
+                            .toList();
+                }));
+    }
+
+    AgendamentoRepository agendamentoRepository() {
+        return repositorio(AgendamentoRepository.class, Map.of(
+                "findByMedicoIdAndDataConsultaAndClinicaId", args -> agendamentosPorMedico
+                        .getOrDefault((Long) args[0], Map.of())
+                        .getOrDefault((LocalDate) args[1], List.of()),
+                "findIntervalosOcupados", args -> {
+                    Set<?> ids = new HashSet<>((Collection<?>) args[1]);
+                    LocalDate inicio = (LocalDate) args[2];
+                    LocalDate fim = (LocalDate) args[3];
+                    return agendamentos.stream()
+                            .filter(a -> ids.contains(a.getMedico().getId()))
+                            .filter(a -> !a.getDataConsulta().isBefore(inicio) && !a.getDataConsulta().isAfter(fim))
+                            .filter(a -> a.getStatus() != StatusAgendamento.CANCELADO_CLINICA
+                                    && a.getStatus() != StatusAgendamento.CANCELADO_PACIENTE)
+                            .map(a -> new IntervaloOcupado(a.getMedico().getId(), a.getDataConsulta(),
+                                    a.getHoraInicio(), a.getHoraFim()))
+                            .toList();
+                }));
+    }
+
+    private static MedicoAgenda agenda(Medico medico) {
+        return new MedicoAgenda(medico.getId(), medico.getNome(), medico.getDuracaoConsulta());
+    }
+
+    static <T> T repositorio(Class<T> tipo, Map<String, Function<Object[], Object>> metodos) {
+        return tipo.cast(Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] { tipo },
+                (proxy, method, args) -> {
+                    Function<Object[], Object> metodo = metodos.get(method.getName());
+                    if (metodo != null) {
+                        return metodo.apply(args);
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return switch (method.getName()) {
+                            case "hashCode" -> System.identityHashCode(proxy);
+                            case "equals" -> proxy == args[0];
+                            default -> tipo.getSimpleName() + " (em memória)";
+                        };
+                    }
+                    throw new UnsupportedOperationException(tipo.getSimpleName() + "." + method.getName());
+                }));
+    }
+}
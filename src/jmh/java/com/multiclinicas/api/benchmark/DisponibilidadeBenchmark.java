@@ -0,0 +1,120 @@
+package com.multiclinicas.api.benchmark;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.multiclinicas.api.agenda.GradeSemanalCache;
+import com.multiclinicas.api.agenda.MetricasAgenda;
+import com.multiclinicas.api.agenda.OcupacaoAgendaCache;
+import com.multiclinicas.api.dtos.DisponibilidadeDTO;
+import com.multiclinicas.api.dtos.HorarioLivreDTO;
+import com.multiclinicas.api.repositories.AgendamentoRepository;
+import com.multiclinicas.api.repositories.ClinicaRepository;
+import com.multiclinicas.api.repositories.GradeHorarioRepository;
+import com.multiclinicas.api.repositories.MedicoRepository;
+import com.multiclinicas.api.repositories.PacienteRepository;
+import com.multiclinicas.api.repositories.PlanoSaudeRepository;
+import com.multiclinicas.api.services.AgendamentoServiceImpl;
+import com.multiclinicas.api.services.CaixaSaidaEmailService;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Busca de disponibilidade com repositórios em memória: mede apenas o custo de
+ * CPU do serviço (montagem do mapa de ocupação e geração dos horários), sem
+ * banco de dados.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DisponibilidadeBenchmark {
+
+    // Sem banco: a transação em que o mapa de ocupação é carregado não faz nada
+    private static final PlatformTransactionManager TRANSACOES = DadosSinteticos.repositorio(
+            PlatformTransactionManager.class, Map.of("getTransaction", args -> null, "commit", args -> null));
+
+    @Param({ "300" })
+    private int medicos;
+
+    @Param({ "30" })
+    private int dias;
+
+    private DadosSinteticos dados;
+    private AgendamentoServiceImpl servicoComCache;
+    private AgendamentoServiceImpl servicoSemCache;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        dados = DadosSinteticos.gerar(medicos, dias);
+        servicoComCache = criarServico(new GradeSemanalCache(dados.gradeHorarioRepository(), 10_000,
+                Duration.ofHours(1)), 50_000, Duration.ofHours(1));
+        servicoSemCache = criarServico(new GradeSemanalCache(dados.gradeHorarioRepository(), 0, Duration.ZERO),
+                0, Duration.ZERO);
+    }
+
+    private AgendamentoServiceImpl criarServico(GradeSemanalCache grades, long maxMapas, Duration ttlMapas) {
+        OcupacaoAgendaCache cache = new OcupacaoAgendaCache(dados.medicoRepository(), grades,
+                dados.agendamentoRepository(), TRANSACOES, maxMapas, ttlMapas);
+        return new AgendamentoServiceImpl(
+                dados.agendamentoRepository(),
+                DadosSinteticos.repositorio(ClinicaRepository.class, Map.of()),
+                dados.medicoRepository(),
+                DadosSinteticos.repositorio(PacienteRepository.class, Map.of()),
+                DadosSinteticos.repositorio(PlanoSaudeRepository.class, Map.of()),
+                null, // catálogo da clínica: só usado ao gravar agendamentos
+                grades,
+                DadosSinteticos.repositorio(CaixaSaidaEmailService.class, Map.of()),
+                null, // modelos de e-mail: só usados ao gravar agendamentos
+                cache,
+                null, // coordenador de agenda: só usado ao gravar agendamentos
+                new MetricasAgenda(new SimpleMeterRegistry(), 50));
+    }
+
+    // Percorre médicos e dias em sequência para não medir sempre a mesma chave
+    private long proximoMedico() {
+        return (cursor++ % medicos) + 1;
+    }
+
+    private LocalDate proximoDia() {
+        return dados.diasUteis.get(cursor % dados.diasUteis.size());
+    }
+
+    @Benchmark
+    public DisponibilidadeDTO buscarDisponibilidadeCacheQuente() {
+        LocalDate data = proximoDia();
+        return servicoComCache.buscarDisponibilidade(proximoMedico(), data, DadosSinteticos.CLINICA_ID);
+    }
+
+    @Benchmark
+    public DisponibilidadeDTO buscarDisponibilidadeCacheFrio() {
+        LocalDate data = proximoDia();
+        return servicoSemCache.buscarDisponibilidade(proximoMedico(), data, DadosSinteticos.CLINICA_ID);
+    }
+
+    @Benchmark
+    public List<HorarioLivreDTO> buscarHorariosLivresTodosMedicos() {
+        LocalDate inicio = dados.diasUteis.get(0);
+        return servicoComCache.buscarHorariosLivres(DadosSinteticos.CLINICA_ID, inicio, inicio.plusDays(13),
+                null, null, 200);
+    }
+}
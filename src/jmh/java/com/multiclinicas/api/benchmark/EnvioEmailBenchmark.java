@@ -0,0 +1,82 @@
+package com.multiclinicas.api.benchmark;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.dtos.ResultadoEnvioEmailDTO;
+import com.multiclinicas.api.services.EmailServiceImpl;
+import com.multiclinicas.api.services.ServidorSmtpFalso;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Vazão de envio contra um servidor SMTP local: lote numa conexão do pool
+ * contra uma conexão nova por mensagem (o envio antigo via JavaMailSender).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EnvioEmailBenchmark {
+
+    @Param({ "50" })
+    private int tamanhoLote;
+
+    private ServidorSmtpFalso servidor;
+    private JavaMailSenderImpl mailSender;
+    private EmailServiceImpl emailService;
+    private List<MensagemEmailDTO> lote;
+
+    @Setup
+    public void setUp() {
+        servidor = new ServidorSmtpFalso();
+        mailSender = servidor.mailSender();
+        emailService = new EmailServiceImpl(mailSender, new SimpleMeterRegistry(), 4, 100, Duration.ofSeconds(30));
+        lote = IntStream.range(0, tamanhoLote)
+                .mapToObj(i -> new MensagemEmailDTO("paciente" + i + "@teste.com", "Lembrete de Consulta",
+                        "Olá! Este é um lembrete da sua consulta de amanhã às 10:00."))
+                .toList();
+    }
+
+    @TearDown
+    public void tearDown() throws Exception {
+        servidor.close();
+    }
+
+    @Benchmark
+    public ResultadoEnvioEmailDTO loteEmConexaoDoPool() {
+        return emailService.enviarEmails(lote);
+    }
+
+    @Benchmark
+    public void conexaoPorMensagem() {
+        for (MensagemEmailDTO mensagem : lote) {
+            SimpleMailMessage email = new SimpleMailMessage();
+            email.setFrom("nao-responda@clinicas.com");
+            email.setTo(mensagem.destinatario());
+            email.setSubject(mensagem.assunto());
+            email.setText(mensagem.mensagem());
+            mailSender.send(email);
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package com.multiclinicas.api.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.multiclinicas.api.ApiApplication;
+import com.multiclinicas.api.models.Clinica;
+import com.multiclinicas.api.models.Paciente;
+import com.multiclinicas.api.repositories.PacienteRepository;
+
+/**
+ * Importação de pacientes em uma transação via {@code saveAll}, contra o H2 do
+ * perfil de teste. {@code lote=1} equivale ao comportamento anterior (um
+ * round-trip por linha); {@code lote=50} é o valor de
+ * {@code hibernate.jdbc.batch_size} da aplicação. No H2 em memória o
+ * round-trip é quase gratuito, então no PostgreSQL pela rede a diferença é
+ * maior do que a medida aqui.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 8, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+public class InsercaoLoteBenchmark {
+
+    @Param({ "1", "50" })
+    private int lote;
+
+    @Param({ "500" })
+    private int pacientes;
+
+    private ConfigurableApplicationContext contexto;
+    private PacienteRepository pacienteRepository;
+    private TransactionTemplate transacao;
+    private JdbcTemplate jdbc;
+    private Clinica clinica;
+    private long sequencial;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        contexto = new SpringApplicationBuilder(ApiApplication.class)
+                .profiles("test")
+                .web(WebApplicationType.NONE)
+                // Como argumentos para ter precedência sobre o application.yaml
+                .run("--spring.jpa.show-sql=false",
+                        "--logging.level.root=WARN",
+                        "--logging.level.org.hibernate.SQL=WARN",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + lote);
+        pacienteRepository = contexto.getBean(PacienteRepository.class);
+        transacao = contexto.getBean(TransactionTemplate.class);
+        jdbc = contexto.getBean(JdbcTemplate.class);
+
+        jdbc.update("INSERT INTO clinicas (id, nome_fantasia, subdominio, ativo) VALUES (?, ?, ?, true)",
+                DadosSinteticos.CLINICA_ID, "Clínica Benchmark", "benchmark");
+        clinica = new Clinica();
+        clinica.setId(DadosSinteticos.CLINICA_ID);
+    }
+
+    @TearDown(Level.Iteration)
+    public void limpar() {
+        jdbc.update("DELETE FROM pacientes WHERE clinic_id = ?", DadosSinteticos.CLINICA_ID);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public int importarPacientes() {
+        List<Paciente> novos = new ArrayList<>(pacientes);
+        for (int i = 0; i < pacientes; i++) {
+            Paciente paciente = new Paciente();
+            paciente.setClinica(clinica);
+            paciente.setNome("Paciente " + i);
+            paciente.setCpf(cpf(++sequencial));
+            novos.add(paciente);
+        }
+        return transacao.execute(status -> pacienteRepository.saveAll(novos).size());
+    }
+
+    // CPF válido (a entidade é validada no persist) e único para cada paciente
+    private static String cpf(long numero) {
+        String base = String.format("%09d", numero);
+        int primeiro = digitoVerificador(base, 10);
+        return base + primeiro + digitoVerificador(base + primeiro, 11);
+    }
+
+    private static int digitoVerificador(String digitos, int pesoInicial) {
+        int soma = 0;
+        for (int i = 0; i < digitos.length(); i++) {
+            soma += (digitos.charAt(i) - '0') * (pesoInicial - i);
+        }
+        int resto = soma % 11;
+        return resto < 2 ? 0 : 11 - resto;
+    }
+}
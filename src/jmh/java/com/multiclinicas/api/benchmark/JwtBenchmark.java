@@ -0,0 +1,68 @@
+package com.multiclinicas.api.benchmark;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.multiclinicas.api.config.UsuarioAutenticado;
+import com.multiclinicas.api.services.JwtService;
+
+/**
+ * Custo de autenticação por requisição: verificação completa do token (cache
+ * desligado) contra a leitura de um token já verificado.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+
+    private JwtService servicoComCache;
+    private JwtService servicoSemCache;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        servicoComCache = criarServico(Duration.ofMinutes(5));
+        servicoSemCache = criarServico(Duration.ZERO);
+        token = servicoComCache.generateToken(10L, "PACIENTE", DadosSinteticos.CLINICA_ID);
+    }
+
+    private static JwtService criarServico(Duration ttlCache) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", "benchmarkSecretKeyWithAtLeast32CharactersLong");
+        ReflectionTestUtils.setField(service, "jwtExpiration", 86400000L);
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", 10_000L);
+        ReflectionTestUtils.setField(service, "cacheTtl", ttlCache);
+        ReflectionTestUtils.invokeMethod(service, "init");
+        return service;
+    }
+
+    @Benchmark
+    public UsuarioAutenticado autenticarTokenEmCache() {
+        return servicoComCache.autenticar(token);
+    }
+
+    @Benchmark
+    public UsuarioAutenticado autenticarSemCache() {
+        return servicoSemCache.autenticar(token);
+    }
+
+    @Benchmark
+    public String gerarToken() {
+        return servicoComCache.generateToken(10L, "PACIENTE", DadosSinteticos.CLINICA_ID);
+    }
+}
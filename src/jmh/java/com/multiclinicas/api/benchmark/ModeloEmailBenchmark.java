@@ -0,0 +1,57 @@
+package com.multiclinicas.api.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.multiclinicas.api.email.DadosEmail;
+import com.multiclinicas.api.email.TemplateEmail;
+import com.multiclinicas.api.email.TipoEmail;
+
+/**
+ * Custo de montar o texto de um lembrete: String.format com formatter criado a
+ * cada chamada (como era no job) contra o template compilado. Rodar com
+ * {@code -prof gc} para comparar a alocação por mensagem.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModeloEmailBenchmark {
+
+    private TemplateEmail template;
+    private DadosEmail dados;
+
+    @Setup
+    public void setUp() {
+        template = TemplateEmail.compilar(TipoEmail.LEMBRETE_CONSULTA.getCorpoPadrao(), "Clínica Central");
+        dados = new DadosEmail("Maria da Silva", "Gregory House", LocalDate.of(2030, 1, 7), LocalTime.of(10, 0));
+    }
+
+    @Benchmark
+    public String stringFormat() {
+        return String.format(
+                "Olá, %s!\n\nEste é um lembrete da sua consulta agendada para amanhã (%s) às %s com o(a) Dr(a). %s.\n\nPor favor, chegue com 15 minutos de antecedência.\n\nAtenciosamente,\nEquipe Multi Clínicas",
+                dados.paciente(), dados.data().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                dados.hora().toString(), dados.medico());
+    }
+
+    @Benchmark
+    public String templateCompilado() {
+        return template.renderizar(dados);
+    }
+}
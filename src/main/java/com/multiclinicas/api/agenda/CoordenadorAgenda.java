@@ -0,0 +1,144 @@
+package com.multiclinicas.api.agenda;
+
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.multiclinicas.api.config.TransacaoHelper;
+import com.multiclinicas.api.exceptions.ResourceConflictException;
+
+/**
+ * Serializa as gravações na agenda de um mesmo médico em um mesmo dia. Dentro
+ * da instância, cada (clínica, médico, data) cai em uma de N travas
+ * ({@code stripes}), então disputas por um médico não bloqueiam os demais. No
+ * PostgreSQL também é tomado um {@code pg_advisory_xact_lock(chave, dia)}, em
+ * que a chave combina clínica e médico, o que estende a exclusão às outras
+ * instâncias da API.
+ *
+ * As travas ficam presas até o fim da transação, de modo que o próximo da fila
+ * já enxerga o agendamento confirmado. A constraint de exclusão continua sendo
+ * a garantia final contra sobreposição.
+ */
+@Component
+public class CoordenadorAgenda {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock[] travas;
+    private final Duration espera;
+    private final boolean lockDistribuido;
+
+    public CoordenadorAgenda(DataSource dataSource,
+            @Value("${api.agenda.lock.stripes:1024}") int stripes,
+            @Value("${api.agenda.lock.timeout:PT5S}") Duration espera) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.travas = new ReentrantLock[Integer.highestOneBit(Math.max(stripes, 1) * 2 - 1)];
+        for (int i = 0; i < travas.length; i++) {
+            travas[i] = new ReentrantLock();
+        }
+        this.espera = espera;
+        this.lockDistribuido = isPostgres(dataSource);
+    }
+
+    /**
+     * Trava a agenda do médico no dia até o fim da transação atual. Se a trava
+     * não for obtida dentro do tempo configurado, o agendamento é recusado com
+     * 409 em vez de manter a requisição esperando.
+     */
+    public void bloquear(Long clinicId, Long medicoId, LocalDate data) {
+        travar(travas[indice(clinicId, medicoId, data)]);
+
+        if (lockDistribuido) {
+            // Liberado pelo próprio PostgreSQL no commit ou rollback
+            jdbcTemplate.query("SELECT pg_advisory_xact_lock(?, ?)", rs -> {
+            }, chaveMedico(clinicId, medicoId), (int) data.toEpochDay());
+        }
+    }
+
+    /**
+     * Trava vários dias da agenda do médico de uma vez (agendamento em lote).
+     * As travas locais são tomadas em ordem de índice e as do PostgreSQL em
+     * ordem de data, então dois lotes concorrentes nunca esperam um pelo outro
+     * em ordem inversa. No PostgreSQL é uma única consulta, qualquer que seja o
+     * número de dias.
+     */
+    public void bloquearDias(Long clinicId, Long medicoId, Collection<LocalDate> datas) {
+        int[] indices = datas.stream()
+                .mapToInt(data -> indice(clinicId, medicoId, data))
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int indice : indices) {
+            travar(travas[indice]);
+        }
+
+        if (lockDistribuido) {
+            Integer[] dias = datas.stream()
+                    .map(data -> (int) data.toEpochDay())
+                    .distinct()
+                    .sorted()
+                    .toArray(Integer[]::new);
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(
+                        "SELECT count(pg_advisory_xact_lock(?, dia)) FROM (SELECT unnest(?) AS dia ORDER BY 1) dias");
+                ps.setInt(1, chaveMedico(clinicId, medicoId));
+                ps.setArray(2, con.createArrayOf("integer", dias));
+                return ps;
+            }, rs -> {
+            });
+        }
+    }
+
+    private void travar(ReentrantLock trava) {
+        try {
+            if (!trava.tryLock(espera.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new ResourceConflictException(
+                        "A agenda do médico está sendo alterada por outra solicitação. Tente novamente.");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ResourceConflictException("Agendamento interrompido. Tente novamente.");
+        }
+
+        try {
+            TransacaoHelper.aoFinalizar(trava::unlock);
+        } catch (RuntimeException ex) {
+            trava.unlock();
+            throw ex;
+        }
+    }
+
+    private int indice(Long clinicId, Long medicoId, LocalDate data) {
+        int hash = Objects.hash(clinicId, medicoId, data);
+        // Espalha os bits altos, já que o índice usa só os baixos
+        return (hash ^ (hash >>> 16)) & (travas.length - 1);
+    }
+
+    // Primeira metade da chave do advisory lock; colisões só serializam médicos
+    // diferentes, nunca deixam de serializar o mesmo
+    static int chaveMedico(Long clinicId, Long medicoId) {
+        return Objects.hash(clinicId, medicoId);
+    }
+
+    private static boolean isPostgres(DataSource dataSource) {
+        try {
+            String produto = JdbcUtils.extractDatabaseMetaData(dataSource,
+                    DatabaseMetaData::getDatabaseProductName);
+            return "PostgreSQL".equalsIgnoreCase(produto);
+        } catch (MetaDataAccessException ex) {
+            return false;
+        }
+    }
+}
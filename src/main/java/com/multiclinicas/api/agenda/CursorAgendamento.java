@@ -0,0 +1,43 @@
+package com.multiclinicas.api.agenda;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import com.multiclinicas.api.dtos.AgendamentoDTO;
+import com.multiclinicas.api.exceptions.BusinessException;
+
+/**
+ * Posição do último agendamento de uma página na ordem (data, hora de início,
+ * id). Vai para o cliente como um texto opaco em Base64 e volta na próxima
+ * requisição para continuar a listagem a partir desse ponto.
+ */
+public record CursorAgendamento(LocalDate dataConsulta, LocalTime horaInicio, Long id) {
+
+    private static final String SEPARADOR = "|";
+
+    public static CursorAgendamento de(AgendamentoDTO agendamento) {
+        return new CursorAgendamento(agendamento.dataConsulta(), agendamento.horaInicio(), agendamento.id());
+    }
+
+    public String codificar() {
+        String valor = dataConsulta + SEPARADOR + horaInicio + SEPARADOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CursorAgendamento decodificar(String cursor) {
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] partes = valor.split("\\" + SEPARADOR);
+            if (partes.length != 3) {
+                throw new BusinessException("Cursor de paginação inválido.");
+            }
+            return new CursorAgendamento(LocalDate.parse(partes[0]), LocalTime.parse(partes[1]),
+                    Long.valueOf(partes[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new BusinessException("Cursor de paginação inválido.");
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package com.multiclinicas.api.agenda;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Grade semanal de um médico: os períodos de atendimento de cada dia da semana,
+ * ordenados pelo início. Segue a convenção de grades_horario.dia_semana
+ * (0 = domingo, 1 = segunda ... 6 = sábado).
+ */
+public final class GradeSemanal {
+
+    public static final GradeSemanal VAZIA = new GradeSemanal(List.of());
+
+    private final List<List<PeriodoGrade>> porDia;
+
+    public GradeSemanal(Collection<PeriodoGrade> periodos) {
+        List<List<PeriodoGrade>> dias = new ArrayList<>(7);
+        for (int dia = 0; dia < 7; dia++) {
+            dias.add(new ArrayList<>());
+        }
+        for (PeriodoGrade periodo : periodos) {
+            dias.get(indice(periodo.diaSemana())).add(periodo);
+        }
+        this.porDia = dias.stream()
+                .map(p -> p.stream().sorted(Comparator.comparing(PeriodoGrade::horaInicio)).toList())
+                .toList();
+    }
+
+    public List<PeriodoGrade> doDia(DayOfWeek dia) {
+        return porDia.get(indice(dia.getValue()));
+    }
+
+    // DayOfWeek vai de 1 (segunda) a 7 (domingo); o domingo fica no índice 0
+    private static int indice(int diaSemana) {
+        return Math.floorMod(diaSemana, 7);
+    }
+}
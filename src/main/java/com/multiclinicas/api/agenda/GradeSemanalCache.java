@@ -0,0 +1,78 @@
+package com.multiclinicas.api.agenda;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.multiclinicas.api.config.TransacaoHelper;
+import com.multiclinicas.api.repositories.GradeHorarioRepository;
+
+/**
+ * Grade semanal de cada médico em memória. A grade muda raramente, então fica
+ * em cache até ser alterada por {@code GradeHorarioService}, que invalida o
+ * médico após o commit. A chave inclui a clínica para que um médico nunca seja
+ * lido no contexto de outra; o TTL limita o tempo em que uma instância enxerga
+ * alterações feitas por outra.
+ */
+@Component
+public class GradeSemanalCache {
+
+    private final GradeHorarioRepository gradeHorarioRepository;
+    private final Cache<ChaveMedico, GradeSemanal> grades;
+
+    public GradeSemanalCache(GradeHorarioRepository gradeHorarioRepository,
+            @Value("${api.agenda.grade.max-entries:10000}") long maxEntries,
+            @Value("${api.agenda.grade.ttl:PT1H}") Duration ttl) {
+        this.gradeHorarioRepository = gradeHorarioRepository;
+        this.grades = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public GradeSemanal obter(Long clinicId, Long medicoId) {
+        return grades.get(new ChaveMedico(clinicId, medicoId),
+                chave -> new GradeSemanal(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(medicoId))));
+    }
+
+    // Grades de vários médicos; os que não estão em cache são lidos numa única consulta
+    public Map<Long, GradeSemanal> obterTodas(Long clinicId, Collection<Long> medicoIds) {
+        List<ChaveMedico> chaves = medicoIds.stream().map(id -> new ChaveMedico(clinicId, id)).toList();
+        Map<Long, GradeSemanal> porMedico = new HashMap<>();
+        grades.getAll(chaves, this::carregarTodas).forEach((chave, grade) -> porMedico.put(chave.medicoId(), grade));
+        return porMedico;
+    }
+
+    public void invalidar(Long clinicId, Long medicoId) {
+        ChaveMedico chave = new ChaveMedico(clinicId, medicoId);
+        TransacaoHelper.aposCommit(() -> grades.invalidate(chave));
+    }
+
+    private Map<ChaveMedico, GradeSemanal> carregarTodas(Set<? extends ChaveMedico> chaves) {
+        Map<Long, List<PeriodoGrade>> periodos = gradeHorarioRepository
+                .findPeriodosByMedicoIds(chaves.stream().map(ChaveMedico::medicoId).toList())
+                .stream()
+                .collect(Collectors.groupingBy(PeriodoGrade::medicoId));
+
+        // Médicos sem grade também entram no cache, com a grade vazia
+        Map<ChaveMedico, GradeSemanal> carregadas = new LinkedHashMap<>();
+        for (ChaveMedico chave : chaves) {
+            List<PeriodoGrade> doMedico = periodos.get(chave.medicoId());
+            carregadas.put(chave, doMedico == null ? GradeSemanal.VAZIA : new GradeSemanal(doMedico));
+        }
+        return carregadas;
+    }
+
+    private record ChaveMedico(Long clinicId, Long medicoId) {
+    }
+}
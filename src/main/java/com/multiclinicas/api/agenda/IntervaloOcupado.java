@@ -0,0 +1,10 @@
+package com.multiclinicas.api.agenda;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+/**
+ * Horário ocupado por um agendamento não cancelado, lido por projeção.
+ */
+public record IntervaloOcupado(Long medicoId, LocalDate dataConsulta, LocalTime horaInicio, LocalTime horaFim) {
+}
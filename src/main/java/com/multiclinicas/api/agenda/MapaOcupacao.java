@@ -0,0 +1,153 @@
+package com.multiclinicas.api.agenda;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ocupação de um médico em um dia, com resolução de um minuto (um bit por
+ * minuto, 1440 bits por dia). Guarda também os períodos da grade de horário
+ * daquele dia da semana e a duração da consulta do médico, o que permite
+ * calcular os horários livres sem consultar o banco.
+ */
+public final class MapaOcupacao {
+
+    public static final int MINUTOS_DIA = 24 * 60;
+
+    private static final int PALAVRAS = (MINUTOS_DIA + Long.SIZE - 1) / Long.SIZE;
+
+    private final boolean medicoAtivo;
+    private final int duracaoConsulta;
+    // Pares [inicio, fim) em minutos do dia, ordenados pelo início
+    private final int[] periodos;
+    private final long[] ocupados = new long[PALAVRAS];
+
+    public MapaOcupacao(boolean medicoAtivo, int duracaoConsulta, List<PeriodoGrade> grades) {
+        this.medicoAtivo = medicoAtivo;
+        this.duracaoConsulta = duracaoConsulta;
+
+        List<int[]> ordenados = new ArrayList<>(grades.size());
+        for (PeriodoGrade grade : grades) {
+            int inicio = minutoInicio(grade.horaInicio());
+            int fim = minutoInicio(grade.horaFim());
+            if (fim > inicio) {
+                ordenados.add(new int[] { inicio, fim });
+            }
+        }
+        ordenados.sort((a, b) -> Integer.compare(a[0], b[0]));
+
+        this.periodos = new int[ordenados.size() * 2];
+        for (int i = 0; i < ordenados.size(); i++) {
+            this.periodos[i * 2] = ordenados.get(i)[0];
+            this.periodos[i * 2 + 1] = ordenados.get(i)[1];
+        }
+    }
+
+    public boolean isMedicoAtivo() {
+        return medicoAtivo;
+    }
+
+    public int getDuracaoConsulta() {
+        return duracaoConsulta;
+    }
+
+    public boolean possuiGrade() {
+        return periodos.length > 0;
+    }
+
+    public synchronized void marcar(LocalTime inicio, LocalTime fim) {
+        alterar(minutoInicio(inicio), minutoFim(inicio, fim), true);
+    }
+
+    public synchronized void liberar(LocalTime inicio, LocalTime fim) {
+        alterar(minutoInicio(inicio), minutoFim(inicio, fim), false);
+    }
+
+    public synchronized boolean isLivre(LocalTime inicio, LocalTime fim) {
+        return intervaloLivre(minutoInicio(inicio), minutoFim(inicio, fim));
+    }
+
+    /**
+     * Retorna os inícios de consulta livres, percorrendo cada período da grade em
+     * passos de {@code duracaoConsulta}. Horários anteriores a {@code aPartirDe}
+     * são descartados (use {@code null} para não filtrar); um limite com segundos
+     * descarta também o minuto em curso, que já não pode ser agendado.
+     */
+    public synchronized List<LocalTime> horariosLivres(LocalTime aPartirDe) {
+        List<LocalTime> horarios = new ArrayList<>();
+        if (!medicoAtivo || duracaoConsulta <= 0) {
+            return horarios;
+        }
+
+        int minimo = aPartirDe == null ? 0 : minutoSeguinte(aPartirDe);
+
+        for (int i = 0; i < periodos.length; i += 2) {
+            int fimPeriodo = periodos[i + 1];
+            for (int slot = periodos[i]; slot + duracaoConsulta <= fimPeriodo; slot += duracaoConsulta) {
+                if (slot >= minimo && intervaloLivre(slot, slot + duracaoConsulta)) {
+                    horarios.add(LocalTime.of(slot / 60, slot % 60));
+                }
+            }
+        }
+
+        // Períodos sobrepostos podem gerar horários fora de ordem
+        horarios.sort(LocalTime::compareTo);
+        return horarios;
+    }
+
+    private boolean intervaloLivre(int inicio, int fim) {
+        if (fim <= inicio) {
+            return true;
+        }
+        int primeira = inicio >>> 6;
+        int ultima = (fim - 1) >>> 6;
+        for (int palavra = primeira; palavra <= ultima; palavra++) {
+            if ((ocupados[palavra] & mascara(palavra, inicio, fim)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void alterar(int inicio, int fim, boolean ocupar) {
+        if (fim <= inicio) {
+            return;
+        }
+        int primeira = inicio >>> 6;
+        int ultima = (fim - 1) >>> 6;
+        for (int palavra = primeira; palavra <= ultima; palavra++) {
+            long mascara = mascara(palavra, inicio, fim);
+            if (ocupar) {
+                ocupados[palavra] |= mascara;
+            } else {
+                ocupados[palavra] &= ~mascara;
+            }
+        }
+    }
+
+    // Bits de [inicio, fim) que caem dentro da palavra informada
+    private static long mascara(int palavra, int inicio, int fim) {
+        int base = palavra << 6;
+        int de = Math.max(inicio, base) - base;
+        int ate = Math.min(fim, base + Long.SIZE) - base;
+        long alta = ate == Long.SIZE ? -1L : (1L << ate) - 1;
+        long baixa = (1L << de) - 1;
+        return alta & ~baixa;
+    }
+
+    private static int minutoInicio(LocalTime hora) {
+        return hora.getHour() * 60 + hora.getMinute();
+    }
+
+    // Primeiro minuto cheio a partir da hora informada
+    private static int minutoSeguinte(LocalTime hora) {
+        int minuto = minutoInicio(hora);
+        return hora.getSecond() > 0 || hora.getNano() > 0 ? minuto + 1 : minuto;
+    }
+
+    // Horários que terminam à meia-noite (ou a atravessam) ocupam até o fim do dia
+    private static int minutoFim(LocalTime inicio, LocalTime fim) {
+        int minuto = minutoSeguinte(fim);
+        return minuto <= minutoInicio(inicio) ? MINUTOS_DIA : Math.min(minuto, MINUTOS_DIA);
+    }
+}
@@ -0,0 +1,7 @@
+package com.multiclinicas.api.agenda;
+
+/**
+ * Dados do médico necessários para montar a agenda, lidos por projeção.
+ */
+public record MedicoAgenda(Long id, String nome, Integer duracaoConsulta) {
+}
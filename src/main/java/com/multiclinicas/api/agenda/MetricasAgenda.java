@@ -0,0 +1,94 @@
+package com.multiclinicas.api.agenda;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.multiclinicas.api.exceptions.BusinessException;
+import com.multiclinicas.api.exceptions.ResourceConflictException;
+import com.multiclinicas.api.exceptions.ResourceNotFoundException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter.MeterProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Métricas das operações de agenda (criar, remarcar, cancelar e consultar
+ * disponibilidade): timer {@code agenda.operacao} com histograma para p99 e
+ * contador {@code agenda.conflitos} de agendamentos recusados por choque de
+ * horário.
+ *
+ * A tag {@code clinica} recebe o id das primeiras
+ * {@code api.metricas.max-clinicas} clínicas vistas pela instância; as demais
+ * são agregadas em {@code outras}, para o número de séries não crescer com a
+ * base de clientes.
+ */
+@Component
+public class MetricasAgenda {
+
+    public static final String CRIAR = "criar";
+    public static final String CRIAR_LOTE = "criar-lote";
+    public static final String REMARCAR = "remarcar";
+    public static final String CANCELAR = "cancelar";
+    public static final String DISPONIBILIDADE = "disponibilidade";
+
+    static final String OUTRAS_CLINICAS = "outras";
+
+    private final MeterProvider<Timer> operacoes;
+    private final MeterProvider<Counter> conflitos;
+    private final int maxClinicas;
+    private final Set<String> clinicasComTag = ConcurrentHashMap.newKeySet();
+
+    public MetricasAgenda(MeterRegistry registry,
+            @Value("${api.metricas.max-clinicas:50}") int maxClinicas) {
+        this.operacoes = Timer.builder("agenda.operacao")
+                .description("Duração das operações de agenda")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .withRegistry(registry);
+        this.conflitos = Counter.builder("agenda.conflitos")
+                .description("Agendamentos recusados por conflito de horário")
+                .withRegistry(registry);
+        this.maxClinicas = maxClinicas;
+    }
+
+    public <T> T registrar(String operacao, Long clinicId, Supplier<T> acao) {
+        long inicio = System.nanoTime();
+        String resultado = "erro";
+        try {
+            T retorno = acao.get();
+            resultado = "sucesso";
+            return retorno;
+        } catch (ResourceConflictException e) {
+            resultado = "conflito";
+            conflitos.withTags(Tags.of("operacao", operacao, "clinica", tagClinica(clinicId))).increment();
+            throw e;
+        } catch (BusinessException | ResourceNotFoundException e) {
+            resultado = "rejeitado";
+            throw e;
+        } finally {
+            operacoes.withTags(Tags.of("operacao", operacao, "clinica", tagClinica(clinicId), "resultado", resultado))
+                    .record(Duration.ofNanos(System.nanoTime() - inicio));
+        }
+    }
+
+    String tagClinica(Long clinicId) {
+        String tag = String.valueOf(clinicId);
+        if (clinicasComTag.contains(tag)) {
+            return tag;
+        }
+        // Corrida entre threads pode passar do limite por poucas clínicas; aceitável
+        if (clinicasComTag.size() < maxClinicas) {
+            clinicasComTag.add(tag);
+            return tag;
+        }
+        return OUTRAS_CLINICAS;
+    }
+}
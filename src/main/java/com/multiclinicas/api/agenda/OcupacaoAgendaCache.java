@@ -0,0 +1,169 @@
+package com.multiclinicas.api.agenda;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.multiclinicas.api.config.TransacaoHelper;
+import com.multiclinicas.api.config.datasource.LeituraNoPrimario;
+import com.multiclinicas.api.exceptions.ResourceNotFoundException;
+import com.multiclinicas.api.models.Agendamento;
+import com.multiclinicas.api.models.Medico;
+import com.multiclinicas.api.repositories.AgendamentoRepository;
+import com.multiclinicas.api.repositories.MedicoRepository;
+
+/**
+ * Mantém em memória um {@link MapaOcupacao} por médico e dia. O mapa é montado
+ * na primeira consulta (médico, grade do dia e agendamentos do dia) e depois é
+ * atualizado incrementalmente a cada agendamento criado, remarcado ou
+ * cancelado, de modo que a busca de disponibilidade não precise ir ao banco.
+ *
+ * As alterações só são aplicadas ao mapa depois que a transação que as
+ * originou é confirmada. O cache é local a cada instância da API; o TTL limita
+ * o tempo em que uma instância pode enxergar alterações feitas por outra. A
+ * validação de conflito na criação continua sendo feita no banco.
+ *
+ * Uma alteração confirmada enquanto o mapa do mesmo médico está sendo
+ * carregado pode não estar na leitura do banco nem ser aplicada ao mapa (que
+ * ainda não está no cache). Para isso cada médico tem um contador de gerações,
+ * incrementado antes de cada alteração: a carga que terminar com a geração
+ * diferente da que encontrou ao começar é descartada.
+ *
+ * O mapa é compartilhado por todos os usuários, então a carga é feita numa
+ * transação própria no primário ({@link LeituraNoPrimario}): lida da réplica,
+ * uma carga logo após um commit poderia perder o agendamento e passar pela
+ * verificação de geração, ficando errada no cache até o TTL.
+ */
+@Component
+public class OcupacaoAgendaCache {
+
+    private final MedicoRepository medicoRepository;
+    private final GradeSemanalCache gradeSemanalCache;
+    private final AgendamentoRepository agendamentoRepository;
+    private final TransactionTemplate transacaoCarga;
+    private final Cache<ChaveAgenda, MapaOcupacao> mapas;
+    // Por faixa de (clínica, médico); colisões só causam descartes a mais
+    private final AtomicLongArray geracoes = new AtomicLongArray(1024);
+
+    public OcupacaoAgendaCache(MedicoRepository medicoRepository,
+            GradeSemanalCache gradeSemanalCache,
+            AgendamentoRepository agendamentoRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${api.agenda.ocupacao.max-entries:50000}") long maxEntries,
+            @Value("${api.agenda.ocupacao.ttl:PT5M}") Duration ttl) {
+        this.medicoRepository = medicoRepository;
+        this.gradeSemanalCache = gradeSemanalCache;
+        this.agendamentoRepository = agendamentoRepository;
+        // Nova transação: se quem chama já tiver uma, a conexão dela pode ser da réplica
+        this.transacaoCarga = new TransactionTemplate(transactionManager);
+        this.transacaoCarga.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.transacaoCarga.setReadOnly(true);
+        this.mapas = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public MapaOcupacao obter(Long clinicId, Long medicoId, LocalDate data) {
+        ChaveAgenda chave = new ChaveAgenda(clinicId, medicoId, data);
+        MapaOcupacao mapa = mapas.getIfPresent(chave);
+        if (mapa != null) {
+            return mapa;
+        }
+
+        int indice = indice(clinicId, medicoId);
+        long geracao = geracoes.get(indice);
+        MapaOcupacao carregado = LeituraNoPrimario.executar(
+                () -> transacaoCarga.execute(status -> carregar(chave)));
+        MapaOcupacao existente = mapas.asMap().putIfAbsent(chave, carregado);
+        if (existente != null) {
+            return existente;
+        }
+        // Alteração confirmada durante a carga: o mapa pode não refleti-la
+        if (geracoes.get(indice) != geracao) {
+            mapas.asMap().remove(chave, carregado);
+        }
+        return carregado;
+    }
+
+    public void registrar(Agendamento agendamento) {
+        ChaveAgenda chave = chaveDe(agendamento);
+        LocalTime inicio = agendamento.getHoraInicio();
+        LocalTime fim = agendamento.getHoraFim();
+        TransacaoHelper.aposCommit(() -> {
+            geracoes.incrementAndGet(indice(chave.clinicId(), chave.medicoId()));
+            MapaOcupacao mapa = mapas.getIfPresent(chave);
+            if (mapa != null) {
+                mapa.marcar(inicio, fim);
+            }
+        });
+    }
+
+    public void liberar(Long clinicId, Long medicoId, LocalDate data, LocalTime inicio, LocalTime fim) {
+        ChaveAgenda chave = new ChaveAgenda(clinicId, medicoId, data);
+        TransacaoHelper.aposCommit(() -> {
+            geracoes.incrementAndGet(indice(clinicId, medicoId));
+            MapaOcupacao mapa = mapas.getIfPresent(chave);
+            if (mapa != null) {
+                mapa.liberar(inicio, fim);
+            }
+        });
+    }
+
+    // Chamado quando a grade, a duração da consulta ou o status do médico mudam
+    public void invalidarMedico(Long clinicId, Long medicoId) {
+        TransacaoHelper.aposCommit(() -> {
+            geracoes.incrementAndGet(indice(clinicId, medicoId));
+            mapas.asMap().keySet()
+                    .removeIf(chave -> chave.medicoId().equals(medicoId) && chave.clinicId().equals(clinicId));
+        });
+    }
+
+    private int indice(Long clinicId, Long medicoId) {
+        return (Objects.hash(clinicId, medicoId) & 0x7fffffff) % geracoes.length();
+    }
+
+    private MapaOcupacao carregar(ChaveAgenda chave) {
+        Medico medico = medicoRepository.findByIdAndClinicaId(chave.medicoId(), chave.clinicId());
+        if (medico == null) {
+            throw new ResourceNotFoundException("Médido não encontrado.");
+        }
+
+        if (!Boolean.TRUE.equals(medico.getAtivo())) {
+            return new MapaOcupacao(false, medico.getDuracaoConsulta(), List.of());
+        }
+
+        List<PeriodoGrade> grades = gradeSemanalCache.obter(chave.clinicId(), medico.getId())
+                .doDia(chave.data().getDayOfWeek());
+
+        MapaOcupacao mapa = new MapaOcupacao(true, medico.getDuracaoConsulta(), grades);
+        if (!mapa.possuiGrade()) {
+            return mapa;
+        }
+
+        // Projeção: evita carregar paciente e clínica (EAGER) de cada agendamento
+        agendamentoRepository.findIntervalosOcupados(chave.clinicId(), List.of(medico.getId()), chave.data(), chave.data())
+                .forEach(o -> mapa.marcar(o.horaInicio(), o.horaFim()));
+
+        return mapa;
+    }
+
+    private static ChaveAgenda chaveDe(Agendamento agendamento) {
+        return new ChaveAgenda(agendamento.getClinica().getId(), agendamento.getMedico().getId(),
+                agendamento.getDataConsulta());
+    }
+
+    private record ChaveAgenda(Long clinicId, Long medicoId, LocalDate data) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.multiclinicas.api.agenda;
+
+import java.time.LocalTime;
+
+import com.multiclinicas.api.models.GradeHorario;
+
+/**
+ * Período de atendimento de um médico em um dia da semana, sem carregar a
+ * entidade {@link GradeHorario} (e o médico associado a ela).
+ */
+public record PeriodoGrade(Long medicoId, Integer diaSemana, LocalTime horaInicio, LocalTime horaFim) {
+
+    public static PeriodoGrade de(GradeHorario grade) {
+        return new PeriodoGrade(grade.getMedico().getId(), grade.getDiaSemana(), grade.getHoraInicio(),
+                grade.getHoraFim());
+    }
+}
@@ -0,0 +1,133 @@
+package com.multiclinicas.api.catalogo;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.multiclinicas.api.dtos.EspecialidadeDTO;
+import com.multiclinicas.api.dtos.MedicoDTO;
+import com.multiclinicas.api.dtos.PlanoSaudeDTO;
+import com.multiclinicas.api.mappers.EspecialidadeMapper;
+import com.multiclinicas.api.mappers.MedicoMapper;
+import com.multiclinicas.api.mappers.PlanoSaudeMapper;
+import com.multiclinicas.api.repositories.EspecialidadeRepository;
+import com.multiclinicas.api.repositories.MedicoRepository;
+import com.multiclinicas.api.repositories.PlanoSaudeRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Dados de referência de cada clínica (especialidades, planos de saúde e
+ * médicos ativos) em memória, já no formato das respostas da API. Cada lista
+ * guarda a versão de {@link VersoesCatalogo} em que foi lida e é recarregada
+ * quando a versão muda, inclusive por escritas feitas em outra instância.
+ *
+ * Clínicas cuja lista passa de {@code api.catalogo.max-itens-por-clinica}
+ * itens não ocupam o cache: a lista é lida do banco a cada chamada.
+ */
+@Component
+public class CatalogoClinica implements MeterBinder {
+
+    private final EspecialidadeRepository especialidadeRepository;
+    private final PlanoSaudeRepository planoSaudeRepository;
+    private final MedicoRepository medicoRepository;
+    private final EspecialidadeMapper especialidadeMapper;
+    private final PlanoSaudeMapper planoSaudeMapper;
+    private final MedicoMapper medicoMapper;
+    private final VersoesCatalogo versoesCatalogo;
+    private final int maxItensPorClinica;
+    private final Cache<Long, ListaCatalogo<EspecialidadeDTO>> especialidades;
+    private final Cache<Long, ListaCatalogo<PlanoSaudeDTO>> planosSaude;
+    private final Cache<Long, ListaCatalogo<MedicoDTO>> medicosAtivos;
+
+    public CatalogoClinica(EspecialidadeRepository especialidadeRepository,
+            PlanoSaudeRepository planoSaudeRepository,
+            MedicoRepository medicoRepository,
+            EspecialidadeMapper especialidadeMapper,
+            PlanoSaudeMapper planoSaudeMapper,
+            MedicoMapper medicoMapper,
+            VersoesCatalogo versoesCatalogo,
+            @Value("${api.catalogo.max-clinicas:10000}") long maxClinicas,
+            @Value("${api.catalogo.max-itens-por-clinica:2000}") int maxItensPorClinica,
+            @Value("${api.catalogo.ttl:PT10M}") Duration ttl) {
+        this.especialidadeRepository = especialidadeRepository;
+        this.planoSaudeRepository = planoSaudeRepository;
+        this.medicoRepository = medicoRepository;
+        this.especialidadeMapper = especialidadeMapper;
+        this.planoSaudeMapper = planoSaudeMapper;
+        this.medicoMapper = medicoMapper;
+        this.versoesCatalogo = versoesCatalogo;
+        this.maxItensPorClinica = maxItensPorClinica;
+        this.especialidades = novoCache(maxClinicas, ttl);
+        this.planosSaude = novoCache(maxClinicas, ttl);
+        this.medicosAtivos = novoCache(maxClinicas, ttl);
+    }
+
+    private static <T> Cache<Long, ListaCatalogo<T>> novoCache(long maxClinicas, Duration ttl) {
+        return Caffeine.newBuilder()
+                .maximumSize(maxClinicas)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public ListaCatalogo<EspecialidadeDTO> especialidades(Long clinicId) {
+        return obter(especialidades, clinicId, RecursoCatalogo.ESPECIALIDADES,
+                () -> especialidadeRepository.findByClinicaId(clinicId).stream()
+                        .map(especialidadeMapper::toDTO)
+                        .toList(),
+                EspecialidadeDTO::id);
+    }
+
+    public ListaCatalogo<PlanoSaudeDTO> planosSaude(Long clinicId) {
+        return obter(planosSaude, clinicId, RecursoCatalogo.PLANOS_SAUDE,
+                () -> planoSaudeRepository.findByClinicaId(clinicId).stream()
+                        .map(planoSaudeMapper::toDTO)
+                        .toList(),
+                PlanoSaudeDTO::id);
+    }
+
+    public ListaCatalogo<MedicoDTO> medicosAtivos(Long clinicId) {
+        return obter(medicosAtivos, clinicId, RecursoCatalogo.MEDICOS,
+                () -> medicoRepository.findAllByClinicaIdAndAtivoTrue(clinicId).stream()
+                        .map(medicoMapper::toDTO)
+                        .toList(),
+                MedicoDTO::id);
+    }
+
+    private <T> ListaCatalogo<T> obter(Cache<Long, ListaCatalogo<T>> cache, Long clinicId, RecursoCatalogo recurso,
+            Supplier<List<T>> carregar, Function<T, Long> id) {
+        // A versão é lida antes dos dados: se uma escrita acontecer no meio, a
+        // lista fica marcada com a versão anterior e é recarregada na próxima vez
+        long versao = versoesCatalogo.atual(clinicId, recurso);
+        ListaCatalogo<T> emCache = cache.getIfPresent(clinicId);
+        if (emCache != null && emCache.versao() == versao) {
+            return emCache;
+        }
+
+        ListaCatalogo<T> lista = new ListaCatalogo<>(carregar.get(), id, versao,
+                VersoesCatalogo.etag(clinicId, recurso, versao));
+        if (lista.itens().size() <= maxItensPorClinica) {
+            // Duas cargas simultâneas: fica a da versão mais recente
+            cache.asMap().merge(clinicId, lista,
+                    (atual, carregada) -> atual.versao() > carregada.versao() ? atual : carregada);
+        }
+        return lista;
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, especialidades, "catalogo.especialidades");
+        CaffeineCacheMetrics.monitor(registry, planosSaude, "catalogo.planos-saude");
+        CaffeineCacheMetrics.monitor(registry, medicosAtivos, "catalogo.medicos-ativos");
+    }
+}
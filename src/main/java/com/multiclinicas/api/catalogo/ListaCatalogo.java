@@ -0,0 +1,46 @@
+package com.multiclinicas.api.catalogo;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Lista imutável de dados de referência de uma clínica, indexada por id, com a
+ * versão do catálogo em que foi lida e o ETag correspondente.
+ */
+public final class ListaCatalogo<T> {
+
+    private final List<T> itens;
+    private final Map<Long, T> porId;
+    private final long versao;
+    private final String etag;
+
+    public ListaCatalogo(List<T> itens, Function<T, Long> id, long versao, String etag) {
+        this.itens = List.copyOf(itens);
+        Map<Long, T> indice = new LinkedHashMap<>();
+        for (T item : this.itens) {
+            indice.put(id.apply(item), item);
+        }
+        this.porId = Map.copyOf(indice);
+        this.versao = versao;
+        this.etag = etag;
+    }
+
+    public List<T> itens() {
+        return itens;
+    }
+
+    public Optional<T> buscar(Long id) {
+        return id == null ? Optional.empty() : Optional.ofNullable(porId.get(id));
+    }
+
+    public long versao() {
+        return versao;
+    }
+
+    public String etag() {
+        return etag;
+    }
+}
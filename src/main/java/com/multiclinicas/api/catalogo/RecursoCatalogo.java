@@ -0,0 +1,12 @@
+package com.multiclinicas.api.catalogo;
+
+/**
+ * Dados de referência da clínica versionados em {@link VersoesCatalogo}. Cada
+ * recurso tem uma versão própria, usada como ETag das suas listagens.
+ */
+public enum RecursoCatalogo {
+    MEDICOS,
+    ESPECIALIDADES,
+    PLANOS_SAUDE,
+    GRADE_HORARIO
+}
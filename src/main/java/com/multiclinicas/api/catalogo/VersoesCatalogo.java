@@ -0,0 +1,85 @@
+package com.multiclinicas.api.catalogo;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.multiclinicas.api.config.TransacaoHelper;
+import com.multiclinicas.api.repositories.VersaoCatalogoRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Contador de versão dos dados de referência de cada clínica. Os services
+ * incrementam a versão na mesma transação da escrita; as listagens usam a
+ * versão como ETag e respondem 304 sem consultar os dados nem serializar nada.
+ *
+ * A versão lida fica em memória: a instância que fez a escrita a descarta após
+ * o commit, e as demais enxergam a nova versão quando o TTL vence.
+ */
+@Component
+public class VersoesCatalogo implements MeterBinder {
+
+    private final VersaoCatalogoRepository versaoCatalogoRepository;
+    private final Cache<ChaveVersao, Long> versoes;
+
+    public VersoesCatalogo(VersaoCatalogoRepository versaoCatalogoRepository,
+            @Value("${api.catalogo.versoes.max-entries:40000}") long maxEntries,
+            @Value("${api.catalogo.versoes.ttl:PT5S}") Duration ttl) {
+        this.versaoCatalogoRepository = versaoCatalogoRepository;
+        this.versoes = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    public long atual(Long clinicId, RecursoCatalogo recurso) {
+        return versoes.get(new ChaveVersao(clinicId, recurso),
+                chave -> versaoCatalogoRepository.findVersao(clinicId, recurso).orElse(0L));
+    }
+
+    public String etag(Long clinicId, RecursoCatalogo recurso) {
+        return etag(clinicId, recurso, atual(clinicId, recurso));
+    }
+
+    // A URL das listagens é a mesma para todas as clínicas (muda só o header
+    // X-Clinic-ID), então a clínica faz parte do ETag
+    static String etag(Long clinicId, RecursoCatalogo recurso, long versao) {
+        return "\"" + recurso.name().toLowerCase() + "-" + clinicId + "-" + versao + "\"";
+    }
+
+    // MANDATORY: a versão só muda se a escrita que a motivou for confirmada.
+    // Os recursos são incrementados sempre na mesma ordem, para que escritas
+    // concorrentes não travem as linhas em ordem inversa.
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void incrementar(Long clinicId, RecursoCatalogo... recursos) {
+        EnumSet<RecursoCatalogo> ordenados = EnumSet.noneOf(RecursoCatalogo.class);
+        ordenados.addAll(List.of(recursos));
+        for (RecursoCatalogo recurso : ordenados) {
+            versaoCatalogoRepository.criarSeAusente(clinicId, recurso.name());
+            versaoCatalogoRepository.incrementar(clinicId, recurso);
+        }
+
+        List<ChaveVersao> chaves = ordenados.stream().map(r -> new ChaveVersao(clinicId, r)).toList();
+        TransacaoHelper.aposCommit(() -> versoes.invalidateAll(chaves));
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, versoes, "catalogo.versoes");
+    }
+
+    private record ChaveVersao(Long clinicId, RecursoCatalogo recurso) {
+    }
+}
@@ -33,7 +33,6 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
         final String jwt;
-        final String userId;
 
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             filterChain.doFilter(request, response);
@@ -43,35 +42,32 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         jwt = authHeader.substring(7);
 
         try {
-            userId = jwtService.extractUserId(jwt);
-            if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                if (jwtService.isTokenValid(jwt)) {
-                    String role = jwtService.extractRole(jwt);
-                    
-                    if (!"SUPER_ADMIN".equals(role)) {
-                        String headerClinicIdStr = request.getHeader("X-Clinic-ID");
-                        Long tokenClinicId = jwtService.extractClinicId(jwt);
-                        
-                        if (headerClinicIdStr == null || headerClinicIdStr.trim().isEmpty()) {
-                            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Header X-Clinic-ID is missing");
-                            return;
-                        }
-                        
-                        Long headerClinicId = Long.parseLong(headerClinicIdStr);
-                        if (!headerClinicId.equals(tokenClinicId)) {
-                            response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied: Clinic ID mismatch");
-                            return;
-                        }
+            if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                UsuarioAutenticado usuario = jwtService.autenticar(jwt);
+                String role = usuario.role();
+
+                if (!"SUPER_ADMIN".equals(role)) {
+                    String headerClinicIdStr = request.getHeader("X-Clinic-ID");
+
+                    if (headerClinicIdStr == null || headerClinicIdStr.trim().isEmpty()) {
+                        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Header X-Clinic-ID is missing");
+                        return;
                     }
 
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userId,
-                            null,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
+                    Long headerClinicId = Long.parseLong(headerClinicIdStr);
+                    if (!headerClinicId.equals(usuario.clinicId())) {
+                        response.sendError(HttpServletResponse.SC_FORBIDDEN, "Access denied: Clinic ID mismatch");
+                        return;
+                    }
                 }
+
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        usuario,
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                SecurityContextHolder.getContext().setAuthentication(authToken);
             }
         } catch (Exception e) {
             response.sendError(HttpServletResponse.SC_FORBIDDEN, "Invalid or expired JWT token");
@@ -0,0 +1,39 @@
+package com.multiclinicas.api.config;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+public final class TransacaoHelper {
+
+    private TransacaoHelper() {
+    }
+
+    // Executa a ação somente se a transação atual for confirmada; fora de
+    // transação, executa imediatamente
+    public static void aposCommit(Runnable acao) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    acao.run();
+                }
+            });
+        } else {
+            acao.run();
+        }
+    }
+
+    // Executa a ação ao fim da transação atual, confirmada ou não. Exige uma
+    // transação ativa, pois é usada para liberar recursos presos a ela.
+    public static void aoFinalizar(Runnable acao) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Nenhuma transação ativa.");
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                acao.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.multiclinicas.api.config;
+
+import java.security.Principal;
+import java.time.Instant;
+
+/**
+ * Dados do usuário extraídos de um token JWT já verificado. É o principal da
+ * autenticação registrada pelo {@link JwtAuthenticationFilter}.
+ */
+public record UsuarioAutenticado(Long userId, String role, Long clinicId, Instant expiracao) implements Principal {
+
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+
+    public boolean isExpirado(Instant agora) {
+        return !expiracao.isAfter(agora);
+    }
+}
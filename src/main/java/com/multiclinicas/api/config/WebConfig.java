@@ -1,5 +1,6 @@
 package com.multiclinicas.api.config;
 
+import com.multiclinicas.api.config.sql.ConsultasSqlInterceptor;
 import com.multiclinicas.api.config.tenant.TenantInterceptor;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
@@ -12,6 +13,7 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 public class WebConfig implements WebMvcConfigurer {
 
     private final TenantInterceptor tenantInterceptor;
+    private final ConsultasSqlInterceptor consultasSqlInterceptor;
 
     @Override
     public void addCorsMappings(CorsRegistry registry) {
@@ -24,6 +26,8 @@ public class WebConfig implements WebMvcConfigurer {
 
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
+        // Primeiro, para contar também as consultas da validação da clínica
+        registry.addInterceptor(consultasSqlInterceptor);
         registry.addInterceptor(tenantInterceptor)
                 // Aplica a validação em todas as rotas da API
                 .addPathPatterns("/**")
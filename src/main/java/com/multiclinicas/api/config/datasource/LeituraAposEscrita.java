@@ -0,0 +1,53 @@
+package com.multiclinicas.api.config.datasource;
+
+import java.time.Duration;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.multiclinicas.api.config.TransacaoHelper;
+import com.multiclinicas.api.config.UsuarioAutenticado;
+import com.multiclinicas.api.config.tenant.TenantContext;
+
+/**
+ * Garante que quem acabou de escrever (ex.: o paciente que marcou a consulta)
+ * leia os próprios dados: por {@code janela} após o commit de uma escrita, as
+ * transações somente leitura do mesmo usuário, ou da mesma clínica em
+ * requisições anônimas, vão para o primário em vez da réplica. O registro é
+ * local à instância que atendeu a escrita.
+ */
+class LeituraAposEscrita {
+
+    private final Cache<String, Boolean> escritasRecentes;
+
+    LeituraAposEscrita(Duration janela, long maxEntries) {
+        this.escritasRecentes = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(janela)
+                .build();
+    }
+
+    boolean exigePrimario() {
+        String chave = chave();
+        return chave != null && escritasRecentes.getIfPresent(chave) != null;
+    }
+
+    void registrarEscrita() {
+        String chave = chave();
+        if (chave != null) {
+            // A janela conta a partir do commit, quando a réplica começa a receber a escrita
+            TransacaoHelper.aposCommit(() -> escritasRecentes.put(chave, Boolean.TRUE));
+        }
+    }
+
+    private static String chave() {
+        Authentication autenticacao = SecurityContextHolder.getContext().getAuthentication();
+        if (autenticacao != null && autenticacao.getPrincipal() instanceof UsuarioAutenticado usuario) {
+            return "usuario-" + usuario.userId();
+        }
+        Long clinicId = TenantContext.getClinicId();
+        return clinicId == null ? null : "clinica-" + clinicId;
+    }
+}
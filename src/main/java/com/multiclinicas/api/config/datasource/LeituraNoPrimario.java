@@ -0,0 +1,38 @@
+package com.multiclinicas.api.config.datasource;
+
+import java.util.function.Supplier;
+
+/**
+ * Leva ao primário as transações somente leitura abertas dentro de
+ * {@link #executar(Supplier)}. Serve para dados que vão para um cache
+ * compartilhado: lidos da réplica atrasada, ficariam velhos para todos os
+ * usuários até o TTL, e a janela de {@link LeituraAposEscrita} vale só para
+ * quem escreveu.
+ *
+ * A conexão é escolhida no primeiro statement da transação, então quem chama
+ * precisa abrir uma transação nova dentro do bloco. Sem réplica configurada,
+ * não tem efeito.
+ */
+public final class LeituraNoPrimario {
+
+    private static final ThreadLocal<Boolean> ativa = new ThreadLocal<>();
+
+    private LeituraNoPrimario() {
+    }
+
+    public static <T> T executar(Supplier<T> tarefa) {
+        if (ativa.get() != null) {
+            return tarefa.get();
+        }
+        ativa.set(Boolean.TRUE);
+        try {
+            return tarefa.get();
+        } finally {
+            ativa.remove();
+        }
+    }
+
+    static boolean isAtiva() {
+        return ativa.get() != null;
+    }
+}
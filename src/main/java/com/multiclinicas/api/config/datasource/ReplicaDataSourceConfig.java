@@ -0,0 +1,88 @@
+package com.multiclinicas.api.config.datasource;
+
+import java.sql.Connection;
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.resource.jdbc.spi.PhysicalConnectionHandlingMode;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Com {@code api.datasource.replica.jdbc-url} definido, a aplicação passa a ter
+ * dois pools Hikari: o primário ({@code spring.datasource.*}) e a réplica
+ * ({@code api.datasource.replica.*}, demais propriedades do Hikari no mesmo
+ * prefixo). As métricas {@code hikaricp.*} saem separadas pela tag
+ * {@code pool}. Sem a propriedade, vale o DataSource padrão do Spring Boot.
+ *
+ * A leitura após escrita ({@link LeituraAposEscrita}) fica em memória, por
+ * instância: com mais de uma instância, o balanceador precisa manter o usuário
+ * na mesma instância (sticky session) para que ele leia os próprios dados.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "api.datasource.replica", name = "jdbc-url")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primarioDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primario");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("api.datasource.replica")
+    HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = DataSourceBuilder.create().type(HikariDataSource.class).build();
+        dataSource.setPoolName("replica");
+        // Proteção contra escrita acidental na réplica
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    // O Spring configura o Hibernate para segurar a conexão até fechar a sessão, e
+    // com o open-in-view a sessão dura a requisição inteira: a primeira transação
+    // decidiria entre réplica e primário para todas as seguintes
+    @Bean
+    HibernatePropertiesCustomizer liberarConexaoAposTransacao() {
+        return properties -> properties.put(AvailableSettings.CONNECTION_HANDLING,
+                PhysicalConnectionHandlingMode.DELAYED_ACQUISITION_AND_RELEASE_AFTER_TRANSACTION);
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(@Qualifier("primarioDataSource") DataSource primario,
+            @Qualifier("replicaDataSource") DataSource replica,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${api.datasource.replica.janela-leitura-primario:PT5S}") Duration janela,
+            @Value("${api.datasource.replica.max-usuarios-recentes:100000}") long maxUsuarios) {
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(primario, replica,
+                new LeituraAposEscrita(janela, maxUsuarios), meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        // Evita abrir uma conexão no startup só para descobrir os padrões
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.setTargetDataSource(roteamento);
+        proxy.afterPropertiesSet();
+        return proxy;
+    }
+}
@@ -0,0 +1,67 @@
+package com.multiclinicas.api.config.datasource;
+
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Envia transações {@code readOnly} para a réplica e o resto para o primário,
+ * exceto as leituras de quem acabou de escrever ({@link LeituraAposEscrita}) e
+ * as feitas dentro de {@link LeituraNoPrimario}.
+ * Precisa ficar atrás de um {@code LazyConnectionDataSourceProxy}: a conexão
+ * só é pedida no primeiro statement, quando a transação já está marcada como
+ * somente leitura.
+ */
+class RoteamentoDataSource extends AbstractRoutingDataSource {
+
+    enum Destino {
+        PRIMARIO, REPLICA
+    }
+
+    private final LeituraAposEscrita leituraAposEscrita;
+    private final Counter leiturasPrimario;
+    private final Counter leiturasReplica;
+    private final Counter escritas;
+
+    RoteamentoDataSource(DataSource primario, DataSource replica, LeituraAposEscrita leituraAposEscrita,
+            MeterRegistry meterRegistry) {
+        this.leituraAposEscrita = leituraAposEscrita;
+        this.leiturasPrimario = contador(meterRegistry, "leitura", "primario");
+        this.leiturasReplica = contador(meterRegistry, "leitura", "replica");
+        this.escritas = contador(meterRegistry, "escrita", "primario");
+        setTargetDataSources(Map.of(Destino.PRIMARIO, primario, Destino.REPLICA, replica));
+        setDefaultTargetDataSource(primario);
+        afterPropertiesSet();
+    }
+
+    private static Counter contador(MeterRegistry meterRegistry, String tipo, String destino) {
+        return Counter.builder("datasource.roteamento")
+                .description("Conexões entregues por tipo de transação e banco de destino")
+                .tag("tipo", tipo)
+                .tag("destino", destino)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (LeituraNoPrimario.isAtiva() || leituraAposEscrita.exigePrimario()) {
+                leiturasPrimario.increment();
+                return Destino.PRIMARIO;
+            }
+            leiturasReplica.increment();
+            return Destino.REPLICA;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            leituraAposEscrita.registrarEscrita();
+        }
+        escritas.increment();
+        return Destino.PRIMARIO;
+    }
+}
@@ -0,0 +1,52 @@
+package com.multiclinicas.api.config.sql;
+
+/**
+ * Statements executados pela requisição corrente e tempo acumulado no JDBC.
+ * Aberto e fechado pelo {@link ConsultasSqlInterceptor}; consultas feitas fora
+ * de requisições (jobs, Flyway) ou em outras threads não são contabilizadas.
+ */
+public final class ConsultasRequisicao {
+
+    private static final ThreadLocal<ConsultasRequisicao> atual = new ThreadLocal<>();
+
+    private final String endpoint;
+    private int quantidade;
+    private long nanos;
+
+    private ConsultasRequisicao(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    static ConsultasRequisicao iniciar(String endpoint) {
+        ConsultasRequisicao consultas = new ConsultasRequisicao(endpoint);
+        atual.set(consultas);
+        return consultas;
+    }
+
+    static ConsultasRequisicao atual() {
+        return atual.get();
+    }
+
+    static ConsultasRequisicao encerrar() {
+        ConsultasRequisicao consultas = atual.get();
+        atual.remove();
+        return consultas;
+    }
+
+    void registrar(long nanos) {
+        this.quantidade++;
+        this.nanos += nanos;
+    }
+
+    public String endpoint() {
+        return endpoint;
+    }
+
+    public int quantidade() {
+        return quantidade;
+    }
+
+    public long nanos() {
+        return nanos;
+    }
+}
@@ -0,0 +1,48 @@
+package com.multiclinicas.api.config.sql;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.lang.NonNull;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+/**
+ * Envolve o DataSource em um proxy que conta os statements de cada requisição
+ * (ver {@link ConsultasSqlInterceptor}). Desligável com
+ * {@code api.sql.monitor.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "api.sql.monitor.enabled", havingValue = "true", matchIfMissing = true)
+public class ConsultasSqlConfig {
+
+    private static final String DATA_SOURCE = "dataSource";
+
+    // static: o post-processor precisa existir antes do DataSource ser criado
+    @Bean
+    static BeanPostProcessor contadorConsultasPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(@NonNull Object bean, @NonNull String beanName) {
+                // Só o DataSource usado pela aplicação; com réplica, os pools por trás
+                // dele (ReplicaDataSourceConfig) contariam os mesmos statements de novo
+                if (DATA_SOURCE.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof ProxyDataSource)) {
+                    Duration consultaLenta = environment.getProperty("api.sql.consulta-lenta", Duration.class,
+                            Duration.ofMillis(200));
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new ContadorConsultas(consultaLenta))
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+}
@@ -0,0 +1,110 @@
+package com.multiclinicas.api.config.sql;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Meter.MeterProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Ao fim de cada requisição, publica quantos statements ela executou e quanto
+ * tempo passou no JDBC, por endpoint ({@code Controller.metodo}):
+ * {@code sql.requisicao.statements}, {@code sql.requisicao.tempo} e
+ * {@code sql.requisicao.acima-orcamento}.
+ *
+ * Requisições acima de {@code api.sql.orcamento-statements} (típico de N+1) ou
+ * de {@code api.sql.tempo-maximo} no JDBC geram um log estruturado com o
+ * endpoint e a clínica; a clínica fica fora das métricas para não multiplicar
+ * as séries.
+ */
+@Component
+public class ConsultasSqlInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(ConsultasSqlInterceptor.class);
+
+    private final MeterProvider<DistributionSummary> statements;
+    private final MeterProvider<Timer> tempo;
+    private final MeterProvider<Counter> acimaOrcamento;
+    private final int orcamentoStatements;
+    private final long tempoMaximoNanos;
+
+    @Autowired
+    public ConsultasSqlInterceptor(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${api.sql.orcamento-statements:20}") int orcamentoStatements,
+            @Value("${api.sql.tempo-maximo:PT0.5S}") Duration tempoMaximo) {
+        // Sem Actuator (testes de fatia web) as métricas ficam só em memória
+        this(meterRegistry.getIfAvailable(SimpleMeterRegistry::new), orcamentoStatements, tempoMaximo);
+    }
+
+    ConsultasSqlInterceptor(MeterRegistry meterRegistry, int orcamentoStatements, Duration tempoMaximo) {
+        this.statements = DistributionSummary.builder("sql.requisicao.statements")
+                .description("Statements JDBC executados por requisição")
+                .publishPercentileHistogram()
+                .maximumExpectedValue(1000.0)
+                .withRegistry(meterRegistry);
+        this.tempo = Timer.builder("sql.requisicao.tempo")
+                .description("Tempo gasto no JDBC por requisição")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .withRegistry(meterRegistry);
+        this.acimaOrcamento = Counter.builder("sql.requisicao.acima-orcamento")
+                .description("Requisições acima do orçamento de statements ou de tempo no JDBC")
+                .withRegistry(meterRegistry);
+        this.orcamentoStatements = orcamentoStatements;
+        this.tempoMaximoNanos = tempoMaximo.toNanos();
+    }
+
+    @Override
+    public boolean preHandle(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler) {
+        ConsultasRequisicao.iniciar(endpoint(handler));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(@NonNull HttpServletRequest request, @NonNull HttpServletResponse response,
+            @NonNull Object handler, Exception ex) {
+        ConsultasRequisicao consultas = ConsultasRequisicao.encerrar();
+        if (consultas == null) {
+            return;
+        }
+
+        String endpoint = consultas.endpoint();
+        statements.withTag("endpoint", endpoint).record(consultas.quantidade());
+        tempo.withTag("endpoint", endpoint).record(consultas.nanos(), TimeUnit.NANOSECONDS);
+
+        if (consultas.quantidade() > orcamentoStatements || consultas.nanos() > tempoMaximoNanos) {
+            acimaOrcamento.withTag("endpoint", endpoint).increment();
+            log.warn("SQL acima do orçamento: endpoint={} clinica={} statements={} tempoJdbcMs={} status={}",
+                    endpoint, request.getHeader("X-Clinic-ID"), consultas.quantidade(),
+                    consultas.nanos() / 1_000_000, response.getStatus());
+        } else if (log.isDebugEnabled()) {
+            log.debug("SQL: endpoint={} clinica={} statements={} tempoJdbcMs={}", endpoint,
+                    request.getHeader("X-Clinic-ID"), consultas.quantidade(), consultas.nanos() / 1_000_000);
+        }
+    }
+
+    private static String endpoint(Object handler) {
+        if (handler instanceof HandlerMethod metodo) {
+            return metodo.getBeanType().getSimpleName() + "." + metodo.getMethod().getName();
+        }
+        return "outro";
+    }
+}
@@ -0,0 +1,47 @@
+package com.multiclinicas.api.config.sql;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Soma cada execução de statement (um lote JDBC conta como uma) na requisição
+ * corrente e registra em log, sem parâmetros, os statements mais lentos que
+ * {@code api.sql.consulta-lenta}.
+ */
+class ContadorConsultas implements QueryExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(ContadorConsultas.class);
+    private static final String INICIO = "inicio";
+
+    private final long limiteLentaNanos;
+
+    ContadorConsultas(Duration consultaLenta) {
+        this.limiteLentaNanos = consultaLenta.toNanos();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(INICIO, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long nanos = System.nanoTime() - execInfo.getCustomValue(INICIO, Long.class);
+        ConsultasRequisicao consultas = ConsultasRequisicao.atual();
+        if (consultas != null) {
+            consultas.registrar(nanos);
+        }
+        if (nanos > limiteLentaNanos) {
+            log.warn("Consulta lenta: tempoMs={} endpoint={} lote={} sql={}", nanos / 1_000_000,
+                    consultas == null ? "-" : consultas.endpoint(), execInfo.isBatch(),
+                    queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery());
+        }
+    }
+}
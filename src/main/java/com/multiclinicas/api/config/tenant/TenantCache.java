@@ -0,0 +1,82 @@
+package com.multiclinicas.api.config.tenant;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.multiclinicas.api.config.TransacaoHelper;
+import com.multiclinicas.api.models.Clinica;
+import com.multiclinicas.api.repositories.ClinicaRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+/**
+ * Cache local do status (ativo/inativo) das clínicas, consultado pelo
+ * {@link TenantInterceptor} em toda requisição. Clínicas inexistentes não são
+ * armazenadas. As entradas expiram pelo TTL e são invalidadas explicitamente
+ * quando a clínica é alterada ou removida.
+ *
+ * As estatísticas (acertos, falhas, remoções) são publicadas no Actuator como
+ * métricas {@code cache.*} com a tag {@code cache=tenants}; o tempo de cada
+ * consulta, em {@code tenant.consulta}.
+ */
+@Component
+public class TenantCache implements MeterBinder {
+
+    private static final String NOME_CACHE = "tenants";
+
+    private final ClinicaRepository clinicaRepository;
+    private final Cache<Long, Boolean> ativoPorClinica;
+    // Definido quando o Spring registra as métricas; nulo em testes unitários
+    private Timer consultas;
+
+    public TenantCache(ClinicaRepository clinicaRepository,
+            @Value("${api.tenant.cache.max-entries:10000}") long maxEntries,
+            @Value("${api.tenant.cache.ttl:PT1M}") Duration ttl) {
+        this.clinicaRepository = clinicaRepository;
+        this.ativoPorClinica = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * Retorna se a clínica está ativa, ou {@code null} se ela não existir.
+     */
+    public Boolean isAtiva(Long clinicId) {
+        long inicio = System.nanoTime();
+        try {
+            return ativoPorClinica.get(clinicId, id -> clinicaRepository.findById(id)
+                    .map(Clinica::getAtivo)
+                    .orElse(null));
+        } finally {
+            if (consultas != null) {
+                consultas.record(System.nanoTime() - inicio, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    public void invalidar(Long clinicId) {
+        TransacaoHelper.aposCommit(() -> ativoPorClinica.invalidate(clinicId));
+    }
+
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, ativoPorClinica, NOME_CACHE);
+        this.consultas = Timer.builder("tenant.consulta")
+                .description("Resolução da clínica do header X-Clinic-ID, incluindo acessos ao banco")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .register(registry);
+    }
+}
@@ -1,5 +1,17 @@
 package com.multiclinicas.api.config.tenant;
 
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Clínica da requisição corrente, definida pelo {@link TenantInterceptor} e
+ * limpa ao fim da requisição. Vale só para a thread que atende a requisição,
+ * seja do pool do Tomcat ou virtual (perfil virtual-threads).
+ *
+ * Para levar a clínica a outra thread, envolva a tarefa com
+ * {@link #propagar(Runnable)} ou o executor com {@link #propagando(Executor)};
+ * o executor padrão do Spring já faz isso pelo {@link TenantTaskDecorator}.
+ */
 public class TenantContext {
     private static final ThreadLocal<Long> currentTenant = new ThreadLocal<>();
 
@@ -14,4 +26,48 @@ public class TenantContext {
     public static void clear() {
         currentTenant.remove();
     }
+
+    /**
+     * Executa a tarefa com a clínica informada e restaura a anterior ao final,
+     * para não deixar a clínica presa em threads de pool.
+     */
+    public static void executarComo(Long clinicId, Runnable tarefa) {
+        executarComo(clinicId, () -> {
+            tarefa.run();
+            return null;
+        });
+    }
+
+    /** Como {@link #executarComo(Long, Runnable)}, retornando o resultado da tarefa. */
+    public static <T> T executarComo(Long clinicId, Supplier<T> tarefa) {
+        Long anterior = currentTenant.get();
+        if (clinicId == null) {
+            currentTenant.remove();
+        } else {
+            currentTenant.set(clinicId);
+        }
+        try {
+            return tarefa.get();
+        } finally {
+            if (anterior == null) {
+                currentTenant.remove();
+            } else {
+                currentTenant.set(anterior);
+            }
+        }
+    }
+
+    /** Captura a clínica de quem cria a tarefa para usá-la em quem a executa. */
+    public static Runnable propagar(Runnable tarefa) {
+        Long clinicId = currentTenant.get();
+        return () -> executarComo(clinicId, tarefa);
+    }
+
+    /**
+     * Executor que propaga a clínica de quem envia cada tarefa. Serve também
+     * para {@code CompletableFuture.runAsync/supplyAsync}.
+     */
+    public static Executor propagando(Executor executor) {
+        return tarefa -> executor.execute(propagar(tarefa));
+    }
 }
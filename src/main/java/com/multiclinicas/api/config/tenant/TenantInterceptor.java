@@ -1,7 +1,6 @@
 package com.multiclinicas.api.config.tenant;
 
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
-import com.multiclinicas.api.repositories.ClinicaRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
@@ -13,7 +12,7 @@ import org.springframework.web.servlet.ModelAndView;
 @RequiredArgsConstructor
 public class TenantInterceptor implements HandlerInterceptor {
 
-    private final ClinicaRepository clinicaRepository;
+    private final TenantCache tenantCache;
 
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
@@ -34,12 +33,12 @@ public class TenantInterceptor implements HandlerInterceptor {
             Long clinicId = Long.parseLong(clinicIdHeader);
 
             // 2. Valida se a clínica existe e está ativa
-            java.util.Optional<com.multiclinicas.api.models.Clinica> clinicaOpt = clinicaRepository.findById(clinicId);
-            if (clinicaOpt.isEmpty()) {
+            Boolean ativa = tenantCache.isAtiva(clinicId);
+            if (ativa == null) {
                 throw new ResourceNotFoundException("Clínica informada no cabeçalho não encontrada: " + clinicId);
             }
 
-            if (!clinicaOpt.get().getAtivo()) {
+            if (!ativa) {
                 response.sendError(HttpServletResponse.SC_FORBIDDEN, "Tenant inativo");
                 return false;
             }
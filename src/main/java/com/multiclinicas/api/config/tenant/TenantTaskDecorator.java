@@ -0,0 +1,20 @@
+package com.multiclinicas.api.config.tenant;
+
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aplicado pelo Spring Boot ao executor padrão (inclusive o de threads
+ * virtuais), propaga a clínica da requisição para tarefas {@code @Async} e de
+ * processamento assíncrono do MVC.
+ */
+@Component
+public class TenantTaskDecorator implements TaskDecorator {
+
+    @Override
+    @NonNull
+    public Runnable decorate(@NonNull Runnable runnable) {
+        return TenantContext.propagar(runnable);
+    }
+}
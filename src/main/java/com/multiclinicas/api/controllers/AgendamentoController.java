@@ -18,12 +18,18 @@ import org.springframework.web.bind.annotation.RestController;
 import com.multiclinicas.api.config.tenant.TenantContext;
 import com.multiclinicas.api.dtos.AgendamentoCreateDTO;
 import com.multiclinicas.api.dtos.AgendamentoDTO;
+import com.multiclinicas.api.dtos.AgendamentoFiltroDTO;
+import com.multiclinicas.api.dtos.AgendamentoLoteDTO;
 import com.multiclinicas.api.dtos.AgendamentoRemarcarDTO;
 import com.multiclinicas.api.dtos.AgendamentoStatusDTO;
 import com.multiclinicas.api.dtos.AgendamentoTokenDTO;
 import com.multiclinicas.api.dtos.DisponibilidadeDTO;
+import com.multiclinicas.api.dtos.PaginaAgendamentosDTO;
+import com.multiclinicas.api.dtos.ResultadoLoteDTO;
 import com.multiclinicas.api.mappers.AgendamentoMapper;
 import com.multiclinicas.api.models.Agendamento;
+import com.multiclinicas.api.models.enums.StatusAgendamento;
+import com.multiclinicas.api.models.enums.TipoPagamento;
 import com.multiclinicas.api.services.AgendamentoService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -46,13 +52,19 @@ public class AgendamentoController {
     private final AgendamentoService agendamentoService;
     private final AgendamentoMapper agendamentoMapper;
 
-    @Operation(summary = "Listar agendamentos", description = "Lista todos os agendamentos da clínica")
+    @Operation(summary = "Listar agendamentos", description = "Lista os agendamentos da clínica ordenados por data e horário, em páginas. Para a página seguinte, envie o proximoCursor da resposta no parâmetro cursor")
     @GetMapping
-    public ResponseEntity<List<AgendamentoDTO>> findAll() {
+    public ResponseEntity<PaginaAgendamentosDTO> findAll(
+            @RequestParam(required = false) LocalDate dataInicio,
+            @RequestParam(required = false) LocalDate dataFim,
+            @RequestParam(required = false) Long medicoId,
+            @RequestParam(required = false) StatusAgendamento status,
+            @RequestParam(required = false) TipoPagamento tipoPagamento,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limite) {
         Long clinicId = TenantContext.getClinicId();
-        List<Agendamento> agendamentos = agendamentoService.findAllByClinicId(clinicId);
-        List<AgendamentoDTO> dtos = agendamentos.stream().map(agendamentoMapper::toDTO).toList();
-        return ResponseEntity.ok(dtos);
+        AgendamentoFiltroDTO filtro = new AgendamentoFiltroDTO(dataInicio, dataFim, medicoId, status, tipoPagamento);
+        return ResponseEntity.ok(agendamentoService.listar(clinicId, filtro, cursor, limite));
     }
 
     @Operation(summary = "Listar meus agendamentos", description = "Lista apenas os agendamentos do paciente autenticado")
@@ -77,6 +89,15 @@ public class AgendamentoController {
         return ResponseEntity.status(HttpStatus.CREATED).body(agendamentoMapper.toDTO(agendamento));
     }
 
+    @Operation(summary = "Criar agendamentos em lote", description = "Agenda vários horários do mesmo paciente com o mesmo médico, a partir de uma lista de horários ou de uma recorrência semanal. Cada horário retorna o próprio resultado; os recusados não impedem os demais. Retorna 201 se ao menos um foi criado, senão 200 com os motivos")
+    @PostMapping("/lote")
+    public ResponseEntity<ResultadoLoteDTO> criarLote(@RequestBody @Valid AgendamentoLoteDTO dto) {
+        Long clinicId = TenantContext.getClinicId();
+        ResultadoLoteDTO resultado = agendamentoService.criarLote(clinicId, dto);
+        HttpStatus status = resultado.criados() > 0 ? HttpStatus.CREATED : HttpStatus.OK;
+        return ResponseEntity.status(status).body(resultado);
+    }
+
     @Operation(summary = "Remarcar agendamento", description = "Altera a data e hora de um agendamento existente")
     @PutMapping("/{id}/remarcar")
     public ResponseEntity<AgendamentoDTO> remarcar(
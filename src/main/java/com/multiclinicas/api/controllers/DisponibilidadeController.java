@@ -2,6 +2,7 @@ package com.multiclinicas.api.controllers;
 
 import com.multiclinicas.api.config.tenant.TenantContext;
 import com.multiclinicas.api.dtos.DisponibilidadeDTO;
+import com.multiclinicas.api.dtos.HorarioLivreDTO;
 import com.multiclinicas.api.services.AgendamentoService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -15,6 +16,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
+import java.util.List;
 
 @RestController
 @RequestMapping("/agendamentos/disponibilidade")
@@ -37,4 +39,18 @@ public class DisponibilidadeController {
         DisponibilidadeDTO disponibilidade = agendamentoService.buscarDisponibilidade(medicoId, data, clinicId);
         return ResponseEntity.ok(disponibilidade);
     }
+
+    @Operation(summary = "Buscar próximos horários livres", description = "Retorna os primeiros horários livres em um intervalo de datas, filtrando opcionalmente por especialidade ou por uma lista de médicos")
+    @GetMapping("/busca")
+    public ResponseEntity<List<HorarioLivreDTO>> buscarHorariosLivres(
+            @RequestParam LocalDate dataInicio,
+            @RequestParam LocalDate dataFim,
+            @RequestParam(required = false) Long especialidadeId,
+            @RequestParam(required = false) List<Long> medicoIds,
+            @RequestParam(defaultValue = "10") int limite) {
+        Long clinicId = TenantContext.getClinicId();
+        List<HorarioLivreDTO> horarios = agendamentoService.buscarHorariosLivres(
+                clinicId, dataInicio, dataFim, especialidadeId, medicoIds, limite);
+        return ResponseEntity.ok(horarios);
+    }
 }
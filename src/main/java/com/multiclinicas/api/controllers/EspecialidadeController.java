@@ -1,5 +1,9 @@
 package com.multiclinicas.api.controllers;
 
+import com.multiclinicas.api.catalogo.CatalogoClinica;
+import com.multiclinicas.api.catalogo.ListaCatalogo;
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.config.tenant.TenantContext;
 import com.multiclinicas.api.dtos.EspecialidadeCreateDTO;
 import com.multiclinicas.api.dtos.EspecialidadeDTO;
@@ -11,9 +15,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -29,17 +35,24 @@ public class EspecialidadeController {
 
     private final EspecialidadeService especialidadeService;
     private final EspecialidadeMapper especialidadeMapper;
+    private final CatalogoClinica catalogoClinica;
+    private final VersoesCatalogo versoesCatalogo;
 
     @GetMapping
-    public ResponseEntity<List<EspecialidadeDTO>> findAll() {
+    public ResponseEntity<List<EspecialidadeDTO>> findAll(WebRequest request) {
         Long clinicId = TenantContext.getClinicId();
 
-        List<Especialidade> especialidades = especialidadeService.findAllByClinicId(clinicId);
+        if (request.checkNotModified(versoesCatalogo.etag(clinicId, RecursoCatalogo.ESPECIALIDADES))) {
+            return null;
+        }
 
-        return ResponseEntity.ok(
-                especialidades.stream()
-                        .map(especialidadeMapper::toDTO)
-                        .toList());
+        ListaCatalogo<EspecialidadeDTO> especialidades = catalogoClinica.especialidades(clinicId);
+
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy("X-Clinic-ID")
+                .eTag(especialidades.etag())
+                .body(especialidades.itens());
     }
 
     @GetMapping("/{id}")
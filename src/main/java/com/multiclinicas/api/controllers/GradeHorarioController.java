@@ -2,6 +2,7 @@ package com.multiclinicas.api.controllers;
 
 import java.util.List;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -12,7 +13,10 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.config.tenant.TenantContext;
 import com.multiclinicas.api.dtos.GradeHorarioCreateDTO;
 import com.multiclinicas.api.dtos.GradeHorarioDTO;
@@ -39,12 +43,21 @@ public class GradeHorarioController {
 
     private final GradeHorarioService gradeHorarioService;
     private final GradeHorarioMapper gradeHorarioMapper;
+    private final VersoesCatalogo versoesCatalogo;
 
     @GetMapping
-    public ResponseEntity<List<GradeHorarioDTO>> findAll() {
+    public ResponseEntity<List<GradeHorarioDTO>> findAll(WebRequest request) {
         Long clinicId = TenantContext.getClinicId();
+        String etag = versoesCatalogo.etag(clinicId, RecursoCatalogo.GRADE_HORARIO);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<GradeHorario> grades = gradeHorarioService.findAllByClinicId(clinicId);
-        return ResponseEntity.ok(grades.stream().map(gradeHorarioMapper::toDTO).toList());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy("X-Clinic-ID")
+                .eTag(etag)
+                .body(grades.stream().map(gradeHorarioMapper::toDTO).toList());
     }
 
     @GetMapping("/{id}")
@@ -70,10 +83,18 @@ public class GradeHorarioController {
     }
 
     @GetMapping("/medico/{medicoId}")
-    public ResponseEntity<List<GradeHorarioDTO>> findByMedico(@PathVariable Long medicoId) {
+    public ResponseEntity<List<GradeHorarioDTO>> findByMedico(@PathVariable Long medicoId, WebRequest request) {
         Long clinicId = TenantContext.getClinicId();
+        String etag = versoesCatalogo.etag(clinicId, RecursoCatalogo.GRADE_HORARIO);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
         List<GradeHorario> grades = gradeHorarioService.findByMedicoId(medicoId, clinicId);
-        return ResponseEntity.ok(grades.stream().map(gradeHorarioMapper::toDTO).toList());
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy("X-Clinic-ID")
+                .eTag(etag)
+                .body(grades.stream().map(gradeHorarioMapper::toDTO).toList());
     }
 
     @PutMapping("/medico/{medicoId}")
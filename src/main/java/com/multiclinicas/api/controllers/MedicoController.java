@@ -3,6 +3,7 @@ package com.multiclinicas.api.controllers;
 import java.util.List;
 import java.util.Set;
 
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -13,7 +14,12 @@ import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
+import com.multiclinicas.api.catalogo.CatalogoClinica;
+import com.multiclinicas.api.catalogo.ListaCatalogo;
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.config.tenant.TenantContext;
 import com.multiclinicas.api.dtos.MedicoCreateDTO;
 import com.multiclinicas.api.dtos.MedicoDTO;
@@ -40,33 +46,50 @@ public class MedicoController {
 
     private final MedicoService medicoService;
     private final MedicoMapper medicoMapper;
+    private final CatalogoClinica catalogoClinica;
+    private final VersoesCatalogo versoesCatalogo;
 
+    // As listagens usam a versão do catálogo como ETag: se o cliente já tem a
+    // versão atual, recebe 304 sem que a lista seja lida ou serializada
     @GetMapping
-    public ResponseEntity<List<MedicoDTO>> findAll() {
+    public ResponseEntity<List<MedicoDTO>> findAll(WebRequest request) {
 
         Long clinicId = TenantContext.getClinicId();
 
+        String etag = versoesCatalogo.etag(clinicId, RecursoCatalogo.MEDICOS);
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+
         List<Medico> medicos = medicoService.findAllByClinicId(clinicId);
 
         List<MedicoDTO> dtos = medicos.stream()
                 .map(medicoMapper::toDTO)
                 .toList();
 
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy("X-Clinic-ID")
+                .eTag(etag)
+                .body(dtos);
     }
 
     @GetMapping("/ativos")
-    public ResponseEntity<List<MedicoDTO>> findAllActive() {
+    public ResponseEntity<List<MedicoDTO>> findAllActive(WebRequest request) {
 
         Long clinicId = TenantContext.getClinicId();
 
-        List<Medico> medicos = medicoService.findAllActiveByClinicId(clinicId);
+        if (request.checkNotModified(versoesCatalogo.etag(clinicId, RecursoCatalogo.MEDICOS))) {
+            return null;
+        }
 
-        List<MedicoDTO> dtos = medicos.stream()
-                .map(medicoMapper::toDTO)
-                .toList();
+        ListaCatalogo<MedicoDTO> medicos = catalogoClinica.medicosAtivos(clinicId);
 
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy("X-Clinic-ID")
+                .eTag(medicos.etag())
+                .body(medicos.itens());
     }
 
     @GetMapping("/{id}")
@@ -1,5 +1,9 @@
 package com.multiclinicas.api.controllers;
 
+import com.multiclinicas.api.catalogo.CatalogoClinica;
+import com.multiclinicas.api.catalogo.ListaCatalogo;
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.config.tenant.TenantContext;
 import com.multiclinicas.api.dtos.PlanoSaudeCreateDTO;
 import com.multiclinicas.api.dtos.PlanoSaudeDTO;
@@ -7,12 +11,14 @@ import com.multiclinicas.api.mappers.PlanoSaudeMapper;
 import com.multiclinicas.api.models.PlanoSaude;
 import com.multiclinicas.api.services.PlanoSaudeService;
 import jakarta.validation.Valid;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,19 +33,29 @@ public class PlanoSaudeController {
 
     private final PlanoSaudeService planoSaudeService;
     private final PlanoSaudeMapper planoSaudeMapper;
+    private final CatalogoClinica catalogoClinica;
+    private final VersoesCatalogo versoesCatalogo;
 
-    public PlanoSaudeController(PlanoSaudeService planoSaudeService, PlanoSaudeMapper planoSaudeMapper) {
+    public PlanoSaudeController(PlanoSaudeService planoSaudeService, PlanoSaudeMapper planoSaudeMapper,
+            CatalogoClinica catalogoClinica, VersoesCatalogo versoesCatalogo) {
         this.planoSaudeService = planoSaudeService;
         this.planoSaudeMapper = planoSaudeMapper;
+        this.catalogoClinica = catalogoClinica;
+        this.versoesCatalogo = versoesCatalogo;
     }
 
     @GetMapping
-    public ResponseEntity<List<PlanoSaudeDTO>> findAll() {
+    public ResponseEntity<List<PlanoSaudeDTO>> findAll(WebRequest request) {
         Long clinicId = TenantContext.getClinicId();
-        List<PlanoSaude> planos = planoSaudeService.findAllByClinicId(clinicId);
-        return ResponseEntity.ok(planos.stream()
-                .map(planoSaudeMapper::toDTO)
-                .toList());
+        if (request.checkNotModified(versoesCatalogo.etag(clinicId, RecursoCatalogo.PLANOS_SAUDE))) {
+            return null;
+        }
+        ListaCatalogo<PlanoSaudeDTO> planos = catalogoClinica.planosSaude(clinicId);
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .varyBy("X-Clinic-ID")
+                .eTag(planos.etag())
+                .body(planos.itens());
     }
 
     @GetMapping("/{id}")
@@ -0,0 +1,14 @@
+package com.multiclinicas.api.dtos;
+
+import java.time.LocalDate;
+
+import com.multiclinicas.api.models.enums.StatusAgendamento;
+import com.multiclinicas.api.models.enums.TipoPagamento;
+
+public record AgendamentoFiltroDTO(
+        LocalDate dataInicio,
+        LocalDate dataFim,
+        Long medicoId,
+        StatusAgendamento status,
+        TipoPagamento tipoPagamento) {
+}
@@ -0,0 +1,25 @@
+package com.multiclinicas.api.dtos;
+
+import java.util.List;
+
+import com.multiclinicas.api.models.enums.TipoPagamento;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+
+// Informe os horários explicitamente ou uma recorrência, não ambos
+public record AgendamentoLoteDTO(
+        @NotNull(message = "O ID do paciente é obrigatório") Long pacienteId,
+
+        @NotNull(message = "O ID do médico é obrigatório") Long medicoId,
+
+        @NotNull(message = "O tipo de pagamento é obrigatório") TipoPagamento tipoPagamento,
+
+        Long planoSaudeId, // Opcional, apenas se for convênio
+
+        String observacoes,
+
+        List<@Valid @NotNull HorarioAgendamentoDTO> horarios,
+
+        @Valid RecorrenciaDTO recorrencia) {
+}
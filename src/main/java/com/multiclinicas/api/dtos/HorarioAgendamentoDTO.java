@@ -0,0 +1,12 @@
+package com.multiclinicas.api.dtos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jakarta.validation.constraints.NotNull;
+
+public record HorarioAgendamentoDTO(
+        @NotNull(message = "A data da consulta é obrigatória") LocalDate dataConsulta,
+
+        @NotNull(message = "A hora de início é obrigatória") LocalTime horaInicio) {
+}
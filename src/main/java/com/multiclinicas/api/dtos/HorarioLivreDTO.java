@@ -0,0 +1,11 @@
+package com.multiclinicas.api.dtos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record HorarioLivreDTO(
+        Long medicoId,
+        String nomeMedico,
+        LocalDate dataConsulta,
+        LocalTime horaInicio
+){}
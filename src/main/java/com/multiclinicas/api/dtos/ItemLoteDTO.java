@@ -0,0 +1,13 @@
+package com.multiclinicas.api.dtos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+// agendamentoId preenchido quando criado; motivo quando recusado
+public record ItemLoteDTO(
+        LocalDate dataConsulta,
+        LocalTime horaInicio,
+        boolean criado,
+        Long agendamentoId,
+        String motivo) {
+}
@@ -0,0 +1,14 @@
+package com.multiclinicas.api.dtos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+public record LembreteAgendamentoDTO(
+        Long id,
+        Long clinicId,
+        String nomePaciente,
+        String emailPaciente,
+        String nomeMedico,
+        LocalDate dataConsulta,
+        LocalTime horaInicio) {
+}
@@ -0,0 +1,7 @@
+package com.multiclinicas.api.dtos;
+
+public record MensagemEmailDTO(
+        String destinatario,
+        String assunto,
+        String mensagem) {
+}
@@ -0,0 +1,8 @@
+package com.multiclinicas.api.dtos;
+
+import java.util.List;
+
+public record PaginaAgendamentosDTO(
+        List<AgendamentoDTO> itens,
+        String proximoCursor) {
+}
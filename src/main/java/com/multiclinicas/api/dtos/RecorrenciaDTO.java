@@ -0,0 +1,19 @@
+package com.multiclinicas.api.dtos;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+// Série semanal: a mesma hora a cada intervaloSemanas, a partir de dataInicio
+public record RecorrenciaDTO(
+        @NotNull(message = "A data da primeira consulta é obrigatória") LocalDate dataInicio,
+
+        @NotNull(message = "A hora de início é obrigatória") LocalTime horaInicio,
+
+        @Min(value = 1, message = "O intervalo deve ser de pelo menos 1 semana") @Max(value = 4, message = "O intervalo deve ser de no máximo 4 semanas") Integer intervaloSemanas,
+
+        @NotNull(message = "O número de consultas é obrigatório") @Min(value = 1, message = "A série deve ter pelo menos 1 consulta") Integer ocorrencias) {
+}
@@ -0,0 +1,9 @@
+package com.multiclinicas.api.dtos;
+
+import java.util.List;
+
+// recusadas podem dar certo numa nova tentativa; invalidas nunca serão aceitas
+public record ResultadoEnvioEmailDTO(
+        List<MensagemEmailDTO> recusadas,
+        List<MensagemEmailDTO> invalidas) {
+}
@@ -0,0 +1,9 @@
+package com.multiclinicas.api.dtos;
+
+import java.util.List;
+
+public record ResultadoLoteDTO(
+        int criados,
+        int recusados,
+        List<ItemLoteDTO> itens) {
+}
@@ -0,0 +1,15 @@
+package com.multiclinicas.api.email;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+// horarios: todas as consultas de uma série, para a variável {{horarios}}
+public record DadosEmail(String paciente, String medico, LocalDate data, LocalTime hora,
+        List<LocalDateTime> horarios) {
+
+    public DadosEmail(String paciente, String medico, LocalDate data, LocalTime hora) {
+        this(paciente, medico, data, hora, List.of(LocalDateTime.of(data, hora)));
+    }
+}
@@ -0,0 +1,84 @@
+package com.multiclinicas.api.email;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.multiclinicas.api.config.TransacaoHelper;
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.models.Clinica;
+import com.multiclinicas.api.models.ModeloEmail;
+import com.multiclinicas.api.repositories.ClinicaRepository;
+import com.multiclinicas.api.repositories.ModeloEmailRepository;
+
+/**
+ * Monta os e-mails a partir de templates compilados uma vez por clínica e tipo.
+ * O modelo da clínica em modelos_email tem precedência sobre o texto padrão de
+ * {@link TipoEmail}; um modelo inválido é ignorado (com log) em favor do padrão.
+ * O nome da clínica é fixado na compilação, por isso a atualização da clínica
+ * chama {@link #invalidar(Long)}; alterações feitas direto em modelos_email
+ * valem após o TTL.
+ */
+@Component
+public class ModelosEmail {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelosEmail.class);
+
+    private final ModeloEmailRepository modeloEmailRepository;
+    private final ClinicaRepository clinicaRepository;
+    private final LoadingCache<ChaveModelo, ModeloCompilado> compilados;
+
+    public ModelosEmail(ModeloEmailRepository modeloEmailRepository,
+            ClinicaRepository clinicaRepository,
+            @Value("${api.email.modelos.max-entries:10000}") long maxEntries,
+            @Value("${api.email.modelos.ttl:PT10M}") Duration ttl) {
+        this.modeloEmailRepository = modeloEmailRepository;
+        this.clinicaRepository = clinicaRepository;
+        this.compilados = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .build(this::compilar);
+    }
+
+    public MensagemEmailDTO montar(TipoEmail tipo, Long clinicId, String destinatario, DadosEmail dados) {
+        ModeloCompilado modelo = compilados.get(new ChaveModelo(clinicId, tipo));
+        return new MensagemEmailDTO(destinatario, modelo.assunto().renderizar(dados), modelo.corpo().renderizar(dados));
+    }
+
+    public void invalidar(Long clinicId) {
+        TransacaoHelper.aposCommit(() -> {
+            for (TipoEmail tipo : TipoEmail.values()) {
+                compilados.invalidate(new ChaveModelo(clinicId, tipo));
+            }
+        });
+    }
+
+    private ModeloCompilado compilar(ChaveModelo chave) {
+        String nomeClinica = clinicaRepository.findById(chave.clinicId())
+                .map(Clinica::getNomeFantasia)
+                .orElse("");
+        ModeloEmail modelo = modeloEmailRepository.findByClinicIdAndTipo(chave.clinicId(), chave.tipo()).orElse(null);
+        if (modelo != null) {
+            try {
+                return new ModeloCompilado(TemplateEmail.compilar(modelo.getAssunto(), nomeClinica),
+                        TemplateEmail.compilar(modelo.getCorpo(), nomeClinica));
+            } catch (IllegalArgumentException e) {
+                log.warn("Modelo de e-mail {} da clínica ID {} inválido; usando o padrão. {}", chave.tipo(),
+                        chave.clinicId(), e.getMessage());
+            }
+        }
+        return new ModeloCompilado(TemplateEmail.compilar(chave.tipo().getAssuntoPadrao(), nomeClinica),
+                TemplateEmail.compilar(chave.tipo().getCorpoPadrao(), nomeClinica));
+    }
+
+    private record ChaveModelo(Long clinicId, TipoEmail tipo) {
+    }
+
+    private record ModeloCompilado(TemplateEmail assunto, TemplateEmail corpo) {
+    }
+}
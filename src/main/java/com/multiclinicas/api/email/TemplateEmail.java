@@ -0,0 +1,140 @@
+package com.multiclinicas.api.email;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Template já interpretado: trechos fixos intercalados com variáveis. O nome da
+ * clínica é resolvido na compilação, já que o template é compilado por clínica.
+ * Datas e horas são escritas dígito a dígito (dd/MM/yyyy e HH:mm), sem
+ * DateTimeFormatter.
+ */
+public final class TemplateEmail {
+
+    private static final String ABRE = "{{";
+    private static final String FECHA = "}}";
+
+    // Folga para as variáveis, que costumam ser nomes, datas e horas
+    private static final int FOLGA_VARIAVEL = 32;
+
+    private enum Variavel {
+        PACIENTE, MEDICO, DATA, HORA, HORARIOS
+    }
+
+    private final String[] trechos;
+    private final Variavel[] variaveis;
+    private final int capacidade;
+
+    private TemplateEmail(String[] trechos, Variavel[] variaveis) {
+        this.trechos = trechos;
+        this.variaveis = variaveis;
+        int fixos = 0;
+        for (String trecho : trechos) {
+            fixos += trecho.length();
+        }
+        this.capacidade = fixos + variaveis.length * FOLGA_VARIAVEL;
+    }
+
+    // IllegalArgumentException para variável desconhecida ou chaves sem fechamento
+    public static TemplateEmail compilar(String fonte, String nomeClinica) {
+        List<String> trechos = new ArrayList<>();
+        List<Variavel> variaveis = new ArrayList<>();
+        StringBuilder trecho = new StringBuilder();
+        int posicao = 0;
+        while (true) {
+            int abre = fonte.indexOf(ABRE, posicao);
+            if (abre < 0) {
+                trecho.append(fonte, posicao, fonte.length());
+                break;
+            }
+            int fecha = fonte.indexOf(FECHA, abre);
+            if (fecha < 0) {
+                throw new IllegalArgumentException("Variável sem fechamento na posição " + abre + ".");
+            }
+            trecho.append(fonte, posicao, abre);
+            String nome = fonte.substring(abre + ABRE.length(), fecha).trim();
+            if (nome.equals("clinica")) {
+                trecho.append(nomeClinica);
+            } else {
+                trechos.add(trecho.toString());
+                trecho.setLength(0);
+                variaveis.add(variavel(nome));
+            }
+            posicao = fecha + FECHA.length();
+        }
+        trechos.add(trecho.toString());
+        return new TemplateEmail(trechos.toArray(String[]::new), variaveis.toArray(Variavel[]::new));
+    }
+
+    private static Variavel variavel(String nome) {
+        return switch (nome) {
+            case "paciente" -> Variavel.PACIENTE;
+            case "medico" -> Variavel.MEDICO;
+            case "data" -> Variavel.DATA;
+            case "hora" -> Variavel.HORA;
+            case "horarios" -> Variavel.HORARIOS;
+            default -> throw new IllegalArgumentException("Variável desconhecida: {{" + nome + "}}.");
+        };
+    }
+
+    public String renderizar(DadosEmail dados) {
+        if (variaveis.length == 0) {
+            return trechos[0];
+        }
+        StringBuilder buffer = new StringBuilder(capacidade);
+        for (int i = 0; i < variaveis.length; i++) {
+            buffer.append(trechos[i]);
+            escrever(buffer, variaveis[i], dados);
+        }
+        buffer.append(trechos[variaveis.length]);
+        return buffer.toString();
+    }
+
+    private static void escrever(StringBuilder buffer, Variavel variavel, DadosEmail dados) {
+        switch (variavel) {
+            case PACIENTE -> buffer.append(dados.paciente());
+            case MEDICO -> buffer.append(dados.medico());
+            case DATA -> escreverData(buffer, dados.data());
+            case HORA -> escreverHora(buffer, dados.hora());
+            case HORARIOS -> escreverHorarios(buffer, dados.horarios());
+        }
+    }
+
+    // Uma linha por consulta: "- dd/MM/yyyy às HH:mm"
+    private static void escreverHorarios(StringBuilder buffer, List<LocalDateTime> horarios) {
+        for (int i = 0; i < horarios.size(); i++) {
+            if (i > 0) {
+                buffer.append('\n');
+            }
+            buffer.append("- ");
+            escreverData(buffer, horarios.get(i).toLocalDate());
+            buffer.append(" às ");
+            escreverHora(buffer, horarios.get(i).toLocalTime());
+        }
+    }
+
+    private static void escreverData(StringBuilder buffer, LocalDate data) {
+        doisDigitos(buffer, data.getDayOfMonth());
+        buffer.append('/');
+        doisDigitos(buffer, data.getMonthValue());
+        buffer.append('/');
+        int ano = data.getYear();
+        if (ano < 1000) {
+            buffer.append(ano < 10 ? "000" : ano < 100 ? "00" : "0");
+        }
+        buffer.append(ano);
+    }
+
+    private static void escreverHora(StringBuilder buffer, LocalTime hora) {
+        doisDigitos(buffer, hora.getHour());
+        buffer.append(':');
+        doisDigitos(buffer, hora.getMinute());
+    }
+
+    private static void doisDigitos(StringBuilder buffer, int valor) {
+        buffer.append((char) ('0' + valor / 10)).append((char) ('0' + valor % 10));
+    }
+}
@@ -0,0 +1,57 @@
+package com.multiclinicas.api.email;
+
+// Textos padrão, usados quando a clínica não tem modelo próprio em modelos_email
+public enum TipoEmail {
+
+    CONFIRMACAO_AGENDAMENTO(
+            "Confirmação de Agendamento - {{clinica}}",
+            """
+            Olá, {{paciente}}, seu agendamento foi confirmado com sucesso!
+
+            Detalhes da consulta:
+            Médico(a): Dr(a). {{medico}}
+            Data: {{data}}
+            Horário: {{hora}}
+            Clínica: {{clinica}}
+
+            Agradecemos a preferência!"""),
+
+    CONFIRMACAO_SERIE(
+            "Confirmação de Agendamentos - {{clinica}}",
+            """
+            Olá, {{paciente}}, suas consultas com o(a) Dr(a). {{medico}} foram agendadas:
+
+            {{horarios}}
+
+            Clínica: {{clinica}}
+
+            Agradecemos a preferência!"""),
+
+    LEMBRETE_CONSULTA(
+            "Lembrete de Consulta - Multi Clínicas",
+            """
+            Olá, {{paciente}}!
+
+            Este é um lembrete da sua consulta agendada para amanhã ({{data}}) às {{hora}} com o(a) Dr(a). {{medico}}.
+
+            Por favor, chegue com 15 minutos de antecedência.
+
+            Atenciosamente,
+            Equipe Multi Clínicas""");
+
+    private final String assuntoPadrao;
+    private final String corpoPadrao;
+
+    TipoEmail(String assuntoPadrao, String corpoPadrao) {
+        this.assuntoPadrao = assuntoPadrao;
+        this.corpoPadrao = corpoPadrao;
+    }
+
+    public String getAssuntoPadrao() {
+        return assuntoPadrao;
+    }
+
+    public String getCorpoPadrao() {
+        return corpoPadrao;
+    }
+}
@@ -0,0 +1,71 @@
+package com.multiclinicas.api.jobs;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.multiclinicas.api.models.ExecucaoLembrete;
+import com.multiclinicas.api.repositories.ExecucaoLembreteRepository;
+import com.multiclinicas.api.repositories.LembreteEnviadoRepository;
+
+/**
+ * Guarda o progresso do job de lembretes no banco. Cada data de consulta tem
+ * uma execução com checkpoint (último id sem envio pendente) e um lease: só a instância
+ * que detém o lease processa os lotes, e ela o renova a cada checkpoint. Se a
+ * instância cair, outra assume quando o lease vencer e continua do checkpoint.
+ * Os lembretes aceitos pelo SMTP ficam registrados um a um, para que um lote
+ * interrompido no meio não seja reenviado por inteiro.
+ */
+@Component
+public class ControleLembretes {
+
+    private final ExecucaoLembreteRepository execucaoRepository;
+    private final LembreteEnviadoRepository lembreteEnviadoRepository;
+    private final Duration lease;
+    private final String instancia;
+
+    public ControleLembretes(ExecucaoLembreteRepository execucaoRepository,
+            LembreteEnviadoRepository lembreteEnviadoRepository,
+            @Value("${api.lembretes.lease:PT10M}") Duration lease) {
+        this.execucaoRepository = execucaoRepository;
+        this.lembreteEnviadoRepository = lembreteEnviadoRepository;
+        this.lease = lease;
+        this.instancia = System.getenv().getOrDefault("HOSTNAME", "api") + "-" + UUID.randomUUID();
+    }
+
+    /**
+     * Tenta assumir a execução da data. Retorna o checkpoint a partir do qual
+     * continuar, ou vazio se a execução já foi concluída ou pertence a outra
+     * instância com lease válido.
+     */
+    public Optional<Long> adquirir(LocalDate data) {
+        execucaoRepository.criarSeAusente(data);
+        LocalDateTime agora = LocalDateTime.now();
+        if (execucaoRepository.adquirir(data, instancia, agora, agora.plus(lease)) == 0) {
+            return Optional.empty();
+        }
+        return execucaoRepository.findById(data).map(ExecucaoLembrete::getUltimoId);
+    }
+
+    // false se o lease foi perdido (outra instância assumiu): quem chama deve parar
+    public boolean avancar(LocalDate data, Long ultimoId) {
+        LocalDateTime agora = LocalDateTime.now();
+        return execucaoRepository.avancar(data, instancia, ultimoId, agora, agora.plus(lease)) == 1;
+    }
+
+    public void concluir(LocalDate data) {
+        execucaoRepository.concluir(data, instancia, LocalDateTime.now());
+    }
+
+    public void registrarEnviados(List<Long> agendamentoIds) {
+        if (!agendamentoIds.isEmpty()) {
+            lembreteEnviadoRepository.registrarSeAusentes(agendamentoIds, LocalDateTime.now());
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.multiclinicas.api.jobs;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.dtos.ResultadoEnvioEmailDTO;
+import com.multiclinicas.api.models.EmailPendente;
+import com.multiclinicas.api.models.enums.StatusEmail;
+import com.multiclinicas.api.repositories.EmailPendenteRepository;
+import com.multiclinicas.api.services.EmailService;
+
+/**
+ * Esvazia a caixa de saída de e-mails em três passos por lote: reserva numa
+ * transação curta (SKIP LOCKED), envio numa única conexão SMTP sem transação
+ * aberta e registro do resultado em outra transação curta. A reserva empurra a
+ * próxima tentativa para depois da duração da reserva, de modo que várias
+ * instâncias podem rodar o job sem enviar o mesmo e-mail duas vezes; se a
+ * instância cair no meio do envio, o lote volta à fila quando a reserva vence.
+ * Mensagens recusadas voltam para a fila com espera exponencial até o limite de
+ * tentativas, depois ficam como FALHOU; endereços inválidos ficam como FALHOU
+ * na hora.
+ */
+@Component
+public class EnvioEmailsJob {
+
+    private static final Logger log = LoggerFactory.getLogger(EnvioEmailsJob.class);
+
+    private final EmailPendenteRepository emailPendenteRepository;
+    private final EmailService emailService;
+    private final TransactionTemplate transactionTemplate;
+    private final int tamanhoLote;
+    private final int maxTentativas;
+    private final Duration esperaInicial;
+    private final Duration esperaMaxima;
+    private final Duration reserva;
+
+    public EnvioEmailsJob(EmailPendenteRepository emailPendenteRepository,
+            EmailService emailService,
+            TransactionTemplate transactionTemplate,
+            @Value("${api.emails.lote:50}") int tamanhoLote,
+            @Value("${api.emails.max-tentativas:8}") int maxTentativas,
+            @Value("${api.emails.espera-inicial:PT30S}") Duration esperaInicial,
+            @Value("${api.emails.espera-maxima:PT1H}") Duration esperaMaxima,
+            @Value("${api.emails.reserva:PT5M}") Duration reserva) {
+        this.emailPendenteRepository = emailPendenteRepository;
+        this.emailService = emailService;
+        this.transactionTemplate = transactionTemplate;
+        this.tamanhoLote = tamanhoLote;
+        this.maxTentativas = maxTentativas;
+        this.esperaInicial = esperaInicial;
+        this.esperaMaxima = esperaMaxima;
+        this.reserva = reserva;
+    }
+
+    @Scheduled(fixedDelayString = "${api.emails.intervalo:PT5S}")
+    public void enviarPendentes() {
+        int processados;
+        do {
+            processados = enviarLote();
+        } while (processados == tamanhoLote);
+    }
+
+    private int enviarLote() {
+        List<EmailPendente> lote = transactionTemplate.execute(status -> reservar(LocalDateTime.now()));
+        if (lote.isEmpty()) {
+            return 0;
+        }
+
+        List<MensagemEmailDTO> mensagens = new ArrayList<>(lote.size());
+        Map<MensagemEmailDTO, Long> ids = new IdentityHashMap<>();
+        for (EmailPendente email : lote) {
+            MensagemEmailDTO mensagem = new MensagemEmailDTO(email.getDestinatario(), email.getAssunto(),
+                    email.getMensagem());
+            mensagens.add(mensagem);
+            ids.put(mensagem, email.getId());
+        }
+
+        ResultadoEnvioEmailDTO resultado = emailService.enviarEmails(mensagens);
+        Set<Long> recusados = resultado.recusadas().stream().map(ids::get).collect(Collectors.toSet());
+        Set<Long> invalidos = resultado.invalidas().stream().map(ids::get).collect(Collectors.toSet());
+        transactionTemplate.executeWithoutResult(
+                status -> registrar(lote.stream().map(EmailPendente::getId).toList(), recusados, invalidos,
+                        LocalDateTime.now()));
+
+        log.debug("Caixa de saída: {} e-mails enviados, {} reagendados, {} inválidos.",
+                lote.size() - recusados.size() - invalidos.size(), recusados.size(), invalidos.size());
+        return lote.size();
+    }
+
+    private List<EmailPendente> reservar(LocalDateTime agora) {
+        List<EmailPendente> lote = emailPendenteRepository.findProntosParaEnvio(agora, Limit.of(tamanhoLote));
+        lote.forEach(email -> email.setProximaTentativa(agora.plus(reserva)));
+        return lote;
+    }
+
+    private void registrar(List<Long> ids, Set<Long> recusados, Set<Long> invalidos, LocalDateTime agora) {
+        for (EmailPendente email : emailPendenteRepository.findAllById(ids)) {
+            if (invalidos.contains(email.getId())) {
+                email.setTentativas(email.getTentativas() + 1);
+                email.setStatus(StatusEmail.FALHOU);
+                log.warn("E-mail {} descartado: endereço inválido.", email.getId());
+            } else if (recusados.contains(email.getId())) {
+                reagendar(email, agora);
+            } else {
+                email.setStatus(StatusEmail.ENVIADO);
+                email.setEnviadoEm(agora);
+            }
+        }
+    }
+
+    private void reagendar(EmailPendente email, LocalDateTime agora) {
+        int tentativas = email.getTentativas() + 1;
+        email.setTentativas(tentativas);
+        if (tentativas >= maxTentativas) {
+            email.setStatus(StatusEmail.FALHOU);
+            log.warn("E-mail {} descartado após {} tentativas.", email.getId(), tentativas);
+            return;
+        }
+        email.setProximaTentativa(agora.plus(espera(tentativas)));
+    }
+
+    // esperaInicial, 2x, 4x... limitada a esperaMaxima
+    Duration espera(int tentativas) {
+        Duration espera = esperaInicial.multipliedBy(1L << Math.min(tentativas - 1, 30));
+        return espera.compareTo(esperaMaxima) > 0 ? esperaMaxima : espera;
+    }
+}
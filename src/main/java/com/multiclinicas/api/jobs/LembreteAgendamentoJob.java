@@ -1,72 +1,239 @@
 package com.multiclinicas.api.jobs;
 
 import java.time.LocalDate;
-import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Component;
 
-import com.multiclinicas.api.models.Agendamento;
+import com.multiclinicas.api.config.tenant.TenantContext;
+import com.multiclinicas.api.dtos.LembreteAgendamentoDTO;
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.dtos.ResultadoEnvioEmailDTO;
+import com.multiclinicas.api.email.DadosEmail;
+import com.multiclinicas.api.email.ModelosEmail;
+import com.multiclinicas.api.email.TipoEmail;
 import com.multiclinicas.api.models.enums.StatusAgendamento;
 import com.multiclinicas.api.repositories.AgendamentoRepository;
 import com.multiclinicas.api.services.EmailService;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Envia os lembretes das consultas do dia seguinte. Os agendamentos são lidos
+ * em lotes por id (só os campos usados no e-mail), agrupados por clínica e
+ * enviados em paralelo, vários e-mails por conexão SMTP. Só um lote fica em
+ * memória por vez, e cada clínica respeita seu limite de envios por minuto.
+ *
+ * O job roda várias vezes ao dia em todas as instâncias, mas só quem obtém o
+ * lease da data em {@link ControleLembretes} processa; as demais execuções
+ * apenas retomam, a partir do checkpoint, um envio que foi interrompido.
+ *
+ * O checkpoint nunca passa de um lembrete que o SMTP recusou, e a data só é
+ * concluída quando nenhum ficou pendente: a execução seguinte volta a percorrer
+ * a data a partir do primeiro recusado, pulando os que já constam como enviados.
+ */
 @Component
 public class LembreteAgendamentoJob {
 
     private static final Logger log = LoggerFactory.getLogger(LembreteAgendamentoJob.class);
 
-    @Autowired
-    private AgendamentoRepository agendamentoRepository;
+    private final AgendamentoRepository agendamentoRepository;
+    private final EmailService emailService;
+    private final ModelosEmail modelosEmail;
+    private final ControleLembretes controle;
+    private final LimitadorPorClinica limitador;
+    private final ScheduledExecutorService executor;
+    private final int tamanhoLote;
+    private final int tamanhoEnvio;
+    private final Counter enviados;
+    private final Counter falhas;
+    private final Timer lotes;
+
+    public LembreteAgendamentoJob(AgendamentoRepository agendamentoRepository,
+            EmailService emailService,
+            ModelosEmail modelosEmail,
+            ControleLembretes controle,
+            MeterRegistry meterRegistry,
+            @Value("${api.lembretes.lote:1000}") int tamanhoLote,
+            @Value("${api.lembretes.envio-lote:50}") int tamanhoEnvio,
+            @Value("${api.lembretes.threads:8}") int threads,
+            @Value("${api.lembretes.max-por-minuto-por-clinica:600}") int maxPorMinutoPorClinica) {
+        this.agendamentoRepository = agendamentoRepository;
+        this.emailService = emailService;
+        this.modelosEmail = modelosEmail;
+        this.controle = controle;
+        this.limitador = new LimitadorPorClinica(maxPorMinutoPorClinica);
+        this.executor = Executors.newScheduledThreadPool(threads, new CustomizableThreadFactory("lembrete-"));
+        this.tamanhoLote = tamanhoLote;
+        this.tamanhoEnvio = tamanhoEnvio;
+        this.enviados = Counter.builder("lembretes.enviados")
+                .description("Lembretes de consulta aceitos pelo servidor SMTP")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("lembretes.falhas")
+                .description("Lembretes de consulta que não puderam ser enviados")
+                .register(meterRegistry);
+        this.lotes = Timer.builder("lembretes.lote")
+                .description("Tempo para enviar um lote de lembretes, de todas as clínicas do lote")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 
-    @Autowired
-    private EmailService emailService;
+    @PreDestroy
+    void encerrar() {
+        // Envios ainda adiados pelo limite são cancelados para não prender quem
+        // espera o lote
+        executor.shutdownNow().forEach(tarefa -> ((Future<?>) tarefa).cancel(false));
+    }
 
-    @Scheduled(cron = "0 0 8 * * *")
+    @Scheduled(cron = "${api.lembretes.cron:0 */10 8-20 * * *}")
     public void dispararLembretesDeConsulta() {
         LocalDate dataAmanha = LocalDate.now().plusDays(1);
-        log.info("Iniciando rotina de lembretes para agendamentos do dia: {}", dataAmanha);
-        
-        List<Agendamento> agendamentos = agendamentoRepository
-                .findByDataConsultaAndStatus(dataAmanha, StatusAgendamento.AGENDADO);
+        Optional<Long> checkpoint = controle.adquirir(dataAmanha);
+        if (checkpoint.isEmpty()) {
+            log.debug("Lembretes de {} já concluídos ou em andamento em outra instância.", dataAmanha);
+            return;
+        }
+
+        long ultimoId = checkpoint.get();
+        log.info("Iniciando rotina de lembretes para agendamentos do dia: {} (a partir do id {})",
+                dataAmanha, ultimoId);
+
+        int processados = 0;
+        long ultimoConfirmado = ultimoId;
+        boolean pendentes = false;
+        List<LembreteAgendamentoDTO> lote;
+        do {
+            lote = agendamentoRepository.findLembretes(dataAmanha, StatusAgendamento.AGENDADO, ultimoId,
+                    Limit.of(tamanhoLote));
+            if (lote.isEmpty()) {
+                break;
+            }
+
+            List<LembreteAgendamentoDTO> atual = lote;
+            OptionalLong primeiraFalha = lotes.record(() -> enviarLote(atual));
+            processados += lote.size();
+            ultimoId = lote.get(lote.size() - 1).id();
+            if (!pendentes) {
+                pendentes = primeiraFalha.isPresent();
+                ultimoConfirmado = pendentes ? primeiraFalha.getAsLong() - 1 : ultimoId;
+            }
+            if (!controle.avancar(dataAmanha, ultimoConfirmado)) {
+                log.warn("Lease dos lembretes de {} perdido no id {}; outra instância continua o envio.",
+                        dataAmanha, ultimoId);
+                return;
+            }
+            log.info("Lembretes: {} agendamentos processados até o id {}.", processados, ultimoId);
+        } while (lote.size() == tamanhoLote);
+
+        if (pendentes) {
+            log.warn("Lembretes de {} com envios recusados a partir do id {}; serão tentados na próxima execução.",
+                    dataAmanha, ultimoConfirmado + 1);
+            return;
+        }
 
-        if (agendamentos.isEmpty()) {
+        controle.concluir(dataAmanha);
+
+        if (processados == 0) {
             log.info("Nenhum agendamento encontrado para amanhã.");
             return;
         }
 
-        DateTimeFormatter formatadorData = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+        log.info("Rotina finalizada. Foram processados {} agendamentos.", processados);
+    }
 
-        for (Agendamento agendamento : agendamentos) {
-            try {
-                String emailPaciente = agendamento.getPaciente().getEmail();
-                
-                if (emailPaciente == null || emailPaciente.isBlank()) {
-                    continue;
-                }
+    // Divide o lote em envios por clínica e espera todos terminarem antes de
+    // buscar o próximo lote. O envio de uma clínica acima da taxa é agendado
+    // para o início da janela dela, e as threads atendem as demais enquanto
+    // isso. Retorna o menor id que não foi enviado, se houver
+    private OptionalLong enviarLote(List<LembreteAgendamentoDTO> lote) {
+        Map<Long, List<LembreteAgendamentoDTO>> porClinica = lote.stream()
+                .filter(l -> l.emailPaciente() != null && !l.emailPaciente().isBlank())
+                .collect(Collectors.groupingBy(LembreteAgendamentoDTO::clinicId, LinkedHashMap::new,
+                        Collectors.toList()));
 
-                String nomePaciente = agendamento.getPaciente().getNome();
-                String nomeMedico = agendamento.getMedico().getNome();
-                String dataFormatada = agendamento.getDataConsulta().format(formatadorData);
-                String horaInicio = agendamento.getHoraInicio().toString();
+        List<Envio> envios = new ArrayList<>();
+        porClinica.forEach((clinicId, lembretes) -> {
+            for (int i = 0; i < lembretes.size(); i += tamanhoEnvio) {
+                List<LembreteAgendamentoDTO> envio = lembretes.subList(i, Math.min(i + tamanhoEnvio, lembretes.size()));
+                long espera = limitador.reservar(clinicId, envio.size());
+                envios.add(new Envio(envio, executor.schedule(
+                        () -> TenantContext.executarComo(clinicId, () -> enviar(clinicId, envio)),
+                        espera, TimeUnit.NANOSECONDS)));
+            }
+        });
 
-                String assunto = "Lembrete de Consulta - Multi Clínicas";
-                String mensagem = String.format(
-                    "Olá, %s!\n\nEste é um lembrete da sua consulta agendada para amanhã (%s) às %s com o(a) Dr(a). %s.\n\nPor favor, chegue com 15 minutos de antecedência.\n\nAtenciosamente,\nEquipe Multi Clínicas",
-                    nomePaciente, dataFormatada, horaInicio, nomeMedico
-                );
+        return envios.stream()
+                .flatMap(envio -> aguardar(envio).stream())
+                .mapToLong(Long::longValue)
+                .min();
+    }
 
-                emailService.enviarEmail(emailPaciente, assunto, mensagem);
+    // Envio cancelado ou interrompido conta como não enviado
+    private List<Long> aguardar(Envio envio) {
+        try {
+            return envio.resultado().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | CancellationException e) {
+            log.warn("Envio de lembretes interrompido: {}", e.toString());
+        }
+        return envio.lembretes().stream().map(LembreteAgendamentoDTO::id).toList();
+    }
 
-            } catch (Exception e) {
-                log.error("Erro ao enviar lembrete para o agendamento ID: " + agendamento.getId(), e);
+    // Retorna os ids dos lembretes que não foram enviados
+    private List<Long> enviar(Long clinicId, List<LembreteAgendamentoDTO> lembretes) {
+        try {
+            List<MensagemEmailDTO> mensagens = new ArrayList<>(lembretes.size());
+            Map<MensagemEmailDTO, Long> ids = new IdentityHashMap<>();
+            for (LembreteAgendamentoDTO lembrete : lembretes) {
+                MensagemEmailDTO mensagem = montarMensagem(lembrete);
+                mensagens.add(mensagem);
+                ids.put(mensagem, lembrete.id());
             }
+            ResultadoEnvioEmailDTO resultado = emailService.enviarEmails(mensagens);
+            // Endereço inválido não fica pendente: nenhuma nova tentativa daria certo
+            List<Long> naoEnviados = resultado.recusadas().stream().map(ids::remove).toList();
+            resultado.invalidas().forEach(ids::remove);
+
+            controle.registrarEnviados(mensagens.stream().filter(ids::containsKey).map(ids::get).toList());
+            enviados.increment(ids.size());
+            falhas.increment(resultado.recusadas().size() + resultado.invalidas().size());
+            return naoEnviados;
+        } catch (Exception e) {
+            log.error("Erro ao enviar lembretes da clínica ID: {}", clinicId, e);
         }
-        
-        log.info("Rotina finalizada. Foram processados {} agendamentos.", agendamentos.size());
+        falhas.increment(lembretes.size());
+        return lembretes.stream().map(LembreteAgendamentoDTO::id).toList();
+    }
+
+    private MensagemEmailDTO montarMensagem(LembreteAgendamentoDTO lembrete) {
+        return modelosEmail.montar(TipoEmail.LEMBRETE_CONSULTA, lembrete.clinicId(), lembrete.emailPaciente(),
+                new DadosEmail(lembrete.nomePaciente(), lembrete.nomeMedico(), lembrete.dataConsulta(),
+                        lembrete.horaInicio()));
+    }
+
+    private record Envio(List<LembreteAgendamentoDTO> lembretes, Future<List<Long>> resultado) {
     }
-}
\ No newline at end of file
+}
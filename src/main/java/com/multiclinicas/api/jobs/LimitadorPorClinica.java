@@ -0,0 +1,40 @@
+package com.multiclinicas.api.jobs;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limita quantos e-mails por minuto cada clínica pode disparar, para que uma
+ * clínica com muitos agendamentos não esgote a cota do servidor SMTP nem
+ * atrase as demais. Cada clínica tem sua própria agenda de liberações; o
+ * limitador não espera, só informa quanto o envio deve ser adiado, e quem
+ * envia agenda a tarefa para esse momento sem ocupar uma thread.
+ */
+class LimitadorPorClinica {
+
+    private final long intervaloNanos;
+    private final Map<Long, AtomicLong> proximaLiberacao = new ConcurrentHashMap<>();
+
+    // porMinuto <= 0 desliga o limite
+    LimitadorPorClinica(int porMinuto) {
+        this.intervaloNanos = porMinuto <= 0 ? 0 : TimeUnit.MINUTES.toNanos(1) / porMinuto;
+    }
+
+    long reservar(Long clinicId, int quantidade) {
+        return reservar(clinicId, quantidade, System.nanoTime());
+    }
+
+    // Reserva a janela para a quantidade informada e retorna quanto esperar
+    // (em nanos) até que ela comece
+    long reservar(Long clinicId, int quantidade, long agora) {
+        if (intervaloNanos == 0) {
+            return 0;
+        }
+        AtomicLong proxima = proximaLiberacao.computeIfAbsent(clinicId, id -> new AtomicLong(agora));
+        long inicio = Math.max(agora,
+                proxima.getAndAccumulate(agora, (atual, a) -> Math.max(atual, a) + quantidade * intervaloNanos));
+        return inicio - agora;
+    }
+}
@@ -16,13 +16,14 @@ import java.time.LocalTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-// Garante que não haja agendamentos com o mesmo médico, data e hora de início
-@Table(name = "agendamentos", uniqueConstraints = @UniqueConstraint(columnNames = { "clinic_id", "medico_id",
-        "data_consulta", "hora_inicio" }))
+// A sobreposição de horários do mesmo médico é barrada pela constraint de
+// exclusão ex_agendamentos_sem_sobreposicao (migration V5)
+@Table(name = "agendamentos")
 public class Agendamento {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "agendamentos_id")
+    @SequenceGenerator(name = "agendamentos_id", sequenceName = "agendamentos_id_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
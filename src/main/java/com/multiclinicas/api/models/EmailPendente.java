@@ -0,0 +1,51 @@
+package com.multiclinicas.api.models;
+
+import com.multiclinicas.api.models.enums.StatusEmail;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "emails_pendentes")
+public class EmailPendente {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "emails_pendentes_id")
+    @SequenceGenerator(name = "emails_pendentes_id", sequenceName = "emails_pendentes_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "clinic_id", nullable = false)
+    private Long clinicId;
+
+    @Column(nullable = false)
+    private String destinatario;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String mensagem;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private StatusEmail status = StatusEmail.PENDENTE;
+
+    @Column(nullable = false)
+    private int tentativas;
+
+    @Column(nullable = false)
+    private LocalDateTime proximaTentativa;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime enviadoEm;
+}
@@ -13,7 +13,8 @@ import lombok.NoArgsConstructor;
 public class Endereco {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enderecos_id")
+    @SequenceGenerator(name = "enderecos_id", sequenceName = "enderecos_id_seq", allocationSize = 50)
     private Long id;
     private String cep;
 
@@ -0,0 +1,31 @@
+package com.multiclinicas.api.models;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "execucoes_lembrete")
+public class ExecucaoLembrete {
+
+    @Id
+    private LocalDate dataConsulta;
+
+    // Checkpoint: maior id até o qual nenhum lembrete ficou pendente
+    @Column(nullable = false)
+    private Long ultimoId;
+
+    // Instância que detém a execução até leaseAte
+    private String dono;
+
+    private LocalDateTime leaseAte;
+
+    private LocalDateTime concluidoEm;
+}
@@ -0,0 +1,36 @@
+package com.multiclinicas.api.models;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "lembretes_enviados")
+public class LembreteEnviado implements Persistable<Long> {
+
+    @Id
+    private Long agendamentoId;
+
+    @Column(nullable = false)
+    private LocalDateTime enviadoEm;
+
+    @Override
+    public Long getId() {
+        return agendamentoId;
+    }
+
+    // Sempre inserido, nunca atualizado: evita o SELECT que o merge faria por
+    // ter o id atribuído
+    @Override
+    public boolean isNew() {
+        return true;
+    }
+}
@@ -18,6 +18,11 @@ import java.util.Set;
 @Table(name = "medicos", uniqueConstraints = @UniqueConstraint(columnNames = { "clinic_id", "crm" }))
 public class Medico extends BaseUsuario {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "medicos_id")
+    @SequenceGenerator(name = "medicos_id", sequenceName = "medicos_id_seq", allocationSize = 50)
+    private Long id;
+
     private String crm;
 
     private Boolean ativo = true;
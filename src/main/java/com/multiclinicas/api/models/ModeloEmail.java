@@ -0,0 +1,32 @@
+package com.multiclinicas.api.models;
+
+import com.multiclinicas.api.email.TipoEmail;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "modelos_email")
+public class ModeloEmail {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "clinic_id", nullable = false)
+    private Long clinicId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TipoEmail tipo;
+
+    @Column(nullable = false)
+    private String assunto;
+
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String corpo;
+}
@@ -15,6 +15,11 @@ import lombok.NoArgsConstructor;
 @Table(name = "pacientes", uniqueConstraints = @UniqueConstraint(columnNames = { "clinic_id", "cpf" }))
 public class Paciente extends BaseUsuario {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pacientes_id")
+    @SequenceGenerator(name = "pacientes_id", sequenceName = "pacientes_id_seq", allocationSize = 50)
+    private Long id;
+
     private String email;
 
     private String senhaHash;
@@ -15,6 +15,11 @@ import lombok.NoArgsConstructor;
 @Table(name = "usuarios_admin", uniqueConstraints = @UniqueConstraint(columnNames = { "clinic_id", "email" }))
 public class UsuarioAdmin extends BaseUsuario {
 
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "usuarios_admin_id")
+    @SequenceGenerator(name = "usuarios_admin_id", sequenceName = "usuarios_admin_id_seq", allocationSize = 50)
+    private Long id;
+
     private String email;
 
     private String senhaHash;
@@ -0,0 +1,44 @@
+package com.multiclinicas.api.models;
+
+import java.io.Serializable;
+
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "versoes_catalogo")
+@IdClass(VersaoCatalogo.Chave.class)
+public class VersaoCatalogo {
+
+    @Id
+    @Column(name = "clinic_id")
+    private Long clinicId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    private RecursoCatalogo recurso;
+
+    @Column(nullable = false)
+    private Long versao;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Chave implements Serializable {
+        private Long clinicId;
+        private RecursoCatalogo recurso;
+    }
+}
@@ -0,0 +1,7 @@
+package com.multiclinicas.api.models.enums;
+
+public enum StatusEmail {
+    PENDENTE,
+    ENVIADO,
+    FALHOU
+}
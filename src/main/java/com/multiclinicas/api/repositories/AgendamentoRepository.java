@@ -2,47 +2,113 @@ package com.multiclinicas.api.repositories;
 
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.multiclinicas.api.agenda.IntervaloOcupado;
+import com.multiclinicas.api.dtos.AgendamentoDTO;
+import com.multiclinicas.api.dtos.LembreteAgendamentoDTO;
 import com.multiclinicas.api.models.Agendamento;
 import com.multiclinicas.api.models.enums.StatusAgendamento;
+import com.multiclinicas.api.models.enums.TipoPagamento;
 
 @Repository
 public interface AgendamentoRepository extends JpaRepository<Agendamento, Long> {
 
-    List<Agendamento> findAllByClinicaId(Long clinicId);
+    // Monta o AgendamentoDTO direto na consulta, com os nomes de paciente, médico
+    // e plano vindos dos joins, sem carregar as entidades associadas
+    String SELECT_AGENDAMENTO_DTO = """
+                SELECT new com.multiclinicas.api.dtos.AgendamentoDTO(
+                    a.id, p.id, p.nome, m.id, m.nome, a.dataConsulta, a.horaInicio, a.horaFim,
+                    a.status, a.tipoPagamento, ps.nome, a.tokenAutorizacao, a.observacoes)
+                FROM Agendamento a
+                JOIN a.paciente p
+                JOIN a.medico m
+                LEFT JOIN a.planoSaude ps
+            """;
 
-    List<Agendamento> findByPacienteIdAndClinicaIdOrderByDataConsultaDescHoraInicioDesc(Long pacienteId, Long clinicId);
+    @Query(SELECT_AGENDAMENTO_DTO + """
+                WHERE p.id = :pacienteId
+                AND a.clinica.id = :clinicId
+                ORDER BY a.dataConsulta DESC, a.horaInicio DESC
+            """)
+    List<AgendamentoDTO> findDTOsByPacienteIdAndClinicaId(
+            @Param("pacienteId") Long pacienteId,
+            @Param("clinicId") Long clinicId);
     
-    List<Agendamento> findByDataConsultaAndStatus(LocalDate dataConsulta, StatusAgendamento status);
+    // Lembretes do dia em lotes ordenados por id (o job continua a partir do
+    // último id do lote anterior), já com os dados usados no e-mail. Ignora os
+    // que já constam como enviados, caso o job retome um lote interrompido.
+    @Query("""
+                SELECT new com.multiclinicas.api.dtos.LembreteAgendamentoDTO(
+                    a.id, a.clinica.id, p.nome, p.email, m.nome, a.dataConsulta, a.horaInicio)
+                FROM Agendamento a
+                JOIN a.paciente p
+                JOIN a.medico m
+                WHERE a.dataConsulta = :data
+                AND a.status = :status
+                AND a.id > :ultimoId
+                AND p.email IS NOT NULL
+                AND p.email <> ''
+                AND NOT EXISTS (SELECT 1 FROM LembreteEnviado l WHERE l.agendamentoId = a.id)
+                ORDER BY a.id
+            """)
+    List<LembreteAgendamentoDTO> findLembretes(
+            @Param("data") LocalDate data,
+            @Param("status") StatusAgendamento status,
+            @Param("ultimoId") Long ultimoId,
+            Limit limit);
 
     // Busca agendamentos de um médico em uma data específica (útil para montar a
     // agenda visualmente depois)
     List<Agendamento> findByMedicoIdAndDataConsultaAndClinicaId(Long medicoId, LocalDate dataConsulta, Long clinicId);
 
-    // Validação de Conflito de Horário
-    // Verifica se existe algum agendamento que comece antes do fim do novo E
-    // termine depois do início do novo
+    // Horários ocupados de vários médicos em um intervalo de datas (busca de disponibilidade)
     @Query("""
-                SELECT COUNT(a) > 0 FROM Agendamento a
+                SELECT new com.multiclinicas.api.agenda.IntervaloOcupado(a.medico.id, a.dataConsulta, a.horaInicio, a.horaFim)
+                FROM Agendamento a
                 WHERE a.clinica.id = :clinicId
-                AND a.medico.id = :medicoId
-                AND a.dataConsulta = :data
+                AND a.medico.id IN :medicoIds
+                AND a.dataConsulta BETWEEN :dataInicio AND :dataFim
                 AND a.status <> 'CANCELADO_CLINICA'
                 AND a.status <> 'CANCELADO_PACIENTE'
-                AND (
-                    (a.horaInicio < :fim AND a.horaFim > :inicio)
-                )
             """)
-    boolean existsConflict(
+    List<IntervaloOcupado> findIntervalosOcupados(
             @Param("clinicId") Long clinicId,
+            @Param("medicoIds") Collection<Long> medicoIds,
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim);
+
+    // Listagem da clínica paginada por cursor (keyset) na ordem data, hora de
+    // início e id. O cursor é a posição do último item da página anterior.
+    @Query(SELECT_AGENDAMENTO_DTO + """
+                WHERE a.clinica.id = :clinicId
+                AND (:dataInicio IS NULL OR a.dataConsulta >= :dataInicio)
+                AND (:dataFim IS NULL OR a.dataConsulta <= :dataFim)
+                AND (:medicoId IS NULL OR m.id = :medicoId)
+                AND (:status IS NULL OR a.status = :status)
+                AND (:tipoPagamento IS NULL OR a.tipoPagamento = :tipoPagamento)
+                AND (:cursorData IS NULL
+                    OR a.dataConsulta > :cursorData
+                    OR (a.dataConsulta = :cursorData AND a.horaInicio > :cursorHora)
+                    OR (a.dataConsulta = :cursorData AND a.horaInicio = :cursorHora AND a.id > :cursorId))
+                ORDER BY a.dataConsulta, a.horaInicio, a.id
+            """)
+    List<AgendamentoDTO> findPagina(
+            @Param("clinicId") Long clinicId,
+            @Param("dataInicio") LocalDate dataInicio,
+            @Param("dataFim") LocalDate dataFim,
             @Param("medicoId") Long medicoId,
-            @Param("data") LocalDate data,
-            @Param("inicio") LocalTime inicio,
-            @Param("fim") LocalTime fim);
+            @Param("status") StatusAgendamento status,
+            @Param("tipoPagamento") TipoPagamento tipoPagamento,
+            @Param("cursorData") LocalDate cursorData,
+            @Param("cursorHora") LocalTime cursorHora,
+            @Param("cursorId") Long cursorId,
+            Limit limite);
 }
\ No newline at end of file
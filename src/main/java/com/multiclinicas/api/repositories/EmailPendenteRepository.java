@@ -0,0 +1,33 @@
+package com.multiclinicas.api.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.multiclinicas.api.models.EmailPendente;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+@Repository
+public interface EmailPendenteRepository extends JpaRepository<EmailPendente, Long> {
+
+    // FOR UPDATE SKIP LOCKED no PostgreSQL (timeout -2): cada instância do job trava o seu
+    // lote e pula as linhas que outra instância já está enviando
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("""
+                SELECT e FROM EmailPendente e
+                WHERE e.status = com.multiclinicas.api.models.enums.StatusEmail.PENDENTE
+                AND e.proximaTentativa <= :agora
+                ORDER BY e.id
+            """)
+    List<EmailPendente> findProntosParaEnvio(@Param("agora") LocalDateTime agora, Limit limit);
+}
@@ -0,0 +1,70 @@
+package com.multiclinicas.api.repositories;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.multiclinicas.api.models.ExecucaoLembrete;
+
+@Repository
+public interface ExecucaoLembreteRepository extends JpaRepository<ExecucaoLembrete, LocalDate> {
+
+    // Várias instâncias podem tentar criar a mesma execução ao mesmo tempo
+    @Modifying
+    @Transactional
+    @Query(value = """
+                INSERT INTO execucoes_lembrete (data_consulta, ultimo_id) VALUES (:data, 0)
+                ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int criarSeAusente(@Param("data") LocalDate data);
+
+    // Só uma instância consegue: a execução precisa estar livre, com o lease
+    // vencido ou já pertencer a quem pede
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("""
+                UPDATE ExecucaoLembrete e SET e.dono = :dono, e.leaseAte = :ate
+                WHERE e.dataConsulta = :data
+                AND e.concluidoEm IS NULL
+                AND (e.leaseAte IS NULL OR e.leaseAte < :agora OR e.dono = :dono)
+            """)
+    int adquirir(
+            @Param("data") LocalDate data,
+            @Param("dono") String dono,
+            @Param("agora") LocalDateTime agora,
+            @Param("ate") LocalDateTime ate);
+
+    // Grava o checkpoint e renova o lease; retorna 0 se o lease já foi perdido
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("""
+                UPDATE ExecucaoLembrete e SET e.ultimoId = :ultimoId, e.leaseAte = :ate
+                WHERE e.dataConsulta = :data
+                AND e.dono = :dono
+                AND e.leaseAte >= :agora
+            """)
+    int avancar(
+            @Param("data") LocalDate data,
+            @Param("dono") String dono,
+            @Param("ultimoId") Long ultimoId,
+            @Param("agora") LocalDateTime agora,
+            @Param("ate") LocalDateTime ate);
+
+    @Modifying(clearAutomatically = true)
+    @Transactional
+    @Query("""
+                UPDATE ExecucaoLembrete e SET e.concluidoEm = :agora, e.dono = NULL, e.leaseAte = NULL
+                WHERE e.dataConsulta = :data
+                AND e.dono = :dono
+            """)
+    int concluir(
+            @Param("data") LocalDate data,
+            @Param("dono") String dono,
+            @Param("agora") LocalDateTime agora);
+}
@@ -1,11 +1,15 @@
 package com.multiclinicas.api.repositories;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import com.multiclinicas.api.agenda.PeriodoGrade;
 import com.multiclinicas.api.models.GradeHorario;
 
 @Repository
@@ -17,7 +21,13 @@ public interface GradeHorarioRepository extends JpaRepository<GradeHorario, Long
 
     Optional<GradeHorario> findByIdAndMedico_ClinicaId(Long id, Long clinicId);
 
-    List<GradeHorario> findAllByMedicoIdAndDiaSemana(Long medicoId, Integer diaSemana);
-
     void deleteByMedicoId(Long medicoId);
+
+    // Grade semanal de vários médicos em uma única consulta, sem carregar as entidades
+    @Query("""
+                SELECT new com.multiclinicas.api.agenda.PeriodoGrade(g.medico.id, g.diaSemana, g.horaInicio, g.horaFim)
+                FROM GradeHorario g
+                WHERE g.medico.id IN :medicoIds
+            """)
+    List<PeriodoGrade> findPeriodosByMedicoIds(@Param("medicoIds") Collection<Long> medicoIds);
 }
@@ -0,0 +1,28 @@
+package com.multiclinicas.api.repositories;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.multiclinicas.api.models.LembreteEnviado;
+
+@Repository
+public interface LembreteEnviadoRepository extends JpaRepository<LembreteEnviado, Long> {
+
+    // Uma instância que perdeu o lease pode registrar o mesmo lembrete que a
+    // substituta: o registro repetido é ignorado em vez de derrubar o lote
+    @Modifying
+    @Transactional
+    @Query(value = """
+                INSERT INTO lembretes_enviados (agendamento_id, enviado_em)
+                SELECT a.id, :agora FROM agendamentos a WHERE a.id IN (:ids)
+                ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int registrarSeAusentes(@Param("ids") List<Long> agendamentoIds, @Param("agora") LocalDateTime agora);
+}
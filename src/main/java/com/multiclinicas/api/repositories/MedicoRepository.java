@@ -1,8 +1,14 @@
 package com.multiclinicas.api.repositories;
 
+import java.util.Collection;
 import java.util.List;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.multiclinicas.api.agenda.MedicoAgenda;
 import com.multiclinicas.api.models.Medico;
 import org.springframework.stereotype.Repository;
 
@@ -11,10 +17,39 @@ public interface MedicoRepository extends JpaRepository<Medico, Long> {
 	
 	List<Medico> findAllByClinicaId(Long clinicId);
 	
+	// Carrega as especialidades junto, pois a lista vira MedicoDTO no catálogo da clínica
+	@EntityGraph(attributePaths = "especialidades")
 	List<Medico> findAllByClinicaIdAndAtivoTrue(Long clinicId);
 	
 	Medico findByIdAndClinicaId(Long id, Long clinicId);
 	
 	boolean existsByCrmAndClinicaId(String crm, Long clinicId);
+
+	// Médicos ativos da clínica para a busca de horários, opcionalmente filtrados por especialidade
+	@Query("""
+				SELECT new com.multiclinicas.api.agenda.MedicoAgenda(m.id, m.nome, m.duracaoConsulta)
+				FROM Medico m
+				WHERE m.clinica.id = :clinicId
+				AND m.ativo = true
+				AND (:especialidadeId IS NULL OR EXISTS (
+					SELECT 1 FROM m.especialidades e WHERE e.id = :especialidadeId))
+			""")
+	List<MedicoAgenda> findAgendaAtivos(
+			@Param("clinicId") Long clinicId,
+			@Param("especialidadeId") Long especialidadeId);
+
+	@Query("""
+				SELECT new com.multiclinicas.api.agenda.MedicoAgenda(m.id, m.nome, m.duracaoConsulta)
+				FROM Medico m
+				WHERE m.clinica.id = :clinicId
+				AND m.ativo = true
+				AND m.id IN :medicoIds
+				AND (:especialidadeId IS NULL OR EXISTS (
+					SELECT 1 FROM m.especialidades e WHERE e.id = :especialidadeId))
+			""")
+	List<MedicoAgenda> findAgendaAtivosByIds(
+			@Param("clinicId") Long clinicId,
+			@Param("medicoIds") Collection<Long> medicoIds,
+			@Param("especialidadeId") Long especialidadeId);
 	
 }
\ No newline at end of file
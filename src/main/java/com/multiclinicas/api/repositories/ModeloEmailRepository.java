@@ -0,0 +1,14 @@
+package com.multiclinicas.api.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import com.multiclinicas.api.email.TipoEmail;
+import com.multiclinicas.api.models.ModeloEmail;
+
+@Repository
+public interface ModeloEmailRepository extends JpaRepository<ModeloEmail, Long> {
+    Optional<ModeloEmail> findByClinicIdAndTipo(Long clinicId, TipoEmail tipo);
+}
@@ -0,0 +1,35 @@
+package com.multiclinicas.api.repositories;
+
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.models.VersaoCatalogo;
+
+@Repository
+public interface VersaoCatalogoRepository extends JpaRepository<VersaoCatalogo, VersaoCatalogo.Chave> {
+
+    @Query("SELECT v.versao FROM VersaoCatalogo v WHERE v.clinicId = :clinicId AND v.recurso = :recurso")
+    Optional<Long> findVersao(@Param("clinicId") Long clinicId, @Param("recurso") RecursoCatalogo recurso);
+
+    // Duas escritas podem ser a primeira da clínica ao mesmo tempo
+    @Modifying
+    @Query(value = """
+                INSERT INTO versoes_catalogo (clinic_id, recurso, versao) VALUES (:clinicId, :recurso, 0)
+                ON CONFLICT DO NOTHING
+            """, nativeQuery = true)
+    int criarSeAusente(@Param("clinicId") Long clinicId, @Param("recurso") String recurso);
+
+    // Não limpa o contexto de persistência: roda no meio da escrita do service
+    @Modifying
+    @Query("""
+                UPDATE VersaoCatalogo v SET v.versao = v.versao + 1
+                WHERE v.clinicId = :clinicId AND v.recurso = :recurso
+            """)
+    int incrementar(@Param("clinicId") Long clinicId, @Param("recurso") RecursoCatalogo recurso);
+}
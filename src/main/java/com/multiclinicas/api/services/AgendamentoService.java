@@ -5,14 +5,19 @@ import java.util.List;
 
 import com.multiclinicas.api.dtos.AgendamentoDTO;
 import com.multiclinicas.api.dtos.AgendamentoCreateDTO;
+import com.multiclinicas.api.dtos.AgendamentoFiltroDTO;
+import com.multiclinicas.api.dtos.AgendamentoLoteDTO;
 import com.multiclinicas.api.dtos.AgendamentoRemarcarDTO;
 import com.multiclinicas.api.dtos.AgendamentoStatusDTO;
 import com.multiclinicas.api.dtos.AgendamentoTokenDTO;
 import com.multiclinicas.api.dtos.DisponibilidadeDTO;
+import com.multiclinicas.api.dtos.HorarioLivreDTO;
+import com.multiclinicas.api.dtos.PaginaAgendamentosDTO;
+import com.multiclinicas.api.dtos.ResultadoLoteDTO;
 import com.multiclinicas.api.models.Agendamento;
 
 public interface AgendamentoService {
-    List<Agendamento> findAllByClinicId(Long clinicId);
+    PaginaAgendamentosDTO listar(Long clinicId, AgendamentoFiltroDTO filtro, String cursor, int limite);
 
     List<AgendamentoDTO> buscarMeusAgendamentos();
 
@@ -20,6 +25,8 @@ public interface AgendamentoService {
 
     Agendamento create(Long clinicId, AgendamentoCreateDTO dto);
 
+    ResultadoLoteDTO criarLote(Long clinicId, AgendamentoLoteDTO dto);
+
     Agendamento remarcar(Long id, Long clinicId, AgendamentoRemarcarDTO dto);
 
     Agendamento cancelar(Long id, Long clinicId, boolean canceladoPeloClinica);
@@ -29,4 +36,7 @@ public interface AgendamentoService {
     Agendamento atualizarToken(Long id, Long clinicId, AgendamentoTokenDTO dto);
 
     DisponibilidadeDTO buscarDisponibilidade(Long medicoId, LocalDate data, Long clinicId);
+
+    List<HorarioLivreDTO> buscarHorariosLivres(Long clinicId, LocalDate dataInicio, LocalDate dataFim,
+            Long especialidadeId, List<Long> medicoIds, int limite);
 }
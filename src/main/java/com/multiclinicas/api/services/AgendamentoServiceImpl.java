@@ -1,33 +1,64 @@
 package com.multiclinicas.api.services;
 
+import java.sql.SQLException;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.ArrayList;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
 
+import org.hibernate.exception.ConstraintViolationException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.multiclinicas.api.agenda.CoordenadorAgenda;
+import com.multiclinicas.api.agenda.CursorAgendamento;
+import com.multiclinicas.api.agenda.GradeSemanal;
+import com.multiclinicas.api.agenda.GradeSemanalCache;
+import com.multiclinicas.api.agenda.IntervaloOcupado;
+import com.multiclinicas.api.agenda.MapaOcupacao;
+import com.multiclinicas.api.agenda.MedicoAgenda;
+import com.multiclinicas.api.agenda.MetricasAgenda;
+import com.multiclinicas.api.agenda.OcupacaoAgendaCache;
+import com.multiclinicas.api.agenda.PeriodoGrade;
+import com.multiclinicas.api.catalogo.CatalogoClinica;
 import com.multiclinicas.api.config.tenant.TenantContext;
 import com.multiclinicas.api.dtos.AgendamentoDTO;
 import com.multiclinicas.api.dtos.AgendamentoCreateDTO;
+import com.multiclinicas.api.dtos.AgendamentoFiltroDTO;
+import com.multiclinicas.api.dtos.AgendamentoLoteDTO;
 import com.multiclinicas.api.dtos.AgendamentoRemarcarDTO;
 import com.multiclinicas.api.dtos.AgendamentoStatusDTO;
 import com.multiclinicas.api.dtos.AgendamentoTokenDTO;
 import com.multiclinicas.api.dtos.DisponibilidadeDTO;
+import com.multiclinicas.api.dtos.HorarioAgendamentoDTO;
+import com.multiclinicas.api.dtos.HorarioLivreDTO;
+import com.multiclinicas.api.dtos.ItemLoteDTO;
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.dtos.PaginaAgendamentosDTO;
+import com.multiclinicas.api.dtos.PlanoSaudeDTO;
+import com.multiclinicas.api.dtos.RecorrenciaDTO;
+import com.multiclinicas.api.dtos.ResultadoLoteDTO;
+import com.multiclinicas.api.email.DadosEmail;
+import com.multiclinicas.api.email.ModelosEmail;
+import com.multiclinicas.api.email.TipoEmail;
 import com.multiclinicas.api.exceptions.BusinessException;
 import com.multiclinicas.api.exceptions.ResourceConflictException;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
-import com.multiclinicas.api.mappers.AgendamentoMapper;
 import com.multiclinicas.api.models.Agendamento;
 import com.multiclinicas.api.models.Clinica;
-import com.multiclinicas.api.models.GradeHorario;
 import com.multiclinicas.api.models.Medico;
 import com.multiclinicas.api.models.Paciente;
 import com.multiclinicas.api.models.PlanoSaude;
@@ -35,7 +66,6 @@ import com.multiclinicas.api.models.enums.StatusAgendamento;
 import com.multiclinicas.api.models.enums.TipoPagamento;
 import com.multiclinicas.api.repositories.AgendamentoRepository;
 import com.multiclinicas.api.repositories.ClinicaRepository;
-import com.multiclinicas.api.repositories.GradeHorarioRepository;
 import com.multiclinicas.api.repositories.MedicoRepository;
 import com.multiclinicas.api.repositories.PacienteRepository;
 import com.multiclinicas.api.repositories.PlanoSaudeRepository;
@@ -51,9 +81,13 @@ public class AgendamentoServiceImpl implements AgendamentoService {
     private final MedicoRepository medicoRepository;
     private final PacienteRepository pacienteRepository;
     private final PlanoSaudeRepository planoSaudeRepository;
-    private final GradeHorarioRepository gradeHorarioRepository;
-    private final EmailService emailService;
-    private final AgendamentoMapper agendamentoMapper;
+    private final CatalogoClinica catalogoClinica;
+    private final GradeSemanalCache gradeSemanalCache;
+    private final CaixaSaidaEmailService caixaSaidaEmailService;
+    private final ModelosEmail modelosEmail;
+    private final OcupacaoAgendaCache ocupacaoAgendaCache;
+    private final CoordenadorAgenda coordenadorAgenda;
+    private final MetricasAgenda metricasAgenda;
 
     private static final Map<DayOfWeek, String> DIAS_SEMANA_PT = Map.of(
             DayOfWeek.MONDAY, "Segunda-feira",
@@ -64,10 +98,46 @@ public class AgendamentoServiceImpl implements AgendamentoService {
             DayOfWeek.SATURDAY, "Sábado",
             DayOfWeek.SUNDAY, "Domingo");
 
+    private static final int MAX_DIAS_BUSCA = 62;
+    private static final int MAX_LIMITE_BUSCA = 200;
+    private static final int MAX_LIMITE_LISTAGEM = 200;
+    private static final int MAX_ITENS_LOTE = 100;
+
+    // Constraint de exclusão da migration V5 (sobreposição de agendamentos ativos)
+    private static final String CONSTRAINT_SOBREPOSICAO = "ex_agendamentos_sem_sobreposicao";
+    private static final String SQLSTATE_EXCLUSAO = "23P01";
+
     @Override
     @Transactional(readOnly = true)
-    public List<Agendamento> findAllByClinicId(Long clinicId) {
-        return agendamentoRepository.findAllByClinicaId(clinicId);
+    public PaginaAgendamentosDTO listar(Long clinicId, AgendamentoFiltroDTO filtro, String cursor, int limite) {
+        if (limite < 1 || limite > MAX_LIMITE_LISTAGEM) {
+            throw new BusinessException("O limite deve estar entre 1 e " + MAX_LIMITE_LISTAGEM + ".");
+        }
+        if (filtro.dataInicio() != null && filtro.dataFim() != null && filtro.dataFim().isBefore(filtro.dataInicio())) {
+            throw new BusinessException("A data final deve ser igual ou posterior à data inicial.");
+        }
+
+        CursorAgendamento posicao = cursor == null || cursor.isBlank() ? null : CursorAgendamento.decodificar(cursor);
+
+        // Busca um item a mais só para saber se existe próxima página
+        List<AgendamentoDTO> itens = agendamentoRepository.findPagina(
+                clinicId,
+                filtro.dataInicio(),
+                filtro.dataFim(),
+                filtro.medicoId(),
+                filtro.status(),
+                filtro.tipoPagamento(),
+                posicao == null ? null : posicao.dataConsulta(),
+                posicao == null ? null : posicao.horaInicio(),
+                posicao == null ? null : posicao.id(),
+                Limit.of(limite + 1));
+
+        if (itens.size() <= limite) {
+            return new PaginaAgendamentosDTO(itens, null);
+        }
+
+        List<AgendamentoDTO> pagina = itens.subList(0, limite);
+        return new PaginaAgendamentosDTO(List.copyOf(pagina), CursorAgendamento.de(pagina.get(limite - 1)).codificar());
     }
 
     @Override
@@ -91,7 +161,7 @@ public class AgendamentoServiceImpl implements AgendamentoService {
 
         Long pacienteId;
         try {
-            pacienteId = Long.parseLong(authentication.getPrincipal().toString());
+            pacienteId = Long.parseLong(authentication.getName());
         } catch (NumberFormatException ex) {
             throw new AccessDeniedException("Usuário autenticado inválido.");
         }
@@ -99,10 +169,7 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         pacienteRepository.findByIdAndClinicaId(pacienteId, clinicId)
                 .orElseThrow(() -> new ResourceNotFoundException("Paciente não encontrado para esta clínica"));
 
-        return agendamentoRepository.findByPacienteIdAndClinicaIdOrderByDataConsultaDescHoraInicioDesc(pacienteId, clinicId)
-                .stream()
-                .map(agendamentoMapper::toDTO)
-                .toList();
+        return agendamentoRepository.findDTOsByPacienteIdAndClinicaId(pacienteId, clinicId);
     }
 
     @Override
@@ -116,6 +183,14 @@ public class AgendamentoServiceImpl implements AgendamentoService {
     @Override
     @Transactional
     public Agendamento create(Long clinicId, AgendamentoCreateDTO dto) {
+        return metricasAgenda.registrar(MetricasAgenda.CRIAR, clinicId, () -> criar(clinicId, dto));
+    }
+
+    private Agendamento criar(Long clinicId, AgendamentoCreateDTO dto) {
+        // Trava antes das leituras para que a validação enxergue o que foi
+        // confirmado pela transação anterior na fila
+        coordenadorAgenda.bloquear(clinicId, dto.medicoId(), dto.dataConsulta());
+
         Clinica clinica = clinicaRepository.findById(clinicId)
                 .orElseThrow(() -> new ResourceNotFoundException("Clínica não encontrada"));
 
@@ -135,10 +210,9 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         LocalTime horaFim = horaInicio.plusMinutes(medico.getDuracaoConsulta());
 
         validarHorarioFuturo(dto.dataConsulta(), horaInicio);
-        validarHorarioAtendimentoMedico(medico, dto.dataConsulta(), horaInicio, horaFim);
-        validarConflitoHorario(clinicId, medico.getId(), dto.dataConsulta(), horaInicio, horaFim, null);
+        validarHorarioAtendimentoMedico(clinicId, medico, dto.dataConsulta(), horaInicio, horaFim);
 
-        PlanoSaude planoSaude = validarPlanoSaude(dto.tipoPagamento(), dto.planoSaudeId(), clinicId);
+        PlanoSaude planoSaude = validarPlanoSaude(dto.tipoPagamento(), dto.planoSaudeId(), clinica);
 
         Agendamento agendamento = new Agendamento();
         agendamento.setClinica(clinica);
@@ -152,34 +226,180 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         agendamento.setPlanoSaude(planoSaude);
         agendamento.setObservacoes(dto.observacoes());
 
-        Agendamento agendamentoSalvo = agendamentoRepository.save(agendamento);
+        Agendamento agendamentoSalvo = salvarHorario(agendamento);
+        ocupacaoAgendaCache.registrar(agendamentoSalvo);
         
         if (paciente.getEmail() != null && !paciente.getEmail().trim().isEmpty()) {
-        	String dataFormatada = dto.dataConsulta().format(DateTimeFormatter.ofPattern("dd/MM/yyyy"));
-        	String assunto = "Confirmação de Agendamento - " + clinica.getNomeFantasia();
-        	
-        	String mensagem = String.format(
-        			"Olá, %s, seu agendamento foi confirmado com sucesso!\n\n" + 
-        			"Detalhes da consulta:\n" + 
-        			"Médico(a): Dr(a). %s\n" + 
-        			"Data: %s\n" + 
-        			"Horário: %s\n" + 
-        			"Clínica: %s\n\n" + 
-        			"Agradecemos a preferência!",
-        			paciente.getNome(),
-        			medico.getNome(),
-        			dataFormatada,
-        			horaInicio.toString(),
-        			clinica.getNomeFantasia()
-				);
-        	emailService.enviarEmail(paciente.getEmail(), assunto, mensagem);
+            MensagemEmailDTO confirmacao = modelosEmail.montar(TipoEmail.CONFIRMACAO_AGENDAMENTO, clinicId,
+                    paciente.getEmail(),
+                    new DadosEmail(paciente.getNome(), medico.getNome(), dto.dataConsulta(), horaInicio));
+            // Vai para a caixa de saída: só é enviado se o agendamento for confirmado
+            caixaSaidaEmailService.enfileirar(clinicId, confirmacao.destinatario(), confirmacao.assunto(),
+                    confirmacao.mensagem());
         }
         return agendamentoSalvo;
     }
 
+    @Override
+    @Transactional
+    public ResultadoLoteDTO criarLote(Long clinicId, AgendamentoLoteDTO dto) {
+        return metricasAgenda.registrar(MetricasAgenda.CRIAR_LOTE, clinicId, () -> criarSerie(clinicId, dto));
+    }
+
+    // Valida todos os horários contra uma única leitura da grade e da ocupação
+    // do período. Horários recusados não impedem os demais: cada item volta com
+    // o próprio resultado.
+    private ResultadoLoteDTO criarSerie(Long clinicId, AgendamentoLoteDTO dto) {
+        List<HorarioAgendamentoDTO> horarios = expandirHorarios(dto);
+
+        TreeSet<LocalDate> datas = new TreeSet<>();
+        horarios.forEach(h -> datas.add(h.dataConsulta()));
+
+        // Trava antes de qualquer leitura para que o retrato não mude até o commit
+        coordenadorAgenda.bloquearDias(clinicId, dto.medicoId(), datas);
+
+        Clinica clinica = clinicaRepository.findById(clinicId)
+                .orElseThrow(() -> new ResourceNotFoundException("Clínica não encontrada"));
+
+        Paciente paciente = pacienteRepository.findByIdAndClinicaId(dto.pacienteId(), clinicId)
+                .orElseThrow(
+                        () -> new ResourceNotFoundException("Paciente não encontrado ou não pertence a esta clínica"));
+
+        Medico medico = medicoRepository.findByIdAndClinicaId(dto.medicoId(), clinicId);
+        if (medico == null) {
+            throw new ResourceNotFoundException("Médico não encontrado ou não pertence a esta clínica");
+        }
+        if (!medico.getAtivo()) {
+            throw new BusinessException("Não é possível agendar com um médico inativo");
+        }
+
+        PlanoSaude planoSaude = validarPlanoSaude(dto.tipoPagamento(), dto.planoSaudeId(), clinica);
+
+        GradeSemanal grade = gradeSemanalCache.obter(clinicId, medico.getId());
+        Map<LocalDate, List<IntervaloOcupado>> ocupadosPorData = agendamentoRepository
+                .findIntervalosOcupados(clinicId, List.of(medico.getId()), datas.first(), datas.last())
+                .stream()
+                .collect(Collectors.groupingBy(IntervaloOcupado::dataConsulta));
+        Map<LocalDate, MapaOcupacao> mapas = new HashMap<>();
+
+        List<ItemLoteDTO> itens = new ArrayList<>();
+        List<Agendamento> novos = new ArrayList<>();
+        List<Integer> posicoes = new ArrayList<>();
+
+        for (HorarioAgendamentoDTO horario : horarios) {
+            LocalDate data = horario.dataConsulta();
+            LocalTime horaInicio = horario.horaInicio();
+            LocalTime horaFim = horaInicio.plusMinutes(medico.getDuracaoConsulta());
+
+            String motivo;
+            try {
+                if (data.isBefore(LocalDate.now())) {
+                    throw new BusinessException("A data da consulta deve ser hoje ou futura");
+                }
+                validarHorarioFuturo(data, horaInicio);
+                validarHorarioAtendimentoMedico(clinicId, medico, data, horaInicio, horaFim);
+                motivo = null;
+            } catch (BusinessException ex) {
+                motivo = ex.getMessage();
+            }
+
+            if (motivo == null) {
+                // O mapa também recebe os horários aceitos do próprio lote
+                MapaOcupacao mapa = mapas.computeIfAbsent(data, d -> {
+                    MapaOcupacao novo = new MapaOcupacao(true, medico.getDuracaoConsulta(),
+                            grade.doDia(d.getDayOfWeek()));
+                    ocupadosPorData.getOrDefault(d, List.of()).forEach(o -> novo.marcar(o.horaInicio(), o.horaFim()));
+                    return novo;
+                });
+                if (mapa.isLivre(horaInicio, horaFim)) {
+                    mapa.marcar(horaInicio, horaFim);
+                } else {
+                    motivo = "O médico já possui agendamento neste horário.";
+                }
+            }
+
+            if (motivo != null) {
+                itens.add(new ItemLoteDTO(data, horaInicio, false, null, motivo));
+                continue;
+            }
+
+            Agendamento agendamento = new Agendamento();
+            agendamento.setClinica(clinica);
+            agendamento.setPaciente(paciente);
+            agendamento.setMedico(medico);
+            agendamento.setDataConsulta(data);
+            agendamento.setHoraInicio(horaInicio);
+            agendamento.setHoraFim(horaFim);
+            agendamento.setStatus(StatusAgendamento.AGENDADO);
+            agendamento.setTipoPagamento(dto.tipoPagamento());
+            agendamento.setPlanoSaude(planoSaude);
+            agendamento.setObservacoes(dto.observacoes());
+            novos.add(agendamento);
+            posicoes.add(itens.size());
+            itens.add(null);
+        }
+
+        List<Agendamento> salvos = salvarHorarios(novos);
+        for (int i = 0; i < salvos.size(); i++) {
+            Agendamento salvo = salvos.get(i);
+            ocupacaoAgendaCache.registrar(salvo);
+            itens.set(posicoes.get(i),
+                    new ItemLoteDTO(salvo.getDataConsulta(), salvo.getHoraInicio(), true, salvo.getId(), null));
+        }
+
+        if (!salvos.isEmpty() && paciente.getEmail() != null && !paciente.getEmail().trim().isEmpty()) {
+            Agendamento primeiro = salvos.stream()
+                    .min(Comparator.comparing(Agendamento::getDataConsulta).thenComparing(Agendamento::getHoraInicio))
+                    .orElseThrow();
+            List<LocalDateTime> horariosCriados = salvos.stream()
+                    .map(a -> LocalDateTime.of(a.getDataConsulta(), a.getHoraInicio()))
+                    .sorted()
+                    .toList();
+            MensagemEmailDTO confirmacao = modelosEmail.montar(TipoEmail.CONFIRMACAO_SERIE, clinicId,
+                    paciente.getEmail(), new DadosEmail(paciente.getNome(), medico.getNome(),
+                            primeiro.getDataConsulta(), primeiro.getHoraInicio(), horariosCriados));
+            caixaSaidaEmailService.enfileirar(clinicId, confirmacao.destinatario(), confirmacao.assunto(),
+                    confirmacao.mensagem());
+        }
+
+        return new ResultadoLoteDTO(salvos.size(), itens.size() - salvos.size(), itens);
+    }
+
+    private List<HorarioAgendamentoDTO> expandirHorarios(AgendamentoLoteDTO dto) {
+        boolean temHorarios = dto.horarios() != null && !dto.horarios().isEmpty();
+        if (temHorarios == (dto.recorrencia() != null)) {
+            throw new BusinessException("Informe a lista de horários ou a recorrência, mas não ambos.");
+        }
+
+        List<HorarioAgendamentoDTO> horarios;
+        if (temHorarios) {
+            horarios = dto.horarios();
+        } else {
+            RecorrenciaDTO recorrencia = dto.recorrencia();
+            int intervalo = recorrencia.intervaloSemanas() == null ? 1 : recorrencia.intervaloSemanas();
+            if (recorrencia.ocorrencias() > MAX_ITENS_LOTE) {
+                throw new BusinessException("O lote deve ter no máximo " + MAX_ITENS_LOTE + " horários.");
+            }
+            horarios = new ArrayList<>();
+            for (int i = 0; i < recorrencia.ocorrencias(); i++) {
+                horarios.add(new HorarioAgendamentoDTO(
+                        recorrencia.dataInicio().plusWeeks((long) i * intervalo), recorrencia.horaInicio()));
+            }
+        }
+
+        if (horarios.size() > MAX_ITENS_LOTE) {
+            throw new BusinessException("O lote deve ter no máximo " + MAX_ITENS_LOTE + " horários.");
+        }
+        return horarios;
+    }
+
     @Override
     @Transactional
     public Agendamento remarcar(Long id, Long clinicId, AgendamentoRemarcarDTO dto) {
+        return metricasAgenda.registrar(MetricasAgenda.REMARCAR, clinicId, () -> remarcarHorario(id, clinicId, dto));
+    }
+
+    private Agendamento remarcarHorario(Long id, Long clinicId, AgendamentoRemarcarDTO dto) {
         Agendamento agendamento = findByIdAndClinicId(id, clinicId);
 
         if (agendamento.getStatus() == StatusAgendamento.CANCELADO_CLINICA ||
@@ -189,24 +409,37 @@ public class AgendamentoServiceImpl implements AgendamentoService {
                     traduzirStatus(agendamento.getStatus()) + ".");
         }
 
+        // O agendamento é lido antes só para saber o médico; o resto da
+        // validação acontece com a agenda do novo dia já travada
         Medico medico = agendamento.getMedico();
+        coordenadorAgenda.bloquear(clinicId, medico.getId(), dto.novaDataConsulta());
+
         LocalTime novaHoraFim = dto.novaHoraInicio().plusMinutes(medico.getDuracaoConsulta());
 
         validarHorarioFuturo(dto.novaDataConsulta(), dto.novaHoraInicio());
-        validarHorarioAtendimentoMedico(medico, dto.novaDataConsulta(), dto.novaHoraInicio(), novaHoraFim);
-        validarConflitoHorario(clinicId, medico.getId(), dto.novaDataConsulta(), dto.novaHoraInicio(), novaHoraFim, id);
+        validarHorarioAtendimentoMedico(clinicId, medico, dto.novaDataConsulta(), dto.novaHoraInicio(), novaHoraFim);
+
+        ocupacaoAgendaCache.liberar(clinicId, medico.getId(), agendamento.getDataConsulta(),
+                agendamento.getHoraInicio(), agendamento.getHoraFim());
 
         agendamento.setDataConsulta(dto.novaDataConsulta());
         agendamento.setHoraInicio(dto.novaHoraInicio());
         agendamento.setHoraFim(novaHoraFim);
         agendamento.setStatus(StatusAgendamento.AGENDADO);
 
-        return agendamentoRepository.save(agendamento);
+        Agendamento agendamentoSalvo = salvarHorario(agendamento);
+        ocupacaoAgendaCache.registrar(agendamentoSalvo);
+        return agendamentoSalvo;
     }
 
     @Override
     @Transactional
     public Agendamento cancelar(Long id, Long clinicId, boolean canceladoPelaClinica) {
+        return metricasAgenda.registrar(MetricasAgenda.CANCELAR, clinicId,
+                () -> cancelarAgendamento(id, clinicId, canceladoPelaClinica));
+    }
+
+    private Agendamento cancelarAgendamento(Long id, Long clinicId, boolean canceladoPelaClinica) {
         Agendamento agendamento = findByIdAndClinicId(id, clinicId);
 
         if (agendamento.getStatus() == StatusAgendamento.CANCELADO_CLINICA ||
@@ -221,7 +454,10 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         agendamento.setStatus(
                 canceladoPelaClinica ? StatusAgendamento.CANCELADO_CLINICA : StatusAgendamento.CANCELADO_PACIENTE);
 
-        return agendamentoRepository.save(agendamento);
+        Agendamento agendamentoSalvo = agendamentoRepository.save(agendamento);
+        ocupacaoAgendaCache.liberar(clinicId, agendamento.getMedico().getId(), agendamento.getDataConsulta(),
+                agendamento.getHoraInicio(), agendamento.getHoraFim());
+        return agendamentoSalvo;
     }
 
     @Override
@@ -262,63 +498,94 @@ public class AgendamentoServiceImpl implements AgendamentoService {
     	return agendamentoRepository.save(agendamento);
     }
 
+    // Sem transação: a única leitura é a carga do mapa, que abre a própria
+    // transação no primário
     @Override
-    @Transactional(readOnly = true)
     public DisponibilidadeDTO buscarDisponibilidade(Long medicoId, LocalDate data, Long clinicId){
-        Medico medico = medicoRepository.findByIdAndClinicaId(medicoId, clinicId);
-        if(medico == null){
-            throw  new ResourceNotFoundException("Médido não encontrado.");
-        }
+        return metricasAgenda.registrar(MetricasAgenda.DISPONIBILIDADE, clinicId,
+                () -> calcularDisponibilidade(medicoId, data, clinicId));
+    }
+
+    private DisponibilidadeDTO calcularDisponibilidade(Long medicoId, LocalDate data, Long clinicId) {
+        MapaOcupacao mapa = ocupacaoAgendaCache.obter(clinicId, medicoId, data);
 
-        if(!medico.getAtivo()){
+        LocalDate hoje = LocalDate.now();
+        if (data.isBefore(hoje)) {
             return new DisponibilidadeDTO(medicoId, data, List.of());
         }
+        LocalTime aPartirDe = data.isEqual(hoje) ? LocalTime.now() : null;
 
-        int diaSemana = data.getDayOfWeek().getValue();
-        List<GradeHorario> grades = gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(medico.getId(), diaSemana);
+        return new DisponibilidadeDTO(medicoId, data, mapa.horariosLivres(aPartirDe));
+    }
 
-        if(grades.isEmpty()){
-            return new DisponibilidadeDTO(medicoId, data, List.of());
+    @Override
+    @Transactional(readOnly = true)
+    public List<HorarioLivreDTO> buscarHorariosLivres(Long clinicId, LocalDate dataInicio, LocalDate dataFim,
+            Long especialidadeId, List<Long> medicoIds, int limite) {
+        if (dataFim.isBefore(dataInicio)) {
+            throw new BusinessException("A data final deve ser igual ou posterior à data inicial.");
+        }
+        if (ChronoUnit.DAYS.between(dataInicio, dataFim) >= MAX_DIAS_BUSCA) {
+            throw new BusinessException("O intervalo de busca deve ter no máximo " + MAX_DIAS_BUSCA + " dias.");
+        }
+        if (limite < 1 || limite > MAX_LIMITE_BUSCA) {
+            throw new BusinessException("O limite deve estar entre 1 e " + MAX_LIMITE_BUSCA + ".");
         }
 
-        List<Agendamento> agendamentos = agendamentoRepository.findByMedicoIdAndDataConsultaAndClinicaId(medico.getId(), data, clinicId)
-                .stream()
-                .filter(a -> a.getStatus() != StatusAgendamento.CANCELADO_CLINICA &&
-                        a.getStatus() != StatusAgendamento.CANCELADO_PACIENTE)
-                .toList();
-        int duracaoConsulta = medico.getDuracaoConsulta();
-        List<LocalTime> horariosDisponiveis = new ArrayList<>();
+        LocalDate hoje = LocalDate.now();
+        LocalDate inicio = dataInicio.isBefore(hoje) ? hoje : dataInicio;
+        if (dataFim.isBefore(inicio)) {
+            return List.of();
+        }
 
-        for(GradeHorario grade : grades){
-            LocalTime slotInicio = grade.getHoraInicio();
-            LocalTime slotFim = slotInicio.plusMinutes(duracaoConsulta);
+        // No máximo três consultas, independentemente do tamanho do intervalo:
+        // médicos, grades semanais (só as que não estão em cache) e horários
+        // ocupados no período
+        List<MedicoAgenda> medicos = (medicoIds == null || medicoIds.isEmpty())
+                ? medicoRepository.findAgendaAtivos(clinicId, especialidadeId)
+                : medicoRepository.findAgendaAtivosByIds(clinicId, medicoIds, especialidadeId);
+        if (medicos.isEmpty()) {
+            return List.of();
+        }
 
-            while (!slotFim.isAfter(grade.getHoraFim())) {
-                boolean conflito = isSlotOcupado(slotInicio, slotFim, agendamentos);
+        List<Long> ids = medicos.stream().map(MedicoAgenda::id).toList();
+        Map<Long, GradeSemanal> gradesPorMedico = gradeSemanalCache.obterTodas(clinicId, ids);
+        Map<Long, Map<LocalDate, List<IntervaloOcupado>>> ocupadosPorMedico = agendamentoRepository
+                .findIntervalosOcupados(clinicId, ids, inicio, dataFim)
+                .stream()
+                .collect(Collectors.groupingBy(IntervaloOcupado::medicoId,
+                        Collectors.groupingBy(IntervaloOcupado::dataConsulta)));
+
+        List<HorarioLivreDTO> horarios = new ArrayList<>();
+        for (LocalDate data = inicio; !data.isAfter(dataFim) && horarios.size() < limite; data = data.plusDays(1)) {
+            LocalTime aPartirDe = data.isEqual(hoje) ? LocalTime.now() : null;
+            List<HorarioLivreDTO> horariosDoDia = new ArrayList<>();
+
+            for (MedicoAgenda medico : medicos) {
+                List<PeriodoGrade> grades = gradesPorMedico.getOrDefault(medico.id(), GradeSemanal.VAZIA)
+                        .doDia(data.getDayOfWeek());
+                if (grades.isEmpty()) {
+                    continue;
+                }
 
-                LocalDate hoje = LocalDate.now();
-                Boolean noPassado = data.isBefore(hoje) || (data.isEqual(hoje) && slotInicio.isBefore(LocalTime.now()));
+                MapaOcupacao mapa = new MapaOcupacao(true, medico.duracaoConsulta(), grades);
+                ocupadosPorMedico.getOrDefault(medico.id(), Map.of())
+                        .getOrDefault(data, List.of())
+                        .forEach(o -> mapa.marcar(o.horaInicio(), o.horaFim()));
 
-                if(!conflito && !noPassado){
-                    horariosDisponiveis.add(slotInicio);
+                for (LocalTime hora : mapa.horariosLivres(aPartirDe)) {
+                    horariosDoDia.add(new HorarioLivreDTO(medico.id(), medico.nome(), data, hora));
                 }
-
-                slotInicio = slotInicio.plusMinutes(duracaoConsulta);
-                slotFim = slotInicio.plusMinutes(duracaoConsulta);
             }
-        }
 
-        horariosDisponiveis.sort(LocalTime::compareTo);
-        return new DisponibilidadeDTO(medicoId, data, horariosDisponiveis);
-    }
+            horariosDoDia.sort(Comparator.comparing(HorarioLivreDTO::horaInicio)
+                    .thenComparing(HorarioLivreDTO::medicoId));
+            horarios.addAll(horariosDoDia.subList(0, Math.min(horariosDoDia.size(), limite - horarios.size())));
+        }
 
-    private boolean isSlotOcupado(LocalTime inicio, LocalTime fim, List<Agendamento> agendamentos) {
-        return agendamentos.stream().anyMatch(a ->
-                (inicio.isBefore(a.getHoraFim()) && fim.isAfter(a.getHoraInicio()))
-        );
+        return horarios;
     }
 
-
     private void validarHorarioFuturo(LocalDate data, LocalTime hora) {
         LocalDate hoje = LocalDate.now();
         if (data.isEqual(hoje) && hora.isBefore(LocalTime.now())) {
@@ -326,24 +593,24 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         }
     }
 
-    private void validarHorarioAtendimentoMedico(Medico medico, LocalDate data, LocalTime inicio, LocalTime fim) {
-        int diaSemana = data.getDayOfWeek().getValue();
+    private void validarHorarioAtendimentoMedico(Long clinicId, Medico medico, LocalDate data, LocalTime inicio,
+            LocalTime fim) {
         String diaSemanaStr = DIAS_SEMANA_PT.get(data.getDayOfWeek());
 
-        List<GradeHorario> grades = gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(medico.getId(), diaSemana);
+        List<PeriodoGrade> grades = gradeSemanalCache.obter(clinicId, medico.getId()).doDia(data.getDayOfWeek());
 
         if (grades.isEmpty()) {
             throw new BusinessException("O médico não atende neste dia da semana (" + diaSemanaStr + ").");
         }
 
         boolean horarioValido = grades.stream()
-                .anyMatch(grade -> !inicio.isBefore(grade.getHoraInicio()) && !fim.isAfter(grade.getHoraFim()));
+                .anyMatch(grade -> !inicio.isBefore(grade.horaInicio()) && !fim.isAfter(grade.horaFim()));
 
         if (!horarioValido) {
             StringBuilder periodos = new StringBuilder();
             for (int i = 0; i < grades.size(); i++) {
-                GradeHorario g = grades.get(i);
-                periodos.append(g.getHoraInicio()).append(" às ").append(g.getHoraFim());
+                PeriodoGrade g = grades.get(i);
+                periodos.append(g.horaInicio()).append(" às ").append(g.horaFim());
                 if (i < grades.size() - 1)
                     periodos.append(", ");
             }
@@ -352,31 +619,59 @@ public class AgendamentoServiceImpl implements AgendamentoService {
         }
     }
 
-    private void validarConflitoHorario(Long clinicId, Long medicoId, LocalDate data,
-            LocalTime inicio, LocalTime fim, Long agendamentoIdIgnorar) {
-        boolean conflito = agendamentoRepository.existsConflict(clinicId, medicoId, data, inicio, fim);
-
-        if (conflito && agendamentoIdIgnorar == null) {
-            throw new ResourceConflictException("O médico já possui agendamento neste horário.");
+    // A sobreposição de horários é barrada pelo banco (constraint de exclusão),
+    // inclusive entre requisições concorrentes. O flush força o INSERT/UPDATE
+    // aqui para que a violação vire 409 em vez de estourar no commit.
+    private Agendamento salvarHorario(Agendamento agendamento) {
+        try {
+            return agendamentoRepository.saveAndFlush(agendamento);
+        } catch (DataIntegrityViolationException ex) {
+            if (violouSobreposicao(ex)) {
+                throw new ResourceConflictException("O médico já possui agendamento neste horário.");
+            }
+            throw ex;
         }
+    }
 
-        if (conflito && agendamentoIdIgnorar != null) {
-            List<Agendamento> agendamentosConflitantes = agendamentoRepository
-                    .findByMedicoIdAndDataConsultaAndClinicaId(medicoId, data, clinicId)
-                    .stream()
-                    .filter(a -> !a.getId().equals(agendamentoIdIgnorar))
-                    .filter(a -> a.getStatus() != StatusAgendamento.CANCELADO_CLINICA &&
-                            a.getStatus() != StatusAgendamento.CANCELADO_PACIENTE)
-                    .filter(a -> inicio.isBefore(a.getHoraFim()) && fim.isAfter(a.getHoraInicio()))
-                    .toList();
+    // Mesma tradução da violação que salvarHorario, para o lote inteiro. Os
+    // horários já foram conferidos com a agenda travada, então a constraint só
+    // dispara se outra gravação escapou do coordenador.
+    private List<Agendamento> salvarHorarios(List<Agendamento> agendamentos) {
+        if (agendamentos.isEmpty()) {
+            return List.of();
+        }
+        try {
+            List<Agendamento> salvos = agendamentoRepository.saveAll(agendamentos);
+            agendamentoRepository.flush();
+            return salvos;
+        } catch (DataIntegrityViolationException ex) {
+            if (violouSobreposicao(ex)) {
+                throw new ResourceConflictException("O médico já possui agendamento em um dos horários do lote.");
+            }
+            throw ex;
+        }
+    }
 
-            if (!agendamentosConflitantes.isEmpty()) {
-                throw new ResourceConflictException("O médico já possui agendamento neste horário.");
+    // Pelo nome da constraint extraído pelo Hibernate ou, quando o dialeto não o
+    // extrai, pelo SQLState de exclusion_violation: a constraint de sobreposição
+    // é a única do tipo EXCLUDE no esquema
+    private static boolean violouSobreposicao(DataIntegrityViolationException ex) {
+        for (Throwable causa = ex; causa != null; causa = causa.getCause()) {
+            if (causa instanceof ConstraintViolationException violacao
+                    && CONSTRAINT_SOBREPOSICAO.equalsIgnoreCase(violacao.getConstraintName())) {
+                return true;
+            }
+            if (causa instanceof SQLException sql && SQLSTATE_EXCLUSAO.equals(sql.getSQLState())) {
+                return true;
             }
         }
+        return false;
     }
 
-    private PlanoSaude validarPlanoSaude(TipoPagamento tipoPagamento, Long planoSaudeId, Long clinicId) {
+    // O catálogo da clínica (que pode estar alguns segundos atrasado) recusa
+    // cedo o plano inexistente ou inativo; o agendamento recebe a referência
+    // gerenciada, e o ativo é conferido de novo nela antes da gravação
+    private PlanoSaude validarPlanoSaude(TipoPagamento tipoPagamento, Long planoSaudeId, Clinica clinica) {
         if (tipoPagamento != TipoPagamento.CONVENIO) {
             return null;
         }
@@ -385,14 +680,17 @@ public class AgendamentoServiceImpl implements AgendamentoService {
             throw new BusinessException("Para agendamentos via convênio, o plano de saúde é obrigatório.");
         }
 
-        PlanoSaude planoSaude = planoSaudeRepository.findById(planoSaudeId)
-                .filter(p -> p.getClinica().getId().equals(clinicId))
+        PlanoSaudeDTO plano = catalogoClinica.planosSaude(clinica.getId()).buscar(planoSaudeId)
                 .orElseThrow(() -> new ResourceNotFoundException("Plano de saúde inválido para esta clínica"));
 
-        if (!planoSaude.getAtivo()) {
+        if (!plano.ativo()) {
             throw new BusinessException("Este plano de saúde está inativo.");
         }
 
+        PlanoSaude planoSaude = planoSaudeRepository.getReferenceById(plano.id());
+        if (!Boolean.TRUE.equals(planoSaude.getAtivo())) {
+            throw new BusinessException("Este plano de saúde está inativo.");
+        }
         return planoSaude;
     }
 
@@ -0,0 +1,7 @@
+package com.multiclinicas.api.services;
+
+public interface CaixaSaidaEmailService {
+    // Grava o e-mail na transação atual; o envio acontece depois do commit,
+    // pelo EnvioEmailsJob
+    void enfileirar(Long clinicId, String destinatario, String assunto, String mensagem);
+}
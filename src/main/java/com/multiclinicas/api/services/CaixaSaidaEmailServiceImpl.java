@@ -0,0 +1,33 @@
+package com.multiclinicas.api.services;
+
+import java.time.LocalDateTime;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.multiclinicas.api.models.EmailPendente;
+import com.multiclinicas.api.repositories.EmailPendenteRepository;
+
+@Service
+public class CaixaSaidaEmailServiceImpl implements CaixaSaidaEmailService {
+
+    private final EmailPendenteRepository emailPendenteRepository;
+
+    public CaixaSaidaEmailServiceImpl(EmailPendenteRepository emailPendenteRepository) {
+        this.emailPendenteRepository = emailPendenteRepository;
+    }
+
+    // MANDATORY: o e-mail só pode existir se a operação que o gerou for confirmada
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enfileirar(Long clinicId, String destinatario, String assunto, String mensagem) {
+        EmailPendente email = new EmailPendente();
+        email.setClinicId(clinicId);
+        email.setDestinatario(destinatario);
+        email.setAssunto(assunto);
+        email.setMensagem(mensagem);
+        email.setProximaTentativa(LocalDateTime.now());
+        emailPendenteRepository.save(email);
+    }
+}
@@ -1,5 +1,9 @@
 package com.multiclinicas.api.services;
 
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
+import com.multiclinicas.api.config.tenant.TenantCache;
+import com.multiclinicas.api.email.ModelosEmail;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
 import com.multiclinicas.api.models.Clinica;
 import com.multiclinicas.api.repositories.ClinicaRepository;
@@ -23,6 +27,9 @@ public class ClinicaServiceImpl implements ClinicaService {
     private final ClinicaRepository clinicaRepository;
     private final UsuarioAdminRepository usuarioAdminRepository;
     private final PasswordEncoder passwordEncoder;
+    private final TenantCache tenantCache;
+    private final VersoesCatalogo versoesCatalogo;
+    private final ModelosEmail modelosEmail;
 
     @Override
     public List<Clinica> findAll() {
@@ -75,7 +82,13 @@ public class ClinicaServiceImpl implements ClinicaService {
         clinicaExistente.setSubdominio(clinicaAtualizada.getSubdominio());
         clinicaExistente.setAtivo(clinicaAtualizada.getAtivo());
 
-        return clinicaRepository.save(clinicaExistente);
+        Clinica clinicaSalva = clinicaRepository.save(clinicaExistente);
+        tenantCache.invalidar(id);
+        // O nome da clínica aparece nas listas de médicos e especialidades
+        versoesCatalogo.incrementar(id, RecursoCatalogo.MEDICOS, RecursoCatalogo.ESPECIALIDADES);
+        // e nos modelos de e-mail já compilados
+        modelosEmail.invalidar(id);
+        return clinicaSalva;
     }
 
     @Override
@@ -85,5 +98,7 @@ public class ClinicaServiceImpl implements ClinicaService {
             throw new ResourceNotFoundException("Clínica não encontrada para exclusão com ID: " + id);
         }
         clinicaRepository.deleteById(id);
+        tenantCache.invalidar(id);
+        modelosEmail.invalidar(id);
     }
 }
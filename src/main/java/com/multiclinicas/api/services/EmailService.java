@@ -1,5 +1,12 @@
 package com.multiclinicas.api.services;
 
+import java.util.List;
+
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.dtos.ResultadoEnvioEmailDTO;
+
 public interface EmailService {
-	void enviarEmail(String destinatario, String assunto, String mensagem);
-}
\ No newline at end of file
+	// Envia as mensagens na mesma conexão SMTP e retorna as que não foram aceitas,
+	// separando as recusas temporárias dos endereços inválidos
+	ResultadoEnvioEmailDTO enviarEmails(List<MensagemEmailDTO> mensagens);
+}
@@ -1,37 +1,172 @@
 package com.multiclinicas.api.services;
 
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.scheduling.annotation.Async;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.dtos.ResultadoEnvioEmailDTO;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Todo envio passa por um executor próprio, com uma thread por conexão SMTP e
+ * fila limitada: quando a fila enche, quem chama envia na própria thread, o que
+ * segura os produtores (back-pressure) sem descartar mensagens. Cada lote usa
+ * uma única conexão do {@link PoolConexoesSmtp}.
+ */
 @Service
 public class EmailServiceImpl implements EmailService {
-	
-	private final JavaMailSender mailSender;
+
+	private static final Logger log = LoggerFactory.getLogger(EmailServiceImpl.class);
+
+	private final JavaMailSenderImpl mailSender;
 	private final String remetentePadrao = "nao-responda@clinicas.com";
-	
-	@Autowired
-	public EmailServiceImpl(JavaMailSender mailSender) {
+	private final PoolConexoesSmtp conexoes;
+	private final ThreadPoolExecutor executor;
+	private final Timer latencia;
+	private final Counter enviados;
+	private final Counter falhas;
+
+	public EmailServiceImpl(JavaMailSenderImpl mailSender,
+			MeterRegistry meterRegistry,
+			@Value("${api.email.conexoes:4}") int maxConexoes,
+			@Value("${api.email.fila:100}") int capacidadeFila,
+			@Value("${api.email.espera-conexao:PT30S}") Duration esperaConexao) {
 		this.mailSender = mailSender;
+		this.conexoes = new PoolConexoesSmtp(mailSender, maxConexoes, esperaConexao);
+		this.executor = new ThreadPoolExecutor(maxConexoes, maxConexoes, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(capacidadeFila), new CustomizableThreadFactory("email-"),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		this.latencia = Timer.builder("email.envio")
+				.description("Tempo de envio de um lote de e-mails, incluindo a espera por conexão")
+				.register(meterRegistry);
+		this.enviados = Counter.builder("email.enviados")
+				.description("E-mails aceitos pelo servidor SMTP")
+				.register(meterRegistry);
+		this.falhas = Counter.builder("email.falhas")
+				.description("E-mails recusados ou não enviados")
+				.register(meterRegistry);
+		Gauge.builder("email.fila", executor, e -> e.getQueue().size())
+				.description("Lotes de e-mail aguardando uma conexão SMTP")
+				.register(meterRegistry);
 	}
-	
-	@Async
+
+	@PreDestroy
+	void encerrar() {
+		executor.shutdown();
+		conexoes.fechar();
+	}
+
 	@Override
-	public void enviarEmail(String destinatario, String assunto, String mensagem) {
+	public ResultadoEnvioEmailDTO enviarEmails(List<MensagemEmailDTO> mensagens) {
+		if (mensagens.isEmpty()) {
+			return new ResultadoEnvioEmailDTO(List.of(), List.of());
+		}
+		Future<ResultadoEnvioEmailDTO> envio = executor.submit(() -> latencia.recordCallable(() -> enviarLote(mensagens)));
+		try {
+			return envio.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			falhas.increment(mensagens.size());
+			return new ResultadoEnvioEmailDTO(mensagens, List.of());
+		} catch (ExecutionException e) {
+			log.error("Erro ao tentar enviar o lote de e-mails.", e.getCause());
+			falhas.increment(mensagens.size());
+			return new ResultadoEnvioEmailDTO(mensagens, List.of());
+		}
+	}
+
+	private ResultadoEnvioEmailDTO enviarLote(List<MensagemEmailDTO> mensagens) throws InterruptedException {
+		Transport transporte;
+		try {
+			transporte = conexoes.emprestar();
+		} catch (MessagingException e) {
+			log.error("Não foi possível conectar ao servidor SMTP.", e);
+			falhas.increment(mensagens.size());
+			return new ResultadoEnvioEmailDTO(mensagens, List.of());
+		}
+
+		List<MensagemEmailDTO> recusadas = new ArrayList<>();
+		List<MensagemEmailDTO> invalidas = new ArrayList<>();
+		boolean conexaoValida = true;
 		try {
-			SimpleMailMessage email = new SimpleMailMessage();
-			email.setFrom(remetentePadrao);
-			email.setTo(destinatario);
-			email.setSubject(assunto);
-			email.setText(mensagem);
-			
-			mailSender.send(email);
-			System.out.println("E-mail enviado com sucesso.");
-		} catch (Exception e) {
-			System.err.println("Erro ao tentar enviar o e-mail.");
-			e.printStackTrace();
+			for (int i = 0; i < mensagens.size(); i++) {
+				MensagemEmailDTO mensagem = mensagens.get(i);
+				MimeMessage email;
+				try {
+					email = montar(mensagem);
+				} catch (MessagingException e) {
+					// Endereço inválido: não adianta tentar de novo
+					log.warn("E-mail inválido para {}: {}", mensagem.destinatario(), e.getMessage());
+					invalidas.add(mensagem);
+					continue;
+				}
+				try {
+					transporte.sendMessage(email, email.getAllRecipients());
+				} catch (SendFailedException e) {
+					// Destinatário recusado; a conexão continua utilizável. Resposta 5xx
+					// (endereço em getInvalidAddresses) é definitiva, 4xx é temporária
+					if (recusaDefinitiva(e)) {
+						invalidas.add(mensagem);
+					} else {
+						recusadas.add(mensagem);
+					}
+				} catch (MessagingException e) {
+					log.error("Conexão SMTP perdida; {} e-mails voltam para nova tentativa.", mensagens.size() - i, e);
+					conexaoValida = false;
+					recusadas.addAll(mensagens.subList(i, mensagens.size()));
+					break;
+				}
+			}
+		} finally {
+			if (conexaoValida) {
+				conexoes.devolver(transporte);
+			} else {
+				conexoes.descartar(transporte);
+			}
 		}
+
+		int naoEnviadas = recusadas.size() + invalidas.size();
+		enviados.increment(mensagens.size() - naoEnviadas);
+		falhas.increment(naoEnviadas);
+		return new ResultadoEnvioEmailDTO(recusadas, invalidas);
+	}
+
+	private static boolean recusaDefinitiva(SendFailedException e) {
+		return e.getInvalidAddresses() != null && e.getInvalidAddresses().length > 0
+				&& (e.getValidUnsentAddresses() == null || e.getValidUnsentAddresses().length == 0);
+	}
+
+	private MimeMessage montar(MensagemEmailDTO mensagem) throws MessagingException {
+		MimeMessage email = mailSender.createMimeMessage();
+		MimeMessageHelper helper = new MimeMessageHelper(email, "UTF-8");
+		helper.setFrom(remetentePadrao);
+		helper.setTo(mensagem.destinatario());
+		helper.setSubject(mensagem.assunto());
+		helper.setText(mensagem.mensagem());
+		email.saveChanges();
+		return email;
 	}
-}
\ No newline at end of file
+}
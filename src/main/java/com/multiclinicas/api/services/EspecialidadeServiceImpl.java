@@ -1,5 +1,7 @@
 package com.multiclinicas.api.services;
 
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.exceptions.BusinessException;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
 import com.multiclinicas.api.models.Clinica;
@@ -21,6 +23,7 @@ public class EspecialidadeServiceImpl implements EspecialidadeService {
 
     private final EspecialidadeRepository especialidadeRepository;
     private final ClinicaRepository clinicaRepository;
+    private final VersoesCatalogo versoesCatalogo;
 
     @Override
     @Transactional(readOnly = true)
@@ -49,7 +52,10 @@ public class EspecialidadeServiceImpl implements EspecialidadeService {
 
         especialidade.setNome(nomeNormalizado);
         especialidade.setClinica(clinica);
-        return especialidadeRepository.save(especialidade);
+        Especialidade especialidadeSalva = especialidadeRepository.save(especialidade);
+        // Os médicos trazem o nome das especialidades
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.ESPECIALIDADES, RecursoCatalogo.MEDICOS);
+        return especialidadeSalva;
     }
 
     @Override
@@ -65,7 +71,10 @@ public class EspecialidadeServiceImpl implements EspecialidadeService {
         }
 
         especialidadeExistente.setNome(nomeNormalizado);
-        return especialidadeRepository.save(especialidadeExistente);
+        Especialidade especialidadeSalva = especialidadeRepository.save(especialidadeExistente);
+        // Os médicos trazem o nome das especialidades
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.ESPECIALIDADES, RecursoCatalogo.MEDICOS);
+        return especialidadeSalva;
     }
 
     @Override
@@ -73,6 +82,8 @@ public class EspecialidadeServiceImpl implements EspecialidadeService {
     public void delete(Long id, Long clinicId) {
         Especialidade especialidade = findByIdAndClinicId(id, clinicId);
         especialidadeRepository.delete(especialidade);
+        // Os médicos trazem o nome das especialidades
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.ESPECIALIDADES, RecursoCatalogo.MEDICOS);
     }
 
     private String normalizarNome(String nome) {
@@ -1,5 +1,9 @@
 package com.multiclinicas.api.services;
 
+import com.multiclinicas.api.agenda.GradeSemanalCache;
+import com.multiclinicas.api.agenda.OcupacaoAgendaCache;
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
 import com.multiclinicas.api.models.GradeHorario;
 import com.multiclinicas.api.models.Medico;
@@ -17,6 +21,9 @@ public class GradeHorarioServiceImpl implements GradeHorarioService {
 
     private final GradeHorarioRepository gradeHorarioRepository;
     private final MedicoRepository medicoRepository;
+    private final OcupacaoAgendaCache ocupacaoAgendaCache;
+    private final GradeSemanalCache gradeSemanalCache;
+    private final VersoesCatalogo versoesCatalogo;
 
     private static final String GRADE_NOT_FOUND_MSG = "Grade de horário não encontrada com o ID: ";
     private static final String MEDICO_NOT_FOUND_MSG = "Médico não encontrado ou não pertence a esta clínica. ID: ";
@@ -31,7 +38,11 @@ public class GradeHorarioServiceImpl implements GradeHorarioService {
         }
         
         grade.setMedico(medico);
-        return gradeHorarioRepository.save(grade);
+        GradeHorario gradeSalva = gradeHorarioRepository.save(grade);
+        gradeSemanalCache.invalidar(clinicId, medicoId);
+        ocupacaoAgendaCache.invalidarMedico(clinicId, medicoId);
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.GRADE_HORARIO);
+        return gradeSalva;
     }
 
     @Override
@@ -52,6 +63,9 @@ public class GradeHorarioServiceImpl implements GradeHorarioService {
     public void delete(Long id, Long clinicId) {
         GradeHorario grade = findByIdAndClinicId(id, clinicId);
         gradeHorarioRepository.delete(grade);
+        gradeSemanalCache.invalidar(clinicId, grade.getMedico().getId());
+        ocupacaoAgendaCache.invalidarMedico(clinicId, grade.getMedico().getId());
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.GRADE_HORARIO);
     }
 
     @Override
@@ -68,6 +82,10 @@ public class GradeHorarioServiceImpl implements GradeHorarioService {
             grade.setMedico(medico);
             gradeHorarioRepository.save(grade);
         });
+
+        gradeSemanalCache.invalidar(clinicId, medicoId);
+        ocupacaoAgendaCache.invalidarMedico(clinicId, medicoId);
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.GRADE_HORARIO);
     }
 
     @Override
@@ -1,19 +1,38 @@
 package com.multiclinicas.api.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.multiclinicas.api.config.UsuarioAutenticado;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.Meter.MeterProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.Map;
 
 @Service
-public class JwtService {
+public class JwtService implements MeterBinder {
 
     @Value("${api.security.token.secret:mySecretKeyWithAtLeast32CharactersLongToEnsureHS256Algorithm}")
     private String secretKey;
@@ -21,6 +40,31 @@ public class JwtService {
     @Value("${api.security.token.expiration:86400000}")
     private long jwtExpiration;
 
+    @Value("${api.security.token.cache.max-entries:10000}")
+    private long cacheMaxEntries;
+
+    @Value("${api.security.token.cache.ttl:PT5M}")
+    private Duration cacheTtl;
+
+    private SecretKey signInKey;
+    private JwtParser parser;
+    // Tokens já verificados, indexados pelo hash SHA-256 do token
+    private Cache<String, UsuarioAutenticado> tokensVerificados;
+    // Definido quando o Spring registra as métricas; nulo em testes unitários
+    private MeterProvider<Timer> verificacoes;
+
+    @PostConstruct
+    void init() {
+        byte[] keyBytes = Decoders.BASE64.decode(generateBase64Secret(secretKey));
+        this.signInKey = Keys.hmacShaKeyFor(keyBytes);
+        this.parser = Jwts.parser().verifyWith(signInKey).build();
+        this.tokensVerificados = Caffeine.newBuilder()
+                .maximumSize(cacheMaxEntries)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build();
+    }
+
     public String generateToken(Long userId, String role, Long clinicId) {
         Map<String, Object> extraClaims = new HashMap<>();
         extraClaims.put("userId", userId);
@@ -34,15 +78,10 @@ public class JwtService {
                 .subject(userId.toString())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtExpiration))
-                .signWith(getSignInKey(), Jwts.SIG.HS256)
+                .signWith(signInKey, Jwts.SIG.HS256)
                 .compact();
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(generateBase64Secret(secretKey));
-        return Keys.hmacShaKeyFor(keyBytes);
-    }
-    
     private String generateBase64Secret(String secret) {
         if (secret.length() < 32) {
             StringBuilder sb = new StringBuilder(secret);
@@ -54,48 +93,73 @@ public class JwtService {
         return java.util.Base64.getEncoder().encodeToString(secret.getBytes());
     }
 
-    public String extractUserId(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public String extractRole(String token) {
-        return extractAllClaims(token).get("role", String.class);
-    }
-
-    public Long extractClinicId(String token) {
-        Object clinicIdObj = extractAllClaims(token).get("clinicId");
-        if (clinicIdObj == null) {
-            return null;
+    /**
+     * Verifica a assinatura e a expiração do token uma única vez e devolve os
+     * dados do usuário. Tokens válidos ficam em cache até expirarem (ou até o TTL
+     * do cache), então requisições seguintes com o mesmo token não repetem a
+     * verificação.
+     *
+     * @throws JwtException se o token for inválido ou estiver expirado
+     */
+    public UsuarioAutenticado autenticar(String token) {
+        String chave = hash(token);
+        Instant agora = Instant.now();
+
+        UsuarioAutenticado usuario = tokensVerificados.getIfPresent(chave);
+        if (usuario != null) {
+            if (!usuario.isExpirado(agora)) {
+                return usuario;
+            }
+            tokensVerificados.invalidate(chave);
+            throw new ExpiredJwtException(null, null, "Token expirado");
         }
-        return Long.valueOf(clinicIdObj.toString());
-    }
 
-    public boolean isTokenValid(String token) {
+        long inicio = System.nanoTime();
+        String resultado = "invalido";
         try {
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            return false;
+            usuario = toUsuario(parser.parseSignedClaims(token).getPayload());
+            resultado = "valido";
+        } finally {
+            if (verificacoes != null) {
+                verificacoes.withTag("resultado", resultado).record(Duration.ofNanos(System.nanoTime() - inicio));
+            }
         }
+        tokensVerificados.put(chave, usuario);
+        return usuario;
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    @Override
+    public void bindTo(@NonNull MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, tokensVerificados, "tokens-jwt");
+        this.verificacoes = Timer.builder("auth.jwt.verificacao")
+                .description("Verificação de assinatura de tokens fora do cache")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(1))
+                .withRegistry(registry);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
+    private static UsuarioAutenticado toUsuario(Claims claims) {
+        if (claims.getSubject() == null || claims.getExpiration() == null) {
+            throw new JwtException("Token sem subject ou expiração");
+        }
+
+        Object clinicIdObj = claims.get("clinicId");
+        Long clinicId = clinicIdObj == null ? null : Long.valueOf(clinicIdObj.toString());
 
-    private <T> T extractClaim(String token, java.util.function.Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
+        return new UsuarioAutenticado(
+                Long.valueOf(claims.getSubject()),
+                claims.get("role", String.class),
+                clinicId,
+                claims.getExpiration().toInstant());
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
     }
 }
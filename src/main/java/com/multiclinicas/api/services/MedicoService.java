@@ -9,8 +9,6 @@ public interface MedicoService {
 	
 	List<Medico> findAllByClinicId(Long clinicId);
 	
-	List<Medico> findAllActiveByClinicId(Long clinicId);
-	
 	Medico findByIdAndClinicId(Long id, Long clinicId);
 	
 	Medico create(Long clinicId, Medico medico, Set<Long> especialidadeIds);
@@ -8,6 +8,12 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.stream.Collectors;
 
+import com.multiclinicas.api.agenda.OcupacaoAgendaCache;
+import com.multiclinicas.api.catalogo.CatalogoClinica;
+import com.multiclinicas.api.catalogo.ListaCatalogo;
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
+import com.multiclinicas.api.dtos.EspecialidadeDTO;
 import com.multiclinicas.api.exceptions.ResourceConflictException;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
 import com.multiclinicas.api.models.Medico;
@@ -26,6 +32,9 @@ public class MedicoServiceImpl implements MedicoService {
     private final MedicoRepository medicoRepository;
     private final ClinicaRepository clinicaRepository;
     private final EspecialidadeRepository especialidadeRepository;
+    private final OcupacaoAgendaCache ocupacaoAgendaCache;
+    private final CatalogoClinica catalogoClinica;
+    private final VersoesCatalogo versoesCatalogo;
     private Medico medicoExistente;
 
     @Override
@@ -34,12 +43,6 @@ public class MedicoServiceImpl implements MedicoService {
         return medicoRepository.findAllByClinicaId(clinicId);
     }
 
-    @Override
-    @Transactional(readOnly = true)
-    public List<Medico> findAllActiveByClinicId(Long clinicId) {
-        return medicoRepository.findAllByClinicaIdAndAtivoTrue(clinicId);
-    }
-
     @Override
     @Transactional(readOnly = true)
     public Medico findByIdAndClinicId(Long id, Long clinicId) {
@@ -58,10 +61,12 @@ public class MedicoServiceImpl implements MedicoService {
                 .orElseThrow(() -> new ResourceNotFoundException("Não foi possível encontrar a clínica."));
         medico.setClinica(clinica);
 
-        Set<Especialidade> especialidades = getEspecialidadesByIds(especialidadesIds, clinicId);
+        Set<Especialidade> especialidades = getEspecialidadesByIds(especialidadesIds, clinica);
         medico.setEspecialidades(especialidades);
 
-        return medicoRepository.save(medico);
+        Medico medicoSalvo = medicoRepository.save(medico);
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.MEDICOS);
+        return medicoSalvo;
 
     }
 
@@ -76,11 +81,14 @@ public class MedicoServiceImpl implements MedicoService {
         medicoExistente.setAtivo(medicoAtualizado.getAtivo());
         medicoExistente.setDuracaoConsulta(medicoAtualizado.getDuracaoConsulta());
 
-        Set<Especialidade> novasEspecialidades = getEspecialidadesByIds(especialidadeIds, clinicId);
+        Set<Especialidade> novasEspecialidades = getEspecialidadesByIds(especialidadeIds, medicoExistente.getClinica());
         medicoExistente.getEspecialidades().clear();
         medicoExistente.getEspecialidades().addAll(novasEspecialidades);
 
-        return medicoRepository.save(medicoExistente);
+        Medico medicoSalvo = medicoRepository.save(medicoExistente);
+        ocupacaoAgendaCache.invalidarMedico(clinicId, id);
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.MEDICOS);
+        return medicoSalvo;
     }
 
     @Override
@@ -88,14 +96,27 @@ public class MedicoServiceImpl implements MedicoService {
     public void delete(Long id, Long clinicId) {
         Medico medicoExistente = findByIdAndClinicId(id, clinicId);
         medicoRepository.delete(medicoExistente);
+        ocupacaoAgendaCache.invalidarMedico(clinicId, id);
+        // A grade do médico é removida junto
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.MEDICOS, RecursoCatalogo.GRADE_HORARIO);
     }
 
-    private Set<Especialidade> getEspecialidadesByIds(Set<Long> ids, Long clinicId) {
+    // Ids de outras clínicas são ignorados. O catálogo da clínica filtra os ids
+    // sem consultar o banco; as entidades associadas ao médico são as
+    // gerenciadas, lidas numa única consulta (uma especialidade removida desde
+    // a última leitura do catálogo simplesmente não volta)
+    private Set<Especialidade> getEspecialidadesByIds(Set<Long> ids, Clinica clinica) {
         if (ids == null || ids.isEmpty()) {
             return Set.of();
         }
-        return especialidadeRepository.findAllById(ids).stream()
-                .filter(e -> e.getClinica().getId().equals(clinicId))
+        ListaCatalogo<EspecialidadeDTO> catalogo = catalogoClinica.especialidades(clinica.getId());
+        List<Long> daClinica = ids.stream()
+                .filter(id -> catalogo.buscar(id).isPresent())
+                .toList();
+        if (daClinica.isEmpty()) {
+            return Set.of();
+        }
+        return especialidadeRepository.findAllById(daClinica).stream()
                 .collect(Collectors.toSet());
     }
 
@@ -1,5 +1,7 @@
 package com.multiclinicas.api.services;
 
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
 import com.multiclinicas.api.models.Clinica;
 import com.multiclinicas.api.models.PlanoSaude;
@@ -15,10 +17,13 @@ public class PlanoSaudeServiceImpl implements PlanoSaudeService {
 
     private final PlanoSaudeRepository planoSaudeRepository;
     private final ClinicaRepository clinicaRepository;
+    private final VersoesCatalogo versoesCatalogo;
 
-    public PlanoSaudeServiceImpl(PlanoSaudeRepository planoSaudeRepository, ClinicaRepository clinicaRepository) {
+    public PlanoSaudeServiceImpl(PlanoSaudeRepository planoSaudeRepository, ClinicaRepository clinicaRepository,
+            VersoesCatalogo versoesCatalogo) {
         this.planoSaudeRepository = planoSaudeRepository;
         this.clinicaRepository = clinicaRepository;
+        this.versoesCatalogo = versoesCatalogo;
     }
 
     @Override
@@ -42,7 +47,9 @@ public class PlanoSaudeServiceImpl implements PlanoSaudeService {
                 .orElseThrow(() -> new ResourceNotFoundException("Clínica não encontrada"));
 
         planoSaude.setClinica(clinica);
-        return planoSaudeRepository.save(planoSaude);
+        PlanoSaude planoSalvo = planoSaudeRepository.save(planoSaude);
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.PLANOS_SAUDE);
+        return planoSalvo;
     }
 
     @Override
@@ -53,7 +60,9 @@ public class PlanoSaudeServiceImpl implements PlanoSaudeService {
         planoExistente.setNome(planoSaudeAtualizado.getNome());
         planoExistente.setAtivo(planoSaudeAtualizado.getAtivo());
 
-        return planoSaudeRepository.save(planoExistente);
+        PlanoSaude planoSalvo = planoSaudeRepository.save(planoExistente);
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.PLANOS_SAUDE);
+        return planoSalvo;
     }
 
     @Override
@@ -61,5 +70,6 @@ public class PlanoSaudeServiceImpl implements PlanoSaudeService {
     public void delete(Long id, Long clinicId) {
         PlanoSaude planoExistente = findByIdAndClinicId(id, clinicId);
         planoSaudeRepository.delete(planoExistente);
+        versoesCatalogo.incrementar(clinicId, RecursoCatalogo.PLANOS_SAUDE);
     }
 }
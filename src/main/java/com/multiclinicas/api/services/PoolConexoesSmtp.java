@@ -0,0 +1,87 @@
+package com.multiclinicas.api.services;
+
+import java.time.Duration;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+
+/**
+ * Conexões SMTP reaproveitadas entre envios. No máximo {@code maximo} conexões
+ * ficam emprestadas ao mesmo tempo; quem pede além disso espera até
+ * {@code espera}. Conexões ociosas derrubadas pelo servidor são descartadas no
+ * próximo empréstimo (o isConnected do SMTP faz um NOOP).
+ */
+class PoolConexoesSmtp {
+
+    private final JavaMailSenderImpl mailSender;
+    private final LinkedBlockingQueue<Transport> livres = new LinkedBlockingQueue<>();
+    private final Semaphore vagas;
+    private final Duration espera;
+
+    PoolConexoesSmtp(JavaMailSenderImpl mailSender, int maximo, Duration espera) {
+        this.mailSender = mailSender;
+        this.vagas = new Semaphore(maximo);
+        this.espera = espera;
+    }
+
+    Transport emprestar() throws MessagingException, InterruptedException {
+        if (!vagas.tryAcquire(espera.toMillis(), TimeUnit.MILLISECONDS)) {
+            throw new MessagingException("Nenhuma conexão SMTP livre após " + espera + ".");
+        }
+        try {
+            Transport transporte;
+            while ((transporte = livres.poll()) != null) {
+                if (transporte.isConnected()) {
+                    return transporte;
+                }
+                fechar(transporte);
+            }
+            return conectar();
+        } catch (MessagingException | RuntimeException e) {
+            vagas.release();
+            throw e;
+        }
+    }
+
+    void devolver(Transport transporte) {
+        livres.offer(transporte);
+        vagas.release();
+    }
+
+    // Para conexões que falharam no meio de um envio
+    void descartar(Transport transporte) {
+        fechar(transporte);
+        vagas.release();
+    }
+
+    void fechar() {
+        Transport transporte;
+        while ((transporte = livres.poll()) != null) {
+            fechar(transporte);
+        }
+    }
+
+    private Transport conectar() throws MessagingException {
+        String protocolo = mailSender.getProtocol() != null ? mailSender.getProtocol() : "smtp";
+        Transport transporte = mailSender.getSession().getTransport(protocolo);
+        String usuario = mailSender.getUsername();
+        String senha = mailSender.getPassword();
+        transporte.connect(mailSender.getHost(), mailSender.getPort(),
+                usuario == null || usuario.isEmpty() ? null : usuario,
+                senha == null || senha.isEmpty() ? null : senha);
+        return transporte;
+    }
+
+    private static void fechar(Transport transporte) {
+        try {
+            transporte.close();
+        } catch (MessagingException e) {
+            // Conexão já perdida: nada a fazer
+        }
+    }
+}
@@ -0,0 +1,36 @@
+-- Migration V4: Índices compostos para as consultas de agenda
+-- Os índices de coluna única da V1 obrigavam o banco a escolher um deles e
+-- filtrar o restante das condições linha a linha.
+
+-- =====================================================
+-- 1. AGENDAMENTOS
+-- =====================================================
+
+-- 1.1 Conflito de horário e horários ocupados (existsConflict,
+-- findIntervalosOcupados): igualdade em clínica/médico/data, faixa de horário e
+-- status no próprio índice, sem precisar ler a tabela
+CREATE INDEX idx_agendamentos_conflito
+    ON agendamentos(clinic_id, medico_id, data_consulta, hora_inicio, hora_fim, status);
+
+-- 1.2 Job de lembretes (findByDataConsultaAndStatus)
+CREATE INDEX idx_agendamentos_data_status ON agendamentos(data_consulta, status);
+
+-- 1.3 Listagem paginada da clínica, na mesma ordem do cursor
+CREATE INDEX idx_agendamentos_clinic_data_hora ON agendamentos(clinic_id, data_consulta, hora_inicio, id);
+
+-- 1.4 Agendamentos do paciente, já ordenados por data e hora
+CREATE INDEX idx_agendamentos_paciente_data ON agendamentos(paciente_id, data_consulta, hora_inicio);
+
+-- 1.5 Índices substituídos pelos compostos acima. Os de clinic_id, paciente_id
+-- e medico_id continuam porque atendem às chaves estrangeiras.
+DROP INDEX idx_agendamentos_data_consulta;
+DROP INDEX idx_agendamentos_status;
+
+-- =====================================================
+-- 2. GRADES_HORARIO
+-- =====================================================
+
+-- 2.1 Grade de um médico em um dia da semana (findAllByMedicoIdAndDiaSemana)
+CREATE INDEX idx_grades_medico_dia ON grades_horario(medico_id, dia_semana);
+
+DROP INDEX idx_grades_dia_semana;
@@ -0,0 +1,30 @@
+-- Migration V6: Controle de execução do job de lembretes
+-- Permite retomar o envio após uma queda e evita que várias instâncias da API
+-- enviem os mesmos lembretes.
+
+-- =====================================================
+-- 1. LEMBRETES_ENVIADOS
+-- =====================================================
+
+-- 1.1 Um registro por agendamento cujo lembrete foi aceito pelo servidor SMTP
+CREATE TABLE lembretes_enviados (
+    agendamento_id BIGINT PRIMARY KEY,
+    enviado_em TIMESTAMP NOT NULL,
+
+    CONSTRAINT fk_lembretes_enviados_agendamento FOREIGN KEY (agendamento_id)
+        REFERENCES agendamentos(id) ON DELETE CASCADE
+);
+
+-- =====================================================
+-- 2. EXECUCOES_LEMBRETE
+-- =====================================================
+
+-- 2.1 Uma execução por data de consulta: o último id já processado
+-- (checkpoint) e a instância que detém a execução até lease_ate
+CREATE TABLE execucoes_lembrete (
+    data_consulta DATE PRIMARY KEY,
+    ultimo_id BIGINT NOT NULL DEFAULT 0,
+    dono VARCHAR(100),
+    lease_ate TIMESTAMP,
+    concluido_em TIMESTAMP
+);
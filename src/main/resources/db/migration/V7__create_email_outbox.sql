@@ -0,0 +1,26 @@
+-- Migration V7: Caixa de saída de e-mails
+-- Os e-mails são gravados na mesma transação da operação que os gera e
+-- enviados depois por um job, com novas tentativas em caso de falha.
+
+-- =====================================================
+-- 1. EMAILS_PENDENTES
+-- =====================================================
+
+CREATE TABLE emails_pendentes (
+    id BIGSERIAL PRIMARY KEY,
+    clinic_id BIGINT NOT NULL,
+    destinatario VARCHAR(255) NOT NULL,
+    assunto VARCHAR(255) NOT NULL,
+    mensagem TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDENTE',
+    tentativas INTEGER NOT NULL DEFAULT 0,
+    proxima_tentativa TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    enviado_em TIMESTAMP,
+
+    CONSTRAINT fk_emails_pendentes_clinica FOREIGN KEY (clinic_id)
+        REFERENCES clinicas(id) ON DELETE CASCADE
+);
+
+-- 1.1 Busca do job: pendentes cuja próxima tentativa já venceu
+CREATE INDEX idx_emails_pendentes_status_tentativa ON emails_pendentes(status, proxima_tentativa);
@@ -0,0 +1,19 @@
+-- Migration V8: Modelos de e-mail por clínica
+-- Substituem, para a clínica, o texto padrão de cada tipo de e-mail. Variáveis
+-- disponíveis: {{paciente}}, {{medico}}, {{data}}, {{hora}} e {{clinica}}.
+
+-- =====================================================
+-- 1. MODELOS_EMAIL
+-- =====================================================
+
+CREATE TABLE modelos_email (
+    id BIGSERIAL PRIMARY KEY,
+    clinic_id BIGINT NOT NULL,
+    tipo VARCHAR(40) NOT NULL,
+    assunto VARCHAR(255) NOT NULL,
+    corpo TEXT NOT NULL,
+
+    CONSTRAINT fk_modelos_email_clinica FOREIGN KEY (clinic_id)
+        REFERENCES clinicas(id) ON DELETE CASCADE,
+    CONSTRAINT uk_modelos_email_clinica_tipo UNIQUE (clinic_id, tipo)
+);
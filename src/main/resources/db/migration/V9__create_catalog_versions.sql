@@ -0,0 +1,18 @@
+-- Migration V9: Versão dos dados de referência de cada clínica
+-- Incrementada na mesma transação de cada escrita em médicos, especialidades,
+-- planos de saúde e grade de horários. Serve de ETag das listagens e indica
+-- às instâncias da API quando o catálogo em memória ficou desatualizado.
+
+-- =====================================================
+-- 1. VERSOES_CATALOGO
+-- =====================================================
+
+CREATE TABLE versoes_catalogo (
+    clinic_id BIGINT NOT NULL,
+    recurso VARCHAR(30) NOT NULL,
+    versao BIGINT NOT NULL DEFAULT 0,
+
+    CONSTRAINT pk_versoes_catalogo PRIMARY KEY (clinic_id, recurso),
+    CONSTRAINT fk_versoes_catalogo_clinica FOREIGN KEY (clinic_id)
+        REFERENCES clinicas(id) ON DELETE CASCADE
+);
@@ -0,0 +1,113 @@
+package com.multiclinicas.api.agenda;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.multiclinicas.api.exceptions.ResourceConflictException;
+
+class CoordenadorAgendaTest {
+
+    private static final LocalDate DATA = LocalDate.of(2030, 1, 7);
+
+    private CoordenadorAgenda coordenador;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:coordenador");
+        coordenador = new CoordenadorAgenda(dataSource, 64, Duration.ofMillis(100));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    // Simula uma transação em outra thread: trava e finaliza em seguida
+    private CompletableFuture<Void> bloquearEmOutraTransacao(Long medicoId) {
+        return CompletableFuture.runAsync(() -> {
+            TransactionSynchronizationManager.initSynchronization();
+            try {
+                coordenador.bloquear(1L, medicoId, DATA);
+                finalizarTransacao();
+            } finally {
+                TransactionSynchronizationManager.clearSynchronization();
+            }
+        });
+    }
+
+    private static void finalizarTransacao() {
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    @Test
+    @DisplayName("Deve manter a agenda do médico travada até o fim da transação")
+    void shouldHoldLockUntilTransactionCompletes() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        coordenador.bloquear(1L, 10L, DATA);
+
+        assertThatThrownBy(() -> bloquearEmOutraTransacao(10L).get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ResourceConflictException.class);
+
+        finalizarTransacao();
+
+        bloquearEmOutraTransacao(10L).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Não deve bloquear a agenda de outro médico")
+    void shouldNotBlockOtherDoctors() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        coordenador.bloquear(1L, 10L, DATA);
+
+        bloquearEmOutraTransacao(11L).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Deve travar todos os dias do lote até o fim da transação")
+    void shouldLockEveryDayOfBatch() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        coordenador.bloquearDias(1L, 10L, List.of(DATA.plusWeeks(1), DATA, DATA.plusWeeks(1)));
+
+        assertThatThrownBy(() -> bloquearEmOutraTransacao(10L).get(1, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(ResourceConflictException.class);
+
+        finalizarTransacao();
+
+        bloquearEmOutraTransacao(10L).get(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    @DisplayName("Deve incluir a clínica na chave do lock distribuído")
+    void shouldIncludeClinicInDistributedLockKey() {
+        assertThat(CoordenadorAgenda.chaveMedico(1L, 10L)).isNotEqualTo(CoordenadorAgenda.chaveMedico(2L, 10L));
+        assertThat(CoordenadorAgenda.chaveMedico(1L, 10L)).isEqualTo(CoordenadorAgenda.chaveMedico(1L, 10L));
+    }
+
+    @Test
+    @DisplayName("Deve exigir uma transação ativa")
+    void shouldRequireTransaction() {
+        assertThatThrownBy(() -> coordenador.bloquear(1L, 10L, DATA))
+                .isInstanceOf(IllegalStateException.class);
+
+        TransactionSynchronizationManager.initSynchronization();
+        coordenador.bloquear(1L, 10L, DATA);
+    }
+}
@@ -0,0 +1,121 @@
+package com.multiclinicas.api.agenda;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.multiclinicas.api.repositories.GradeHorarioRepository;
+
+@ExtendWith(MockitoExtension.class)
+class GradeSemanalCacheTest {
+
+    private static final Long CLINIC_ID = 1L;
+    private static final Long MEDICO_ID = 10L;
+
+    @Mock
+    private GradeHorarioRepository gradeHorarioRepository;
+
+    private GradeSemanalCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new GradeSemanalCache(gradeHorarioRepository, 100, Duration.ofHours(1));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static PeriodoGrade periodo(Long medicoId, int dia, int inicio, int fim) {
+        return new PeriodoGrade(medicoId, dia, LocalTime.of(inicio, 0), LocalTime.of(fim, 0));
+    }
+
+    @Test
+    @DisplayName("Deve ler a semana inteira uma vez e separar os períodos por dia, em ordem")
+    void shouldLoadWholeWeekOnce() {
+        when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID))).thenReturn(List.of(
+                periodo(MEDICO_ID, 1, 14, 18),
+                periodo(MEDICO_ID, 1, 8, 12),
+                periodo(MEDICO_ID, 0, 8, 10)));
+
+        GradeSemanal grade = cache.obter(CLINIC_ID, MEDICO_ID);
+        cache.obter(CLINIC_ID, MEDICO_ID);
+
+        assertThat(grade.doDia(DayOfWeek.MONDAY)).extracting(PeriodoGrade::horaInicio)
+                .containsExactly(LocalTime.of(8, 0), LocalTime.of(14, 0));
+        assertThat(grade.doDia(DayOfWeek.SUNDAY)).hasSize(1);
+        assertThat(grade.doDia(DayOfWeek.TUESDAY)).isEmpty();
+        verify(gradeHorarioRepository, times(1)).findPeriodosByMedicoIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Deve recarregar a grade só depois do commit da alteração")
+    void shouldInvalidateAfterCommit() {
+        when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                .thenReturn(List.of(periodo(MEDICO_ID, 1, 8, 12)))
+                .thenReturn(List.of(periodo(MEDICO_ID, 2, 8, 12)));
+        cache.obter(CLINIC_ID, MEDICO_ID);
+
+        TransactionSynchronizationManager.initSynchronization();
+        cache.invalidar(CLINIC_ID, MEDICO_ID);
+        assertThat(cache.obter(CLINIC_ID, MEDICO_ID).doDia(DayOfWeek.MONDAY)).hasSize(1);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        GradeSemanal recarregada = cache.obter(CLINIC_ID, MEDICO_ID);
+        assertThat(recarregada.doDia(DayOfWeek.MONDAY)).isEmpty();
+        assertThat(recarregada.doDia(DayOfWeek.TUESDAY)).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Deve buscar numa única consulta só os médicos que não estão em cache")
+    void shouldBulkLoadMissingDoctors() {
+        Long outroMedicoId = 11L;
+        Long semGradeId = 12L;
+        when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                .thenReturn(List.of(periodo(MEDICO_ID, 1, 8, 12)));
+        when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(outroMedicoId, semGradeId)))
+                .thenReturn(List.of(periodo(outroMedicoId, 3, 8, 12)));
+        cache.obter(CLINIC_ID, MEDICO_ID);
+
+        Map<Long, GradeSemanal> grades = cache.obterTodas(CLINIC_ID, List.of(MEDICO_ID, outroMedicoId, semGradeId));
+        cache.obterTodas(CLINIC_ID, List.of(MEDICO_ID, outroMedicoId, semGradeId));
+
+        assertThat(grades).containsOnlyKeys(MEDICO_ID, outroMedicoId, semGradeId);
+        assertThat(grades.get(outroMedicoId).doDia(DayOfWeek.WEDNESDAY)).hasSize(1);
+        assertThat(grades.get(semGradeId).doDia(DayOfWeek.MONDAY)).isEmpty();
+        verify(gradeHorarioRepository, times(2)).findPeriodosByMedicoIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Não deve compartilhar a grade entre clínicas")
+    void shouldKeepTenantsApart() {
+        when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID))).thenReturn(List.of());
+
+        cache.obter(CLINIC_ID, MEDICO_ID);
+        cache.obter(2L, MEDICO_ID);
+
+        verify(gradeHorarioRepository, times(2)).findPeriodosByMedicoIds(anyCollection());
+    }
+}
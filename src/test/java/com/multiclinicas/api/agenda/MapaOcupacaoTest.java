@@ -0,0 +1,98 @@
+package com.multiclinicas.api.agenda;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class MapaOcupacaoTest {
+
+    private static PeriodoGrade periodo(int horaInicio, int minutoInicio, int horaFim, int minutoFim) {
+        return new PeriodoGrade(1L, 1, LocalTime.of(horaInicio, minutoInicio), LocalTime.of(horaFim, minutoFim));
+    }
+
+    @Test
+    @DisplayName("Deve gerar os horários da grade na duração da consulta")
+    void shouldListSlotsFromGrade() {
+        MapaOcupacao mapa = new MapaOcupacao(true, 30, List.of(periodo(8, 0, 10, 0)));
+
+        assertThat(mapa.horariosLivres(null)).containsExactly(
+                LocalTime.of(8, 0), LocalTime.of(8, 30), LocalTime.of(9, 0), LocalTime.of(9, 30));
+    }
+
+    @Test
+    @DisplayName("Deve descartar o horário do minuto em curso quando o limite tem segundos")
+    void shouldSkipCurrentMinuteWhenLimitHasSeconds() {
+        MapaOcupacao mapa = new MapaOcupacao(true, 30, List.of(periodo(10, 0, 11, 0)));
+
+        assertThat(mapa.horariosLivres(LocalTime.of(10, 0, 30))).containsExactly(LocalTime.of(10, 30));
+        assertThat(mapa.horariosLivres(LocalTime.of(10, 0))).containsExactly(LocalTime.of(10, 0), LocalTime.of(10, 30));
+    }
+
+    @Test
+    @DisplayName("Deve ordenar horários de períodos cadastrados fora de ordem")
+    void shouldSortSlotsFromUnorderedPeriods() {
+        MapaOcupacao mapa = new MapaOcupacao(true, 60, List.of(periodo(14, 0, 16, 0), periodo(8, 0, 10, 0)));
+
+        assertThat(mapa.horariosLivres(null)).containsExactly(
+                LocalTime.of(8, 0), LocalTime.of(9, 0), LocalTime.of(14, 0), LocalTime.of(15, 0));
+    }
+
+    @Test
+    @DisplayName("Deve bloquear slots sobrepostos por agendamento fora do alinhamento da grade")
+    void shouldBlockOverlappingSlots() {
+        MapaOcupacao mapa = new MapaOcupacao(true, 30, List.of(periodo(8, 0, 10, 0)));
+
+        mapa.marcar(LocalTime.of(8, 45), LocalTime.of(9, 15));
+
+        assertThat(mapa.horariosLivres(null)).containsExactly(LocalTime.of(8, 0), LocalTime.of(9, 30));
+    }
+
+    @Test
+    @DisplayName("Deve marcar e liberar intervalos que cruzam o limite de uma palavra do bitmap")
+    void shouldHandleWordBoundaries() {
+        MapaOcupacao mapa = new MapaOcupacao(true, 30, List.of(periodo(0, 0, 23, 59)));
+        // 01:00 = minuto 60, o intervalo ocupa as duas primeiras palavras
+        LocalTime inicio = LocalTime.of(0, 50);
+        LocalTime fim = LocalTime.of(1, 20);
+
+        mapa.marcar(inicio, fim);
+        assertThat(mapa.isLivre(LocalTime.of(0, 30), LocalTime.of(0, 51))).isFalse();
+        assertThat(mapa.isLivre(LocalTime.of(1, 19), LocalTime.of(1, 30))).isFalse();
+        assertThat(mapa.isLivre(LocalTime.of(1, 20), LocalTime.of(1, 50))).isTrue();
+
+        mapa.liberar(inicio, fim);
+        assertThat(mapa.isLivre(LocalTime.of(0, 0), LocalTime.of(2, 0))).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve considerar agendamento que termina à meia-noite até o fim do dia")
+    void shouldHandleMidnight() {
+        MapaOcupacao mapa = new MapaOcupacao(true, 30, List.of(periodo(22, 0, 23, 59)));
+
+        mapa.marcar(LocalTime.of(23, 30), LocalTime.MIDNIGHT);
+
+        assertThat(mapa.isLivre(LocalTime.of(23, 45), LocalTime.of(23, 59))).isFalse();
+        assertThat(mapa.horariosLivres(null)).containsExactly(
+                LocalTime.of(22, 0), LocalTime.of(22, 30), LocalTime.of(23, 0));
+    }
+
+    @Test
+    @DisplayName("Deve ignorar horários anteriores ao limite informado")
+    void shouldFilterPastSlots() {
+        MapaOcupacao mapa = new MapaOcupacao(true, 30, List.of(periodo(8, 0, 10, 0)));
+
+        assertThat(mapa.horariosLivres(LocalTime.of(8, 40))).containsExactly(LocalTime.of(9, 0), LocalTime.of(9, 30));
+    }
+
+    @Test
+    @DisplayName("Deve retornar vazio para médico inativo")
+    void shouldReturnEmptyForInactiveMedico() {
+        MapaOcupacao mapa = new MapaOcupacao(false, 30, List.of(periodo(8, 0, 10, 0)));
+
+        assertThat(mapa.horariosLivres(null)).isEmpty();
+    }
+}
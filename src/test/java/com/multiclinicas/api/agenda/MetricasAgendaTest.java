@@ -0,0 +1,50 @@
+package com.multiclinicas.api.agenda;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.multiclinicas.api.exceptions.BusinessException;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class MetricasAgendaTest {
+
+    private SimpleMeterRegistry registry;
+    private MetricasAgenda metricas;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        metricas = new MetricasAgenda(registry, 2);
+    }
+
+    @Test
+    @DisplayName("Deve agregar as clínicas acima do limite na tag 'outras'")
+    void shouldCapClinicTagCardinality() {
+        for (long clinicId = 1; clinicId <= 5; clinicId++) {
+            metricas.registrar(MetricasAgenda.DISPONIBILIDADE, clinicId, () -> null);
+        }
+
+        assertThat(registry.find("agenda.operacao").timers())
+                .extracting(t -> t.getId().getTag("clinica"))
+                .containsExactlyInAnyOrder("1", "2", MetricasAgenda.OUTRAS_CLINICAS);
+        assertThat(registry.get("agenda.operacao").tag("clinica", MetricasAgenda.OUTRAS_CLINICAS).timer().count())
+                .isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("Deve registrar o resultado das operações recusadas por regra de negócio")
+    void shouldTagRejectedOperations() {
+        assertThatThrownBy(() -> metricas.registrar(MetricasAgenda.CANCELAR, 1L, () -> {
+            throw new BusinessException("Este agendamento já foi cancelado.");
+        })).isInstanceOf(BusinessException.class);
+
+        assertThat(registry.get("agenda.operacao").tags("operacao", "cancelar", "resultado", "rejeitado")
+                .timer().count()).isEqualTo(1L);
+        assertThat(registry.find("agenda.conflitos").counters()).isEmpty();
+    }
+}
@@ -0,0 +1,111 @@
+package com.multiclinicas.api.agenda;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.multiclinicas.api.models.Agendamento;
+import com.multiclinicas.api.models.Clinica;
+import com.multiclinicas.api.models.Medico;
+import com.multiclinicas.api.repositories.AgendamentoRepository;
+import com.multiclinicas.api.repositories.GradeHorarioRepository;
+import com.multiclinicas.api.repositories.MedicoRepository;
+
+@ExtendWith(MockitoExtension.class)
+class OcupacaoAgendaCacheTest {
+
+    private static final Long CLINIC_ID = 1L;
+    private static final Long MEDICO_ID = 10L;
+    private static final LocalDate SEGUNDA = LocalDate.of(2030, 1, 7);
+
+    @Mock
+    private MedicoRepository medicoRepository;
+    @Mock
+    private GradeHorarioRepository gradeHorarioRepository;
+    @Mock
+    private AgendamentoRepository agendamentoRepository;
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OcupacaoAgendaCache cache;
+    private Medico medico;
+
+    @BeforeEach
+    void setUp() {
+        cache = new OcupacaoAgendaCache(medicoRepository,
+                new GradeSemanalCache(gradeHorarioRepository, 100, Duration.ofHours(1)),
+                agendamentoRepository, transactionManager, 100, Duration.ofHours(1));
+
+        Clinica clinica = new Clinica();
+        clinica.setId(CLINIC_ID);
+        medico = new Medico();
+        medico.setId(MEDICO_ID);
+        medico.setClinica(clinica);
+        medico.setAtivo(true);
+        medico.setDuracaoConsulta(30);
+
+        when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
+        when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID))).thenReturn(List.of(
+                new PeriodoGrade(MEDICO_ID, 1, LocalTime.of(8, 0), LocalTime.of(10, 0))));
+    }
+
+    private Agendamento agendamento(LocalTime inicio) {
+        Agendamento agendamento = new Agendamento();
+        agendamento.setClinica(medico.getClinica());
+        agendamento.setMedico(medico);
+        agendamento.setDataConsulta(SEGUNDA);
+        agendamento.setHoraInicio(inicio);
+        agendamento.setHoraFim(inicio.plusMinutes(30));
+        return agendamento;
+    }
+
+    @Test
+    @DisplayName("Deve descartar o mapa carregado quando um agendamento é confirmado durante a carga")
+    void shouldDiscardMapLoadedDuringCommit() {
+        // A leitura do banco acontece antes do commit; o afterCommit chega antes de o mapa ir para o cache
+        when(agendamentoRepository.findIntervalosOcupados(eq(CLINIC_ID), anyList(), any(), any()))
+                .thenAnswer(inv -> {
+                    cache.registrar(agendamento(LocalTime.of(8, 0)));
+                    return List.of();
+                })
+                .thenReturn(List.of(new IntervaloOcupado(MEDICO_ID, SEGUNDA, LocalTime.of(8, 0),
+                        LocalTime.of(8, 30))));
+
+        cache.obter(CLINIC_ID, MEDICO_ID, SEGUNDA);
+        MapaOcupacao mapa = cache.obter(CLINIC_ID, MEDICO_ID, SEGUNDA);
+
+        assertThat(mapa.isLivre(LocalTime.of(8, 0), LocalTime.of(8, 30))).isFalse();
+        verify(agendamentoRepository, times(2)).findIntervalosOcupados(eq(CLINIC_ID), anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve manter o mapa em cache e aplicar as alterações confirmadas depois da carga")
+    void shouldPatchCachedMapAfterLoad() {
+        when(agendamentoRepository.findIntervalosOcupados(eq(CLINIC_ID), anyList(), any(), any()))
+                .thenReturn(List.of());
+
+        cache.obter(CLINIC_ID, MEDICO_ID, SEGUNDA);
+        cache.registrar(agendamento(LocalTime.of(9, 0)));
+        MapaOcupacao mapa = cache.obter(CLINIC_ID, MEDICO_ID, SEGUNDA);
+
+        assertThat(mapa.isLivre(LocalTime.of(9, 0), LocalTime.of(9, 30))).isFalse();
+        verify(agendamentoRepository, times(1)).findIntervalosOcupados(eq(CLINIC_ID), anyList(), any(), any());
+    }
+}
@@ -0,0 +1,110 @@
+package com.multiclinicas.api.catalogo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.multiclinicas.api.mappers.EspecialidadeMapper;
+import com.multiclinicas.api.mappers.MedicoMapper;
+import com.multiclinicas.api.mappers.PlanoSaudeMapper;
+import com.multiclinicas.api.models.Clinica;
+import com.multiclinicas.api.models.PlanoSaude;
+import com.multiclinicas.api.repositories.EspecialidadeRepository;
+import com.multiclinicas.api.repositories.MedicoRepository;
+import com.multiclinicas.api.repositories.PlanoSaudeRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CatalogoClinicaTest {
+
+    private static final Long CLINIC_ID = 1L;
+
+    @Mock
+    private EspecialidadeRepository especialidadeRepository;
+
+    @Mock
+    private PlanoSaudeRepository planoSaudeRepository;
+
+    @Mock
+    private MedicoRepository medicoRepository;
+
+    @Mock
+    private VersoesCatalogo versoesCatalogo;
+
+    private Clinica clinica;
+
+    @BeforeEach
+    void setUp() {
+        clinica = new Clinica();
+        clinica.setId(CLINIC_ID);
+    }
+
+    private CatalogoClinica catalogo(int maxItensPorClinica) {
+        return new CatalogoClinica(especialidadeRepository, planoSaudeRepository, medicoRepository,
+                new EspecialidadeMapper(), new PlanoSaudeMapper(), new MedicoMapper(), versoesCatalogo,
+                100, maxItensPorClinica, Duration.ofMinutes(10));
+    }
+
+    private PlanoSaude plano(Long id, String nome, boolean ativo) {
+        return new PlanoSaude(id, clinica, nome, ativo, null);
+    }
+
+    @Test
+    @DisplayName("Deve ler os planos da clínica uma vez por versão e buscar por id em memória")
+    void shouldLoadOncePerVersion() {
+        CatalogoClinica catalogo = catalogo(100);
+        when(versoesCatalogo.atual(CLINIC_ID, RecursoCatalogo.PLANOS_SAUDE)).thenReturn(3L);
+        when(planoSaudeRepository.findByClinicaId(CLINIC_ID))
+                .thenReturn(List.of(plano(5L, "Unimed", true), plano(6L, "Amil", false)));
+
+        ListaCatalogo<?> primeira = catalogo.planosSaude(CLINIC_ID);
+        ListaCatalogo<?> segunda = catalogo.planosSaude(CLINIC_ID);
+
+        assertThat(segunda).isSameAs(primeira);
+        assertThat(primeira.etag()).isEqualTo("\"planos_saude-1-3\"");
+        assertThat(catalogo.planosSaude(CLINIC_ID).buscar(6L)).hasValueSatisfying(p -> assertThat(p.ativo()).isFalse());
+        assertThat(catalogo.planosSaude(CLINIC_ID).buscar(7L)).isEmpty();
+        verify(planoSaudeRepository, times(1)).findByClinicaId(CLINIC_ID);
+    }
+
+    @Test
+    @DisplayName("Deve recarregar a lista quando a versão da clínica mudar")
+    void shouldReloadWhenVersionChanges() {
+        CatalogoClinica catalogo = catalogo(100);
+        when(versoesCatalogo.atual(CLINIC_ID, RecursoCatalogo.PLANOS_SAUDE)).thenReturn(3L, 3L, 4L);
+        when(planoSaudeRepository.findByClinicaId(CLINIC_ID))
+                .thenReturn(List.of(plano(5L, "Unimed", true)))
+                .thenReturn(List.of(plano(5L, "Unimed", false)));
+
+        assertThat(catalogo.planosSaude(CLINIC_ID).buscar(5L)).hasValueSatisfying(p -> assertThat(p.ativo()).isTrue());
+        assertThat(catalogo.planosSaude(CLINIC_ID).versao()).isEqualTo(3L);
+
+        ListaCatalogo<?> recarregada = catalogo.planosSaude(CLINIC_ID);
+        assertThat(recarregada.versao()).isEqualTo(4L);
+        assertThat(recarregada.etag()).isEqualTo("\"planos_saude-1-4\"");
+        verify(planoSaudeRepository, times(2)).findByClinicaId(CLINIC_ID);
+    }
+
+    @Test
+    @DisplayName("Não deve guardar listas acima do limite por clínica")
+    void shouldNotCacheOversizedLists() {
+        CatalogoClinica catalogo = catalogo(1);
+        when(planoSaudeRepository.findByClinicaId(CLINIC_ID))
+                .thenReturn(List.of(plano(5L, "Unimed", true), plano(6L, "Amil", true)));
+
+        assertThat(catalogo.planosSaude(CLINIC_ID).itens()).hasSize(2);
+        assertThat(catalogo.planosSaude(CLINIC_ID).itens()).hasSize(2);
+
+        verify(planoSaudeRepository, times(2)).findByClinicaId(CLINIC_ID);
+    }
+}
@@ -0,0 +1,65 @@
+package com.multiclinicas.api.catalogo;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.multiclinicas.api.repositories.VersaoCatalogoRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class VersoesCatalogoTest {
+
+    private static final Long CLINIC_ID = 930L;
+
+    @Autowired
+    private VersaoCatalogoRepository versaoCatalogoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private VersoesCatalogo versoes;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("INSERT INTO clinicas (id, nome_fantasia, subdominio) VALUES (?, 'Clínica', 'clinica-930')",
+                CLINIC_ID);
+        versoes = new VersoesCatalogo(versaoCatalogoRepository, 100, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Deve começar na versão zero e incrementar só os recursos alterados")
+    void shouldIncrementOnlyChangedResources() {
+        assertThat(versoes.etag(CLINIC_ID, RecursoCatalogo.MEDICOS)).isEqualTo("\"medicos-930-0\"");
+
+        versoes.incrementar(CLINIC_ID, RecursoCatalogo.MEDICOS, RecursoCatalogo.ESPECIALIDADES);
+        versoes.incrementar(CLINIC_ID, RecursoCatalogo.MEDICOS);
+
+        assertThat(versaoCatalogoRepository.findVersao(CLINIC_ID, RecursoCatalogo.MEDICOS)).contains(2L);
+        assertThat(versaoCatalogoRepository.findVersao(CLINIC_ID, RecursoCatalogo.ESPECIALIDADES)).contains(1L);
+        assertThat(versaoCatalogoRepository.findVersao(CLINIC_ID, RecursoCatalogo.PLANOS_SAUDE)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve manter a versão em memória até o commit, enquanto outra instância lê a nova do banco")
+    void shouldKeepCachedVersionUntilCommit() {
+        assertThat(versoes.atual(CLINIC_ID, RecursoCatalogo.GRADE_HORARIO)).isZero();
+
+        versoes.incrementar(CLINIC_ID, RecursoCatalogo.GRADE_HORARIO);
+
+        // A transação do teste não é confirmada: a versão em memória continua valendo
+        assertThat(versoes.atual(CLINIC_ID, RecursoCatalogo.GRADE_HORARIO)).isZero();
+        VersoesCatalogo outraInstancia = new VersoesCatalogo(versaoCatalogoRepository, 100, Duration.ofMinutes(1));
+        assertThat(outraInstancia.etag(CLINIC_ID, RecursoCatalogo.GRADE_HORARIO)).isEqualTo("\"grade_horario-930-1\"");
+    }
+}
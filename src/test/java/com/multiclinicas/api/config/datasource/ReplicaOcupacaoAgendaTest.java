@@ -0,0 +1,113 @@
+package com.multiclinicas.api.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+
+import javax.sql.DataSource;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.multiclinicas.api.agenda.MapaOcupacao;
+import com.multiclinicas.api.agenda.OcupacaoAgendaCache;
+import com.multiclinicas.api.repositories.MedicoRepository;
+
+/**
+ * Primário e réplica são bancos H2 diferentes; a réplica "atrasada" não
+ * recebe o agendamento gravado no primário.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaOcupacaoAgendaTest.PRIMARIO,
+        "api.datasource.replica.jdbc-url=" + ReplicaOcupacaoAgendaTest.REPLICA,
+        "api.datasource.replica.username=sa",
+        "api.emails.intervalo=PT1H",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN" })
+@ActiveProfiles("test")
+class ReplicaOcupacaoAgendaTest {
+
+    static final String PRIMARIO = "jdbc:h2:mem:ocupacaoprimario;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+    static final String REPLICA = "jdbc:h2:mem:ocupacaoreplica;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;DB_CLOSE_DELAY=-1";
+
+    private static final long CLINIC_ID = 950L;
+    private static final long MEDICO_ID = 950L;
+
+    @Autowired
+    private OcupacaoAgendaCache ocupacaoAgendaCache;
+
+    @Autowired
+    private MedicoRepository medicoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primarioDataSource")
+    private DataSource primario;
+
+    // O Flyway da aplicação só migra o primário
+    @BeforeAll
+    static void migrarReplica() {
+        Flyway.configure()
+                .dataSource(REPLICA, "sa", "")
+                .locations("classpath:db/migration", "classpath:db/vendor/h2")
+                .load()
+                .migrate();
+    }
+
+    private static void cadastrarMedico(JdbcTemplate jdbc, LocalDate data) {
+        jdbc.update("INSERT INTO clinicas (id, nome_fantasia, subdominio) VALUES (?, 'Clínica', 'clinica-950')",
+                CLINIC_ID);
+        jdbc.update("INSERT INTO medicos (id, clinic_id, nome, crm, duracao_consulta) VALUES (?, ?, 'Médico', 'CRM-950', 30)",
+                MEDICO_ID, CLINIC_ID);
+        jdbc.update("""
+                INSERT INTO grades_horario (medico_id, dia_semana, hora_inicio, hora_fim)
+                VALUES (?, ?, TIME '08:00', TIME '12:00')
+                """, MEDICO_ID, data.getDayOfWeek().getValue());
+        jdbc.update("INSERT INTO pacientes (id, clinic_id, nome, cpf) VALUES (950, ?, 'Paciente', '00000000950')",
+                CLINIC_ID);
+    }
+
+    @Test
+    @DisplayName("Deve carregar o mapa de ocupação do primário mesmo dentro de uma transação na réplica")
+    void shouldLoadOccupancyFromPrimaryWhenReplicaIsStale() {
+        LocalDate data = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        JdbcTemplate jdbcPrimario = new JdbcTemplate(primario);
+        JdbcTemplate jdbcReplica = new JdbcTemplate(new DriverManagerDataSource(REPLICA, "sa", ""));
+        cadastrarMedico(jdbcPrimario, data);
+        cadastrarMedico(jdbcReplica, data);
+        // Agendamento recém-confirmado, que a réplica ainda não recebeu
+        jdbcPrimario.update("""
+                INSERT INTO agendamentos (clinic_id, paciente_id, medico_id, data_consulta, hora_inicio, hora_fim,
+                    status, tipo_pagamento)
+                VALUES (?, 950, ?, ?, TIME '10:00', TIME '10:30', 'AGENDADO', 'PARTICULAR')
+                """, CLINIC_ID, MEDICO_ID, data);
+
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        MapaOcupacao mapa = leitura.execute(status -> {
+            // A transação de quem chama já está presa a uma conexão da réplica
+            medicoRepository.count();
+            return ocupacaoAgendaCache.obter(CLINIC_ID, MEDICO_ID, data);
+        });
+
+        assertThat(jdbcReplica.queryForObject("SELECT COUNT(*) FROM agendamentos WHERE medico_id = ?", Long.class,
+                MEDICO_ID)).isZero();
+        assertThat(mapa.isLivre(LocalTime.of(10, 0), LocalTime.of(10, 30))).isFalse();
+        assertThat(mapa.horariosLivres(null)).doesNotContain(LocalTime.of(10, 0)).contains(LocalTime.of(9, 30));
+    }
+}
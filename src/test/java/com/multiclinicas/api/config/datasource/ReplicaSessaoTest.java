@@ -0,0 +1,83 @@
+package com.multiclinicas.api.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Réplica e primário apontam para o mesmo H2; o destino de cada transação é
+ * conferido pelas conexões ativas de cada pool.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReplicaSessaoTest.URL,
+        "api.datasource.replica.jdbc-url=" + ReplicaSessaoTest.URL,
+        "api.datasource.replica.username=sa",
+        "api.emails.intervalo=PT1H",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN" })
+@ActiveProfiles("test")
+class ReplicaSessaoTest {
+
+    static final String URL = "jdbc:h2:mem:replicasessao;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primarioDataSource")
+    private HikariDataSource primario;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replica;
+
+    @Test
+    @DisplayName("Deve rotear cada transação da mesma sessão (open-in-view) de forma independente")
+    void shouldRouteEachTransactionOfTheSameSession() {
+        TransactionTemplate leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+        TransactionTemplate escrita = new TransactionTemplate(transactionManager);
+
+        // O que o OpenEntityManagerInViewInterceptor faz no início da requisição
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+        try {
+            int[] ativasNaLeitura = leitura.execute(status -> {
+                entityManager.createQuery("SELECT COUNT(c) FROM Clinica c").getSingleResult();
+                return new int[] { ativas(primario), ativas(replica) };
+            });
+            int[] ativasNaEscrita = escrita.execute(status -> {
+                entityManager.createNativeQuery("UPDATE clinicas SET ativo = ativo").executeUpdate();
+                return new int[] { ativas(primario), ativas(replica) };
+            });
+
+            assertThat(ativasNaLeitura[1]).isEqualTo(1);
+            assertThat(ativasNaEscrita[0]).isGreaterThanOrEqualTo(1);
+            assertThat(ativasNaEscrita[1]).as("conexão da réplica presa à sessão").isZero();
+        } finally {
+            TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+            entityManager.close();
+        }
+    }
+
+    private static int ativas(HikariDataSource dataSource) {
+        return dataSource.getHikariPoolMXBean().getActiveConnections();
+    }
+}
@@ -0,0 +1,99 @@
+package com.multiclinicas.api.config.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.multiclinicas.api.config.UsuarioAutenticado;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class RoteamentoDataSourceTest {
+
+    private SimpleMeterRegistry registry;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate escrita;
+    private TransactionTemplate leitura;
+
+    private static DataSource banco(String nome) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + nome + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE IF NOT EXISTS origem (nome VARCHAR(20))");
+        jdbc.execute("DELETE FROM origem");
+        jdbc.update("INSERT INTO origem VALUES (?)", nome);
+        return dataSource;
+    }
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        RoteamentoDataSource roteamento = new RoteamentoDataSource(banco("primario"), banco("replica"),
+                new LeituraAposEscrita(Duration.ofMinutes(1), 100), registry);
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy();
+        proxy.setDefaultAutoCommit(true);
+        proxy.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+        proxy.setTargetDataSource(roteamento);
+        proxy.afterPropertiesSet();
+
+        jdbcTemplate = new JdbcTemplate(proxy);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+        escrita = new TransactionTemplate(transactionManager);
+        leitura = new TransactionTemplate(transactionManager);
+        leitura.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    private String origem(TransactionTemplate transacao) {
+        return transacao.execute(status -> jdbcTemplate.queryForObject("SELECT nome FROM origem", String.class));
+    }
+
+    private void autenticar(Long userId) {
+        UsuarioAutenticado usuario = new UsuarioAutenticado(userId, "PACIENTE", 1L,
+                Instant.now().plusSeconds(60));
+        SecurityContextHolder.getContext()
+                .setAuthentication(new UsernamePasswordAuthenticationToken(usuario, null, List.of()));
+    }
+
+    @Test
+    @DisplayName("Deve enviar transações somente leitura para a réplica e as demais para o primário")
+    void shouldRouteByTransactionType() {
+        assertThat(origem(leitura)).isEqualTo("replica");
+        assertThat(origem(escrita)).isEqualTo("primario");
+        assertThat(registry.get("datasource.roteamento").tags("tipo", "leitura", "destino", "replica")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Deve ler do primário logo após a escrita do mesmo usuário")
+    void shouldReadOwnWritesFromPrimary() {
+        autenticar(10L);
+        origem(escrita);
+
+        assertThat(origem(leitura)).isEqualTo("primario");
+
+        autenticar(11L);
+        assertThat(origem(leitura)).isEqualTo("replica");
+    }
+}
@@ -0,0 +1,79 @@
+package com.multiclinicas.api.config.sql;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.ExecutionInfo;
+
+class ConsultasSqlInterceptorTest {
+
+    private SimpleMeterRegistry registry;
+    private ConsultasSqlInterceptor interceptor;
+    private ContadorConsultas contador;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+    private HandlerMethod handler;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        registry = new SimpleMeterRegistry();
+        interceptor = new ConsultasSqlInterceptor(registry, 2, Duration.ofSeconds(5));
+        contador = new ContadorConsultas(Duration.ofSeconds(5));
+        request = new MockHttpServletRequest("GET", "/medicos");
+        request.addHeader("X-Clinic-ID", "1");
+        response = new MockHttpServletResponse();
+        handler = new HandlerMethod(new Object(), Object.class.getMethod("toString"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConsultasRequisicao.encerrar();
+    }
+
+    private void executarStatement() {
+        ExecutionInfo execucao = new ExecutionInfo();
+        contador.beforeQuery(execucao, List.of());
+        contador.afterQuery(execucao, List.of());
+    }
+
+    @Test
+    @DisplayName("Deve contar os statements da requisição por endpoint e marcar o excesso")
+    void shouldCountStatementsPerEndpoint() {
+        interceptor.preHandle(request, response, handler);
+        executarStatement();
+        executarStatement();
+        executarStatement();
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(registry.get("sql.requisicao.statements").tag("endpoint", "Object.toString").summary().totalAmount())
+                .isEqualTo(3.0);
+        assertThat(registry.get("sql.requisicao.tempo").tag("endpoint", "Object.toString").timer().count())
+                .isEqualTo(1L);
+        assertThat(registry.get("sql.requisicao.acima-orcamento").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Não deve atribuir a requisições os statements executados fora delas")
+    void shouldIgnoreStatementsOutsideRequests() {
+        executarStatement();
+
+        interceptor.preHandle(request, response, handler);
+        executarStatement();
+        interceptor.afterCompletion(request, response, handler, null);
+        executarStatement();
+
+        assertThat(registry.get("sql.requisicao.statements").summary().totalAmount()).isEqualTo(1.0);
+        assertThat(registry.find("sql.requisicao.acima-orcamento").counters()).isEmpty();
+    }
+}
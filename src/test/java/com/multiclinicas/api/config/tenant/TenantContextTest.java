@@ -0,0 +1,67 @@
+package com.multiclinicas.api.config.tenant;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TenantContextTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        TenantContext.clear();
+    }
+
+    @Test
+    @DisplayName("Deve levar a clínica de quem envia a tarefa e limpar a thread do pool depois")
+    void shouldPropagateAndCleanPooledThread() throws Exception {
+        TenantContext.setClinicId(7L);
+
+        Long naTarefa = CompletableFuture.supplyAsync(TenantContext::getClinicId, TenantContext.propagando(executor))
+                .get();
+        Long depois = executor.submit(TenantContext::getClinicId).get();
+
+        assertThat(naTarefa).isEqualTo(7L);
+        assertThat(depois).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve restaurar a clínica anterior ao fim de executarComo")
+    void shouldRestorePreviousClinic() {
+        TenantContext.setClinicId(1L);
+        AtomicReference<Long> dentro = new AtomicReference<>();
+
+        TenantContext.executarComo(2L, () -> dentro.set(TenantContext.getClinicId()));
+
+        assertThat(dentro.get()).isEqualTo(2L);
+        assertThat(TenantContext.getClinicId()).isEqualTo(1L);
+    }
+
+    @Test
+    @DisplayName("Deve propagar pelo TaskDecorator do executor padrão")
+    void shouldPropagateThroughTaskDecorator() throws Exception {
+        TenantContext.setClinicId(9L);
+        AtomicReference<Long> naTarefa = new AtomicReference<>();
+
+        Runnable decorada = new TenantTaskDecorator().decorate(() -> naTarefa.set(TenantContext.getClinicId()));
+        TenantContext.clear();
+        executor.submit(decorada).get();
+
+        assertThat(naTarefa.get()).isEqualTo(9L);
+    }
+}
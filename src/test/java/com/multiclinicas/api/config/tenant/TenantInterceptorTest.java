@@ -5,12 +5,14 @@ import com.multiclinicas.api.repositories.ClinicaRepository;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.time.Duration;
+
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -26,9 +28,16 @@ class TenantInterceptorTest {
     @Mock
     private HttpServletResponse response;
 
-    @InjectMocks
+    private TenantCache tenantCache;
+
     private TenantInterceptor tenantInterceptor;
 
+    @BeforeEach
+    void setUp() {
+        tenantCache = new TenantCache(clinicaRepository, 100, Duration.ofMinutes(1));
+        tenantInterceptor = new TenantInterceptor(tenantCache);
+    }
+
     @AfterEach
     void tearDown() {
         TenantContext.clear();
@@ -100,4 +109,37 @@ class TenantInterceptorTest {
         assertFalse(result);
         verify(response).sendError(HttpServletResponse.SC_FORBIDDEN, "Tenant inativo");
     }
+
+    @Test
+    void preHandle_ShouldReuseCachedClinic_OnSubsequentRequests() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("X-Clinic-ID")).thenReturn("1");
+        com.multiclinicas.api.models.Clinica clinica = new com.multiclinicas.api.models.Clinica();
+        clinica.setId(1L);
+        clinica.setAtivo(true);
+        when(clinicaRepository.findById(1L)).thenReturn(java.util.Optional.of(clinica));
+
+        assertTrue(tenantInterceptor.preHandle(request, response, new Object()));
+        assertTrue(tenantInterceptor.preHandle(request, response, new Object()));
+
+        verify(clinicaRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void preHandle_ShouldReloadClinic_AfterInvalidation() throws Exception {
+        when(request.getMethod()).thenReturn("GET");
+        when(request.getHeader("X-Clinic-ID")).thenReturn("1");
+        com.multiclinicas.api.models.Clinica clinica = new com.multiclinicas.api.models.Clinica();
+        clinica.setId(1L);
+        clinica.setAtivo(true);
+        when(clinicaRepository.findById(1L)).thenReturn(java.util.Optional.of(clinica));
+
+        assertTrue(tenantInterceptor.preHandle(request, response, new Object()));
+
+        clinica.setAtivo(false);
+        tenantCache.invalidar(1L);
+
+        assertFalse(tenantInterceptor.preHandle(request, response, new Object()));
+        verify(clinicaRepository, times(2)).findById(1L);
+    }
 }
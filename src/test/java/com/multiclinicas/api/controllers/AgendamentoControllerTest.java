@@ -29,13 +29,20 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import com.multiclinicas.api.config.WebConfig;
 import com.multiclinicas.api.config.tenant.TenantContext;
+import com.multiclinicas.api.config.tenant.TenantCache;
 import com.multiclinicas.api.config.tenant.TenantInterceptor;
 import com.multiclinicas.api.models.Clinica;
 import com.multiclinicas.api.dtos.AgendamentoCreateDTO;
 import com.multiclinicas.api.dtos.AgendamentoDTO;
+import com.multiclinicas.api.dtos.AgendamentoFiltroDTO;
+import com.multiclinicas.api.dtos.AgendamentoLoteDTO;
 import com.multiclinicas.api.dtos.AgendamentoRemarcarDTO;
 import com.multiclinicas.api.dtos.AgendamentoStatusDTO;
 import com.multiclinicas.api.dtos.AgendamentoTokenDTO;
+import com.multiclinicas.api.dtos.HorarioAgendamentoDTO;
+import com.multiclinicas.api.dtos.ItemLoteDTO;
+import com.multiclinicas.api.dtos.PaginaAgendamentosDTO;
+import com.multiclinicas.api.dtos.ResultadoLoteDTO;
 import com.multiclinicas.api.exceptions.BusinessException;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
 import com.multiclinicas.api.mappers.AgendamentoMapper;
@@ -48,7 +55,7 @@ import com.multiclinicas.api.services.JwtService;
 
 @WebMvcTest(AgendamentoController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import({ WebConfig.class, TenantInterceptor.class })
+@Import({ WebConfig.class, TenantInterceptor.class, TenantCache.class })
 class AgendamentoControllerTest {
 
     @org.springframework.test.context.bean.override.mockito.MockitoBean
@@ -108,17 +115,41 @@ class AgendamentoControllerTest {
         @Test
         @DisplayName("Deve listar agendamentos com sucesso")
         void shouldListAgendamentos() throws Exception {
-            when(agendamentoService.findAllByClinicId(CLINIC_ID))
-                    .thenReturn(List.of(agendamento));
-            when(agendamentoMapper.toDTO(agendamento)).thenReturn(agendamentoDTO);
+            AgendamentoFiltroDTO filtro = new AgendamentoFiltroDTO(null, null, null, null, null);
+            when(agendamentoService.listar(CLINIC_ID, filtro, null, 50))
+                    .thenReturn(new PaginaAgendamentosDTO(List.of(agendamentoDTO), "proximo"));
 
             mockMvc.perform(
                     get("/agendamentos")
                             .header("X-Clinic-ID", CLINIC_ID))
                     .andDo(print())
                     .andExpect(status().isOk())
-                    .andExpect(jsonPath("$[0].id").value(1L))
-                    .andExpect(jsonPath("$[0].nomePaciente").value("João Paciente"));
+                    .andExpect(jsonPath("$.itens[0].id").value(1L))
+                    .andExpect(jsonPath("$.itens[0].nomePaciente").value("João Paciente"))
+                    .andExpect(jsonPath("$.proximoCursor").value("proximo"));
+        }
+
+        @Test
+        @DisplayName("Deve repassar filtros, cursor e limite para a listagem")
+        void shouldListAgendamentosWithFilters() throws Exception {
+            AgendamentoFiltroDTO filtro = new AgendamentoFiltroDTO(LocalDate.of(2030, 1, 1),
+                    LocalDate.of(2030, 1, 31), 20L, StatusAgendamento.AGENDADO, TipoPagamento.CONVENIO);
+            when(agendamentoService.listar(CLINIC_ID, filtro, "abc", 10))
+                    .thenReturn(new PaginaAgendamentosDTO(List.of(agendamentoDTO), null));
+
+            mockMvc.perform(
+                    get("/agendamentos")
+                            .header("X-Clinic-ID", CLINIC_ID)
+                            .param("dataInicio", "2030-01-01")
+                            .param("dataFim", "2030-01-31")
+                            .param("medicoId", "20")
+                            .param("status", "AGENDADO")
+                            .param("tipoPagamento", "CONVENIO")
+                            .param("cursor", "abc")
+                            .param("limite", "10"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.itens[0].id").value(1L))
+                    .andExpect(jsonPath("$.proximoCursor").doesNotExist());
         }
 
         @Test
@@ -214,6 +245,56 @@ class AgendamentoControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /agendamentos/lote")
+    class CriarLoteTests {
+
+        private final LocalDate data = LocalDate.now().plusDays(7);
+
+        private AgendamentoLoteDTO lote() {
+            return new AgendamentoLoteDTO(10L, 20L, TipoPagamento.PARTICULAR, null, null,
+                    List.of(new HorarioAgendamentoDTO(data, LocalTime.of(9, 0)),
+                            new HorarioAgendamentoDTO(data, LocalTime.of(10, 0))),
+                    null);
+        }
+
+        @Test
+        @DisplayName("Deve retornar 201 quando ao menos um horário for criado")
+        void shouldReturn201WhenSomeCreated() throws Exception {
+            when(agendamentoService.criarLote(eq(CLINIC_ID), any(AgendamentoLoteDTO.class)))
+                    .thenReturn(new ResultadoLoteDTO(1, 1, List.of(
+                            new ItemLoteDTO(data, LocalTime.of(9, 0), true, 1L, null),
+                            new ItemLoteDTO(data, LocalTime.of(10, 0), false, null, "Horário ocupado"))));
+
+            mockMvc.perform(
+                    post("/agendamentos/lote")
+                            .header("X-Clinic-ID", CLINIC_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(lote())))
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.criados").value(1))
+                    .andExpect(jsonPath("$.itens[1].motivo").value("Horário ocupado"));
+        }
+
+        @Test
+        @DisplayName("Deve retornar 200 com os motivos quando nenhum horário for criado")
+        void shouldReturn200WhenNoneCreated() throws Exception {
+            when(agendamentoService.criarLote(eq(CLINIC_ID), any(AgendamentoLoteDTO.class)))
+                    .thenReturn(new ResultadoLoteDTO(0, 2, List.of(
+                            new ItemLoteDTO(data, LocalTime.of(9, 0), false, null, "Horário ocupado"),
+                            new ItemLoteDTO(data, LocalTime.of(10, 0), false, null, "Horário ocupado"))));
+
+            mockMvc.perform(
+                    post("/agendamentos/lote")
+                            .header("X-Clinic-ID", CLINIC_ID)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(lote())))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.criados").value(0))
+                    .andExpect(jsonPath("$.recusados").value(2));
+        }
+    }
+
     @Nested
     @DisplayName("PUT /agendamentos/{id}/remarcar")
     class RemarcarTests {
@@ -2,6 +2,7 @@ package com.multiclinicas.api.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.multiclinicas.api.config.WebConfig;
+import com.multiclinicas.api.config.tenant.TenantCache;
 import com.multiclinicas.api.config.tenant.TenantInterceptor;
 import com.multiclinicas.api.dtos.ClinicaCreateDTO;
 import com.multiclinicas.api.dtos.ClinicaDTO;
@@ -33,7 +34,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(ClinicaController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import({ WebConfig.class, TenantInterceptor.class })
+@Import({ WebConfig.class, TenantInterceptor.class, TenantCache.class })
 class ClinicaControllerTest {
 
     @org.springframework.test.context.bean.override.mockito.MockitoBean
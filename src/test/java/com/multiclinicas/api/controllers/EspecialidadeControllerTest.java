@@ -1,8 +1,13 @@
 package com.multiclinicas.api.controllers;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multiclinicas.api.catalogo.CatalogoClinica;
+import com.multiclinicas.api.catalogo.ListaCatalogo;
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.config.WebConfig;
 import com.multiclinicas.api.config.tenant.TenantContext;
+import com.multiclinicas.api.config.tenant.TenantCache;
 import com.multiclinicas.api.config.tenant.TenantInterceptor;
 import com.multiclinicas.api.dtos.EspecialidadeCreateDTO;
 import com.multiclinicas.api.dtos.EspecialidadeDTO;
@@ -25,7 +30,6 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
-import java.util.Arrays;
 import java.util.List;
 
 import static org.hamcrest.Matchers.*;
@@ -38,7 +42,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(controllers = EspecialidadeController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import({ WebConfig.class, TenantInterceptor.class })
+@Import({ WebConfig.class, TenantInterceptor.class, TenantCache.class })
 class EspecialidadeControllerTest {
 
     @org.springframework.test.context.bean.override.mockito.MockitoBean
@@ -60,6 +64,12 @@ class EspecialidadeControllerTest {
     @MockitoBean
     private ClinicaRepository clinicaRepository;
 
+    @MockitoBean
+    private CatalogoClinica catalogoClinica;
+
+    @MockitoBean
+    private VersoesCatalogo versoesCatalogo;
+
     private Especialidade especialidade;
     private EspecialidadeDTO especialidadeDTO;
     private EspecialidadeCreateDTO createDTO;
@@ -76,6 +86,7 @@ class EspecialidadeControllerTest {
         clinica.setId(1L);
         clinica.setAtivo(true);
         when(clinicaRepository.findById(clinicaId)).thenReturn(java.util.Optional.of(clinica));
+        when(versoesCatalogo.etag(clinicaId, RecursoCatalogo.ESPECIALIDADES)).thenReturn("\"especialidades-1-2\"");
 
         TenantContext.setClinicId(clinicaId);
 
@@ -107,20 +118,13 @@ class EspecialidadeControllerTest {
     @Test
     @DisplayName("GET /especialidades - Deve listar todas as especialidades da clínica")
     void deveListarTodasEspecialidadesDaClinica() throws Exception {
-        Especialidade esp1 = new Especialidade(1L, clinica, "Cardiologia");
-        Especialidade esp2 = new Especialidade(2L, clinica, "Pediatria");
-        Especialidade esp3 = new Especialidade(3L, clinica, "Ortopedia");
-
         EspecialidadeDTO dto1 = new EspecialidadeDTO(1L, "Cardiologia", clinicaId, "Clínica Saúde Total");
         EspecialidadeDTO dto2 = new EspecialidadeDTO(2L, "Pediatria", clinicaId, "Clínica Saúde Total");
         EspecialidadeDTO dto3 = new EspecialidadeDTO(3L, "Ortopedia", clinicaId, "Clínica Saúde Total");
 
-        List<Especialidade> especialidades = Arrays.asList(esp1, esp2, esp3);
-
-        when(especialidadeService.findAllByClinicId(clinicaId)).thenReturn(especialidades);
-        when(especialidadeMapper.toDTO(esp1)).thenReturn(dto1);
-        when(especialidadeMapper.toDTO(esp2)).thenReturn(dto2);
-        when(especialidadeMapper.toDTO(esp3)).thenReturn(dto3);
+        when(catalogoClinica.especialidades(clinicaId))
+                .thenReturn(new ListaCatalogo<>(List.of(dto1, dto2, dto3), EspecialidadeDTO::id, 2,
+                        "\"especialidades-1-2\""));
 
         mockMvc.perform(get("/especialidades")
                         .header("X-Clinic-ID", clinicaId)
@@ -130,16 +134,27 @@ class EspecialidadeControllerTest {
                 .andExpect(jsonPath("$", hasSize(3)))
                 .andExpect(jsonPath("$[0].nome", is("Cardiologia")))
                 .andExpect(jsonPath("$[1].nome", is("Pediatria")))
-                .andExpect(jsonPath("$[2].nome", is("Ortopedia")));
+                .andExpect(jsonPath("$[2].nome", is("Ortopedia")))
+                .andExpect(header().string("ETag", "\"especialidades-1-2\""));
+    }
+
+    @Test
+    @DisplayName("GET /especialidades - Deve retornar 304 sem ler o catálogo quando a versão não mudou")
+    void deveRetornarNaoModificadoQuandoEtagIgual() throws Exception {
+        mockMvc.perform(get("/especialidades")
+                        .header("X-Clinic-ID", clinicaId)
+                        .header("If-None-Match", "\"especialidades-1-2\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
 
-        verify(especialidadeService, times(1)).findAllByClinicId(clinicaId);
-        verify(especialidadeMapper, times(3)).toDTO(any(Especialidade.class));
+        verify(catalogoClinica, never()).especialidades(any());
     }
 
     @Test
     @DisplayName("GET /especialidades - Deve retornar lista vazia quando não há especialidades")
     void deveRetornarListaVaziaQuandoNaoHaEspecialidades() throws Exception {
-        when(especialidadeService.findAllByClinicId(clinicaId)).thenReturn(Arrays.asList());
+        when(catalogoClinica.especialidades(clinicaId))
+                .thenReturn(new ListaCatalogo<>(List.of(), EspecialidadeDTO::id, 0, "\"especialidades-1-0\""));
 
 
         mockMvc.perform(get("/especialidades")
@@ -148,8 +163,6 @@ class EspecialidadeControllerTest {
                 .andDo(print())
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(0)));
-
-        verify(especialidadeService, times(1)).findAllByClinicId(clinicaId);
     }
 
     @Test
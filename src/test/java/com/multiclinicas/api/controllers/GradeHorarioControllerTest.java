@@ -9,6 +9,8 @@ import org.junit.jupiter.api.Test;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -21,11 +23,15 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.config.WebConfig;
+import com.multiclinicas.api.config.tenant.TenantCache;
 import com.multiclinicas.api.config.tenant.TenantInterceptor;
 import com.multiclinicas.api.dtos.GradeHorarioCreateDTO;
 import com.multiclinicas.api.dtos.GradeHorarioDTO;
@@ -38,7 +44,7 @@ import com.multiclinicas.api.services.GradeHorarioService;
 
 @WebMvcTest(GradeHorarioController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import({ WebConfig.class, TenantInterceptor.class })
+@Import({ WebConfig.class, TenantInterceptor.class, TenantCache.class })
 class GradeHorarioControllerTest {
 
     @org.springframework.test.context.bean.override.mockito.MockitoBean
@@ -60,6 +66,9 @@ class GradeHorarioControllerTest {
     @MockitoBean
     private ClinicaRepository clinicaRepository;
 
+    @MockitoBean
+    private VersoesCatalogo versoesCatalogo;
+
     private final Long clinicId = 1L;
     private final Long gradeId = 100L;
     private final Long medicoId = 10L;
@@ -74,6 +83,7 @@ class GradeHorarioControllerTest {
         clinica.setId(clinicId);
         clinica.setAtivo(true);
         when(clinicaRepository.findById(clinicId)).thenReturn(java.util.Optional.of(clinica));
+        when(versoesCatalogo.etag(clinicId, RecursoCatalogo.GRADE_HORARIO)).thenReturn("\"grade_horario-1-3\"");
 
         LocalTime inicio = LocalTime.of(8, 0);
         LocalTime fim = LocalTime.of(12, 0);
@@ -99,7 +109,19 @@ class GradeHorarioControllerTest {
                 .header("X-Clinic-ID", clinicId))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$[0].id").value(gradeId))
-                .andExpect(jsonPath("$[0].diaSemana").value(1));
+                .andExpect(jsonPath("$[0].diaSemana").value(1))
+                .andExpect(header().string("ETag", "\"grade_horario-1-3\""));
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 sem ler as grades quando a versão não mudou")
+    void shouldReturnNotModifiedWithoutLoadingGrades() throws Exception {
+        mockMvc.perform(get("/grade-horario")
+                .header("X-Clinic-ID", clinicId)
+                .header("If-None-Match", "\"grade_horario-1-3\""))
+                .andExpect(status().isNotModified());
+
+        verify(gradeHorarioService, never()).findAllByClinicId(any());
     }
 
     @Test
@@ -1,13 +1,17 @@
 package com.multiclinicas.api.controllers;
 
+import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -27,7 +31,12 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.multiclinicas.api.catalogo.CatalogoClinica;
+import com.multiclinicas.api.catalogo.ListaCatalogo;
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.config.WebConfig;
+import com.multiclinicas.api.config.tenant.TenantCache;
 import com.multiclinicas.api.config.tenant.TenantInterceptor;
 import com.multiclinicas.api.dtos.MedicoCreateDTO;
 import com.multiclinicas.api.dtos.MedicoDTO;
@@ -39,7 +48,7 @@ import com.multiclinicas.api.services.MedicoService;
 
 @WebMvcTest(MedicoController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import({ WebConfig.class, TenantInterceptor.class })
+@Import({ WebConfig.class, TenantInterceptor.class, TenantCache.class })
 class MedicoControllerTest {
 
     @org.springframework.test.context.bean.override.mockito.MockitoBean
@@ -61,6 +70,12 @@ class MedicoControllerTest {
         @MockitoBean
         private ClinicaRepository clinicaRepository;
 
+        @MockitoBean
+        private CatalogoClinica catalogoClinica;
+
+        @MockitoBean
+        private VersoesCatalogo versoesCatalogo;
+
         private final Long clinicId = 1L;
         private Medico medico;
         private MedicoDTO medicoDTO;
@@ -72,6 +87,7 @@ class MedicoControllerTest {
         clinica.setId(clinicId);
         clinica.setAtivo(true);
         when(clinicaRepository.findById(clinicId)).thenReturn(java.util.Optional.of(clinica));
+        when(versoesCatalogo.etag(clinicId, RecursoCatalogo.MEDICOS)).thenReturn("\"medicos-1-7\"");
 
                 medico = new Medico();
                 medico.setId(1L);
@@ -105,6 +121,37 @@ class MedicoControllerTest {
                                 .andExpect(jsonPath("$[0].crm").value(medico.getCrm()));
         }
 
+        @Test
+        @DisplayName("Deve listar os médicos ativos do catálogo com o ETag da versão")
+        void shouldReturnActiveMedicosWithEtag() throws Exception {
+                when(catalogoClinica.medicosAtivos(clinicId))
+                                .thenReturn(new ListaCatalogo<>(List.of(medicoDTO), MedicoDTO::id, 7, "\"medicos-1-7\""));
+
+                mockMvc.perform(get("/medicos/ativos")
+                                .header("X-Clinic-ID", clinicId))
+                                .andExpect(status().isOk())
+                                .andExpect(header().string("ETag", "\"medicos-1-7\""))
+                                .andExpect(header().stringValues("Vary", hasItem("X-Clinic-ID")))
+                                .andExpect(jsonPath("$[0].crm").value(medicoDTO.crm()));
+        }
+
+        @Test
+        @DisplayName("Deve responder 304 sem ler os médicos quando a versão não mudou")
+        void shouldReturnNotModifiedWithoutLoadingMedicos() throws Exception {
+                mockMvc.perform(get("/medicos")
+                                .header("X-Clinic-ID", clinicId)
+                                .header("If-None-Match", "\"medicos-1-7\""))
+                                .andExpect(status().isNotModified());
+
+                mockMvc.perform(get("/medicos/ativos")
+                                .header("X-Clinic-ID", clinicId)
+                                .header("If-None-Match", "\"medicos-1-7\""))
+                                .andExpect(status().isNotModified());
+
+                verify(medicoService, never()).findAllByClinicId(clinicId);
+                verify(catalogoClinica, never()).medicosAtivos(clinicId);
+        }
+
         @Test
         @DisplayName("Deve retornar médico por ID e Clínica")
         void shouldReturnMedicoById() throws Exception {
@@ -5,7 +5,10 @@ import com.multiclinicas.api.dtos.PlanoSaudeCreateDTO;
 import com.multiclinicas.api.dtos.PlanoSaudeDTO;
 import com.multiclinicas.api.mappers.PlanoSaudeMapper;
 import com.multiclinicas.api.models.PlanoSaude;
+import com.multiclinicas.api.catalogo.CatalogoClinica;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.config.WebConfig;
+import com.multiclinicas.api.config.tenant.TenantCache;
 import com.multiclinicas.api.config.tenant.TenantInterceptor;
 import com.multiclinicas.api.repositories.ClinicaRepository;
 import com.multiclinicas.api.services.PlanoSaudeService;
@@ -29,7 +32,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 
 @WebMvcTest(PlanoSaudeController.class)
 @AutoConfigureMockMvc(addFilters = false)
-@Import({ WebConfig.class, TenantInterceptor.class })
+@Import({ WebConfig.class, TenantInterceptor.class, TenantCache.class })
 class PlanoSaudeControllerTest {
 
     @org.springframework.test.context.bean.override.mockito.MockitoBean
@@ -51,6 +54,12 @@ class PlanoSaudeControllerTest {
     @MockitoBean
     private ClinicaRepository clinicaRepository;
 
+    @MockitoBean
+    private CatalogoClinica catalogoClinica;
+
+    @MockitoBean
+    private VersoesCatalogo versoesCatalogo;
+
     @BeforeEach
     void setup() {
         com.multiclinicas.api.models.Clinica clinica = new com.multiclinicas.api.models.Clinica();
@@ -0,0 +1,116 @@
+package com.multiclinicas.api.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.models.Clinica;
+import com.multiclinicas.api.models.ModeloEmail;
+import com.multiclinicas.api.repositories.ClinicaRepository;
+import com.multiclinicas.api.repositories.ModeloEmailRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ModelosEmailTest {
+
+    private static final Long CLINIC_ID = 1L;
+    private static final DadosEmail DADOS = new DadosEmail("Maria", "House", LocalDate.of(2030, 1, 7),
+            LocalTime.of(9, 0));
+
+    @Mock
+    private ModeloEmailRepository modeloEmailRepository;
+
+    @Mock
+    private ClinicaRepository clinicaRepository;
+
+    private ModelosEmail modelosEmail;
+
+    @BeforeEach
+    void setUp() {
+        modelosEmail = new ModelosEmail(modeloEmailRepository, clinicaRepository, 100, Duration.ofMinutes(10));
+        Clinica clinica = new Clinica();
+        clinica.setId(CLINIC_ID);
+        clinica.setNomeFantasia("Clínica Central");
+        when(clinicaRepository.findById(CLINIC_ID)).thenReturn(Optional.of(clinica));
+    }
+
+    @Test
+    @DisplayName("Deve usar o texto padrão e compilar uma vez por clínica e tipo")
+    void shouldUseDefaultAndCompileOnce() {
+        MensagemEmailDTO primeira = modelosEmail.montar(TipoEmail.CONFIRMACAO_AGENDAMENTO, CLINIC_ID, "m@teste.com",
+                DADOS);
+        modelosEmail.montar(TipoEmail.CONFIRMACAO_AGENDAMENTO, CLINIC_ID, "n@teste.com", DADOS);
+
+        assertThat(primeira.destinatario()).isEqualTo("m@teste.com");
+        assertThat(primeira.assunto()).isEqualTo("Confirmação de Agendamento - Clínica Central");
+        assertThat(primeira.mensagem()).contains("Olá, Maria", "Data: 07/01/2030", "Clínica: Clínica Central");
+        verify(modeloEmailRepository, times(1)).findByClinicIdAndTipo(CLINIC_ID, TipoEmail.CONFIRMACAO_AGENDAMENTO);
+    }
+
+    @Test
+    @DisplayName("Deve usar o modelo da clínica e recarregá-lo após invalidar")
+    void shouldUseClinicOverride() {
+        when(modeloEmailRepository.findByClinicIdAndTipo(CLINIC_ID, TipoEmail.LEMBRETE_CONSULTA))
+                .thenReturn(Optional.of(new ModeloEmail(1L, CLINIC_ID, TipoEmail.LEMBRETE_CONSULTA,
+                        "Sua consulta na {{clinica}}", "{{paciente}}, até amanhã às {{hora}}!")));
+
+        MensagemEmailDTO mensagem = modelosEmail.montar(TipoEmail.LEMBRETE_CONSULTA, CLINIC_ID, "m@teste.com", DADOS);
+        modelosEmail.invalidar(CLINIC_ID);
+        modelosEmail.montar(TipoEmail.LEMBRETE_CONSULTA, CLINIC_ID, "m@teste.com", DADOS);
+
+        assertThat(mensagem.assunto()).isEqualTo("Sua consulta na Clínica Central");
+        assertThat(mensagem.mensagem()).isEqualTo("Maria, até amanhã às 09:00!");
+        verify(modeloEmailRepository, times(2)).findByClinicIdAndTipo(CLINIC_ID, TipoEmail.LEMBRETE_CONSULTA);
+    }
+
+    @Test
+    @DisplayName("Deve cair no texto padrão quando o modelo da clínica for inválido")
+    void shouldFallBackOnInvalidOverride() {
+        when(modeloEmailRepository.findByClinicIdAndTipo(CLINIC_ID, TipoEmail.LEMBRETE_CONSULTA))
+                .thenReturn(Optional.of(new ModeloEmail(1L, CLINIC_ID, TipoEmail.LEMBRETE_CONSULTA,
+                        "Assunto", "Olá, {{nome}}")));
+
+        MensagemEmailDTO mensagem = modelosEmail.montar(TipoEmail.LEMBRETE_CONSULTA, CLINIC_ID, "m@teste.com", DADOS);
+
+        assertThat(mensagem.assunto()).isEqualTo("Lembrete de Consulta - Multi Clínicas");
+        assertThat(mensagem.mensagem()).startsWith("Olá, Maria!");
+    }
+
+    @Test
+    @DisplayName("Deve recompilar com o novo nome da clínica só após o commit")
+    void shouldInvalidateAfterCommit() {
+        modelosEmail.montar(TipoEmail.CONFIRMACAO_AGENDAMENTO, CLINIC_ID, "m@teste.com", DADOS);
+        Clinica renomeada = new Clinica();
+        renomeada.setId(CLINIC_ID);
+        renomeada.setNomeFantasia("Clínica Nova");
+        when(clinicaRepository.findById(CLINIC_ID)).thenReturn(Optional.of(renomeada));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            modelosEmail.invalidar(CLINIC_ID);
+            assertThat(modelosEmail.montar(TipoEmail.CONFIRMACAO_AGENDAMENTO, CLINIC_ID, "m@teste.com", DADOS)
+                    .assunto()).endsWith("Clínica Central");
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertThat(modelosEmail.montar(TipoEmail.CONFIRMACAO_AGENDAMENTO, CLINIC_ID, "m@teste.com", DADOS)
+                .assunto()).endsWith("Clínica Nova");
+    }
+}
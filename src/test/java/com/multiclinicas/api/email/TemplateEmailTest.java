@@ -0,0 +1,64 @@
+package com.multiclinicas.api.email;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class TemplateEmailTest {
+
+    private static final DadosEmail DADOS = new DadosEmail("Maria", "House", LocalDate.of(2030, 1, 7),
+            LocalTime.of(9, 5));
+
+    @Test
+    @DisplayName("Deve substituir as variáveis e resolver a clínica na compilação")
+    void shouldRenderVariables() {
+        TemplateEmail template = TemplateEmail.compilar(
+                "Olá, {{paciente}}! Dr(a). {{ medico }} em {{data}} às {{hora}} - {{clinica}}", "Clínica Central");
+
+        assertThat(template.renderizar(DADOS))
+                .isEqualTo("Olá, Maria! Dr(a). House em 07/01/2030 às 09:05 - Clínica Central");
+    }
+
+    @Test
+    @DisplayName("Deve gerar o mesmo texto que o String.format anterior")
+    void shouldMatchPreviousFormatting() {
+        TemplateEmail template = TemplateEmail.compilar(TipoEmail.CONFIRMACAO_AGENDAMENTO.getCorpoPadrao(), "Central");
+
+        String anterior = String.format(
+                "Olá, %s, seu agendamento foi confirmado com sucesso!\n\n" +
+                "Detalhes da consulta:\n" +
+                "Médico(a): Dr(a). %s\n" +
+                "Data: %s\n" +
+                "Horário: %s\n" +
+                "Clínica: %s\n\n" +
+                "Agradecemos a preferência!",
+                "Maria", "House", DADOS.data().format(DateTimeFormatter.ofPattern("dd/MM/yyyy")),
+                DADOS.hora().toString(), "Central");
+
+        assertThat(template.renderizar(DADOS)).isEqualTo(anterior);
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar o texto de templates sem variáveis")
+    void shouldReturnConstantTemplateAsIs() {
+        TemplateEmail template = TemplateEmail.compilar("Lembrete - {{clinica}}", "Central");
+
+        assertThat(template.renderizar(DADOS)).isSameAs(template.renderizar(DADOS)).isEqualTo("Lembrete - Central");
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar variáveis desconhecidas ou sem fechamento")
+    void shouldRejectInvalidTemplates() {
+        assertThatThrownBy(() -> TemplateEmail.compilar("Olá, {{nome}}", "Central"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("{{nome}}");
+        assertThatThrownBy(() -> TemplateEmail.compilar("Olá, {{paciente", "Central"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.multiclinicas.api.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import com.multiclinicas.api.dtos.ResultadoEnvioEmailDTO;
+import com.multiclinicas.api.services.EmailService;
+
+/**
+ * Os dois jobs agendados rodam no agendador do Spring; uma execução longa dos
+ * lembretes não pode segurar a caixa de saída de e-mails.
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:agendamentojobs;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+        "api.lembretes.cron=* * * * * *",
+        "api.emails.intervalo=PT0.2S",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN" })
+@ActiveProfiles("test")
+// O cron de um segundo não deve continuar rodando durante os outros testes
+@DirtiesContext
+class AgendamentoJobsTest {
+
+    private static final long CLINIC_ID = 940L;
+
+    @MockitoBean
+    private ControleLembretes controle;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final CountDownLatch liberarLembretes = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        liberarLembretes.countDown();
+    }
+
+    @Test
+    @DisplayName("Execução longa dos lembretes não deve atrasar o envio da caixa de saída")
+    void slowReminderRunShouldNotDelayOutbox() throws Exception {
+        CountDownLatch lembretesIniciados = new CountDownLatch(1);
+        when(controle.adquirir(any())).thenAnswer(inv -> {
+            lembretesIniciados.countDown();
+            liberarLembretes.await(30, TimeUnit.SECONDS);
+            return Optional.empty();
+        });
+        when(emailService.enviarEmails(anyList())).thenReturn(new ResultadoEnvioEmailDTO(List.of(), List.of()));
+
+        assertThat(lembretesIniciados.await(5, TimeUnit.SECONDS)).isTrue();
+
+        jdbcTemplate.update("INSERT INTO clinicas (id, nome_fantasia, subdominio) VALUES (?, 'Clínica', 'clinica-940')",
+                CLINIC_ID);
+        jdbcTemplate.update("""
+                INSERT INTO emails_pendentes (clinic_id, destinatario, assunto, mensagem, proxima_tentativa)
+                VALUES (?, 'paciente@teste.com', 'Assunto', 'Mensagem', ?)
+                """, CLINIC_ID, LocalDateTime.now().minusSeconds(1));
+
+        // Os lembretes continuam presos enquanto a caixa de saída é esvaziada
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String status;
+        do {
+            Thread.sleep(100);
+            status = jdbcTemplate.queryForObject("SELECT status FROM emails_pendentes WHERE clinic_id = ?",
+                    String.class, CLINIC_ID);
+        } while (!"ENVIADO".equals(status) && System.nanoTime() < limite);
+
+        assertThat(status).isEqualTo("ENVIADO");
+        assertThat(liberarLembretes.getCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,110 @@
+package com.multiclinicas.api.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.multiclinicas.api.repositories.ExecucaoLembreteRepository;
+import com.multiclinicas.api.repositories.LembreteEnviadoRepository;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ControleLembretesTest {
+
+    private static final LocalDate DATA = LocalDate.of(2030, 1, 7);
+
+    @Autowired
+    private ExecucaoLembreteRepository execucaoRepository;
+
+    @Autowired
+    private LembreteEnviadoRepository lembreteEnviadoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ControleLembretes instancia(Duration lease) {
+        return new ControleLembretes(execucaoRepository, lembreteEnviadoRepository, lease);
+    }
+
+    @Test
+    @DisplayName("Só uma instância deve processar a data enquanto o lease for válido")
+    void shouldGrantLeaseToASingleInstance() {
+        ControleLembretes primeira = instancia(Duration.ofMinutes(10));
+        ControleLembretes segunda = instancia(Duration.ofMinutes(10));
+
+        assertThat(primeira.adquirir(DATA)).contains(0L);
+        assertThat(segunda.adquirir(DATA)).isEmpty();
+        // A dona pode readquirir (ex.: job disparado de novo antes de terminar)
+        assertThat(primeira.adquirir(DATA)).contains(0L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM execucoes_lembrete", Integer.class))
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Outra instância deve retomar do checkpoint quando o lease vencer")
+    void shouldResumeFromCheckpointAfterLeaseExpires() {
+        ControleLembretes caida = instancia(Duration.ofMinutes(10));
+        ControleLembretes substituta = instancia(Duration.ofMinutes(10));
+
+        assertThat(caida.adquirir(DATA)).contains(0L);
+        assertThat(caida.avancar(DATA, 500L)).isTrue();
+        jdbcTemplate.update("UPDATE execucoes_lembrete SET lease_ate = ? WHERE data_consulta = ?",
+                LocalDateTime.now().minusSeconds(1), DATA);
+
+        assertThat(substituta.adquirir(DATA)).contains(500L);
+        // A instância antiga perdeu o lease e não pode mais avançar nem concluir
+        assertThat(caida.avancar(DATA, 900L)).isFalse();
+        caida.concluir(DATA);
+        assertThat(substituta.avancar(DATA, 900L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("Não deve reprocessar uma data concluída")
+    void shouldNotReacquireCompletedDate() {
+        ControleLembretes controle = instancia(Duration.ofMinutes(10));
+
+        assertThat(controle.adquirir(DATA)).isPresent();
+        controle.concluir(DATA);
+
+        assertThat(controle.adquirir(DATA)).isEmpty();
+        assertThat(instancia(Duration.ofMinutes(10)).adquirir(DATA)).isEmpty();
+        assertThat(controle.adquirir(DATA.plusDays(1))).contains(0L);
+    }
+
+    @Test
+    @DisplayName("Deve registrar os lembretes enviados, ignorando os já registrados")
+    void shouldRecordSentReminders() {
+        jdbcTemplate.update("INSERT INTO clinicas (id, nome_fantasia, subdominio) VALUES (910, 'Clínica', 'clinica-910')");
+        jdbcTemplate.update("INSERT INTO pacientes (id, clinic_id, nome, cpf) VALUES (910, 910, 'Paciente', '00000000910')");
+        jdbcTemplate.update("INSERT INTO medicos (id, clinic_id, nome, crm) VALUES (910, 910, 'Médico', 'CRM-910')");
+        for (long id = 910; id < 912; id++) {
+            jdbcTemplate.update("""
+                    INSERT INTO agendamentos (id, clinic_id, paciente_id, medico_id, data_consulta, hora_inicio,
+                        hora_fim, status, tipo_pagamento)
+                    VALUES (?, 910, 910, 910, ?, ?, ?, 'AGENDADO', 'PARTICULAR')
+                    """, id, DATA, LocalTime.of(8, 0).plusHours(id - 910),
+                    LocalTime.of(8, 30).plusHours(id - 910));
+        }
+
+        instancia(Duration.ofMinutes(10)).registrarEnviados(List.of(910L));
+        // Outra instância, que perdeu o lease no meio do lote, registra o mesmo lembrete
+        instancia(Duration.ofMinutes(10)).registrarEnviados(List.of(910L, 911L));
+        instancia(Duration.ofMinutes(10)).registrarEnviados(List.of());
+
+        assertThat(jdbcTemplate.queryForList("SELECT agendamento_id FROM lembretes_enviados ORDER BY 1", Long.class))
+                .containsExactly(910L, 911L);
+    }
+}
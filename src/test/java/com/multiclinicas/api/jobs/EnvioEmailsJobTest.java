@@ -0,0 +1,181 @@
+package com.multiclinicas.api.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.dtos.ResultadoEnvioEmailDTO;
+import com.multiclinicas.api.models.EmailPendente;
+import com.multiclinicas.api.models.enums.StatusEmail;
+import com.multiclinicas.api.repositories.EmailPendenteRepository;
+import com.multiclinicas.api.services.EmailService;
+
+@ExtendWith(MockitoExtension.class)
+public class EnvioEmailsJobTest {
+
+    @Mock
+    private EmailPendenteRepository emailPendenteRepository;
+
+    @Mock
+    private EmailService emailService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private EnvioEmailsJob job;
+
+    private static final ResultadoEnvioEmailDTO SEM_FALHAS = new ResultadoEnvioEmailDTO(List.of(), List.of());
+
+    // Separa do lote enviado as mensagens para os destinatários informados
+    private static Answer<ResultadoEnvioEmailDTO> falhar(boolean definitiva, String... destinatarios) {
+        return inv -> {
+            List<MensagemEmailDTO> falhas = inv.<List<MensagemEmailDTO>>getArgument(0).stream()
+                    .filter(m -> List.of(destinatarios).contains(m.destinatario()))
+                    .toList();
+            return definitiva ? new ResultadoEnvioEmailDTO(List.of(), falhas)
+                    : new ResultadoEnvioEmailDTO(falhas, List.of());
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        job = new EnvioEmailsJob(emailPendenteRepository, emailService, transactionTemplate, 2, 3,
+                Duration.ofSeconds(30), Duration.ofMinutes(1), Duration.ofMinutes(5));
+    }
+
+    // O registro relê o lote; aqui devolve as mesmas instâncias reservadas
+    private void reservar(List<EmailPendente> lote) {
+        when(emailPendenteRepository.findProntosParaEnvio(any(), any())).thenReturn(lote, List.of());
+        lenient().when(emailPendenteRepository.findAllById(anyList())).thenReturn(lote);
+    }
+
+    private EmailPendente email(long id, String destinatario) {
+        EmailPendente email = new EmailPendente();
+        email.setId(id);
+        email.setClinicId(1L);
+        email.setDestinatario(destinatario);
+        email.setAssunto("Assunto");
+        email.setMensagem("Mensagem");
+        email.setProximaTentativa(LocalDateTime.now().minusMinutes(1));
+        return email;
+    }
+
+    @Test
+    void deveMarcarComoEnviadosOsEmailsAceitos() {
+        EmailPendente email = email(1L, "a@teste.com");
+        reservar(List.of(email));
+        when(emailService.enviarEmails(anyList())).thenReturn(SEM_FALHAS);
+
+        job.enviarPendentes();
+
+        assertThat(email.getStatus()).isEqualTo(StatusEmail.ENVIADO);
+        assertThat(email.getEnviadoEm()).isNotNull();
+    }
+
+    @Test
+    void deveEnviarForaDaTransacaoDeReserva() {
+        EmailPendente email = email(1L, "a@teste.com");
+        reservar(List.of(email));
+        when(emailService.enviarEmails(anyList())).thenAnswer(inv -> {
+            // A reserva já foi gravada quando o SMTP é chamado
+            assertThat(email.getProximaTentativa()).isAfter(LocalDateTime.now().plusMinutes(4));
+            return SEM_FALHAS;
+        });
+
+        job.enviarPendentes();
+
+        InOrder ordem = inOrder(transactionManager, emailPendenteRepository, emailService);
+        ordem.verify(transactionManager).getTransaction(any());
+        ordem.verify(emailPendenteRepository).findProntosParaEnvio(any(), any());
+        ordem.verify(transactionManager).commit(any());
+        ordem.verify(emailService).enviarEmails(anyList());
+        ordem.verify(transactionManager).getTransaction(any());
+        ordem.verify(emailPendenteRepository).findAllById(List.of(1L));
+        ordem.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void deveReagendarComEsperaExponencialOsRecusados() {
+        EmailPendente aceito = email(1L, "a@teste.com");
+        EmailPendente recusado = email(2L, "b@teste.com");
+        recusado.setTentativas(1);
+        reservar(List.of(aceito, recusado));
+        when(emailService.enviarEmails(anyList())).thenAnswer(falhar(false, "b@teste.com"));
+
+        LocalDateTime antes = LocalDateTime.now();
+        job.enviarPendentes();
+
+        assertThat(aceito.getStatus()).isEqualTo(StatusEmail.ENVIADO);
+        assertThat(recusado.getStatus()).isEqualTo(StatusEmail.PENDENTE);
+        assertThat(recusado.getTentativas()).isEqualTo(2);
+        assertThat(recusado.getProximaTentativa()).isAfterOrEqualTo(antes.plusSeconds(60));
+        // Lote cheio: busca de novo até vir um lote incompleto
+        verify(emailPendenteRepository, times(2)).findProntosParaEnvio(any(), any());
+    }
+
+    @Test
+    void deveDesistirAposOLimiteDeTentativas() {
+        EmailPendente email = email(1L, "a@teste.com");
+        email.setTentativas(2);
+        reservar(List.of(email));
+        when(emailService.enviarEmails(anyList())).thenAnswer(falhar(false, "a@teste.com"));
+
+        job.enviarPendentes();
+
+        assertThat(email.getStatus()).isEqualTo(StatusEmail.FALHOU);
+        assertThat(email.getTentativas()).isEqualTo(3);
+    }
+
+    @Test
+    void deveDescartarNaHoraOsEnderecosInvalidos() {
+        EmailPendente aceito = email(1L, "a@teste.com");
+        EmailPendente invalido = email(2L, "nao-existe@teste.com");
+        reservar(List.of(aceito, invalido));
+        when(emailService.enviarEmails(anyList())).thenAnswer(falhar(true, "nao-existe@teste.com"));
+
+        job.enviarPendentes();
+
+        assertThat(aceito.getStatus()).isEqualTo(StatusEmail.ENVIADO);
+        assertThat(invalido.getStatus()).isEqualTo(StatusEmail.FALHOU);
+        assertThat(invalido.getTentativas()).isEqualTo(1);
+        assertThat(invalido.getEnviadoEm()).isNull();
+    }
+
+    @Test
+    void naoDeveChamarOServidorDeEmailSemPendentes() {
+        when(emailPendenteRepository.findProntosParaEnvio(any(), any())).thenReturn(List.of());
+
+        job.enviarPendentes();
+
+        verify(emailService, never()).enviarEmails(anyList());
+    }
+
+    @Test
+    void deveLimitarAEsperaMaxima() {
+        assertThat(job.espera(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(job.espera(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(job.espera(10)).isEqualTo(Duration.ofMinutes(1));
+    }
+}
@@ -1,35 +1,50 @@
 package com.multiclinicas.api.jobs;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.util.Arrays;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.stubbing.Answer;
 
-import com.multiclinicas.api.models.Agendamento;
-import com.multiclinicas.api.models.Medico;
-import com.multiclinicas.api.models.Paciente;
+import com.multiclinicas.api.dtos.LembreteAgendamentoDTO;
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.dtos.ResultadoEnvioEmailDTO;
+import com.multiclinicas.api.email.ModelosEmail;
 import com.multiclinicas.api.models.enums.StatusAgendamento;
 import com.multiclinicas.api.repositories.AgendamentoRepository;
+import com.multiclinicas.api.repositories.ClinicaRepository;
+import com.multiclinicas.api.repositories.ModeloEmailRepository;
 import com.multiclinicas.api.services.EmailService;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 public class LembreteAgendamentoJobTest {
 
-    @InjectMocks
+    private static final int TAMANHO_LOTE = 2;
+
     private LembreteAgendamentoJob lembreteJob;
 
     @Mock
@@ -38,40 +53,235 @@ public class LembreteAgendamentoJobTest {
     @Mock
     private EmailService emailService;
 
-    @Test
-    void deveDispararEmailParaAgendamentosDeAmanha() {
-        LocalDate amanha = LocalDate.now().plusDays(1);
-        
-        Paciente paciente = new Paciente();
-        paciente.setNome("João Silva");
-        paciente.setEmail("joao@teste.com");
+    @Mock
+    private ControleLembretes controle;
+
+    @Mock
+    private ModeloEmailRepository modeloEmailRepository;
+
+    @Mock
+    private ClinicaRepository clinicaRepository;
+
+    private SimpleMeterRegistry meterRegistry;
 
-        Medico medico = new Medico();
-        medico.setNome("Dr. House");
+    private final LocalDate amanha = LocalDate.now().plusDays(1);
 
-        Agendamento agendamento = new Agendamento();
-        agendamento.setPaciente(paciente);
-        agendamento.setMedico(medico);
-        agendamento.setDataConsulta(amanha);
-        agendamento.setHoraInicio(LocalTime.of(10, 0));
-        agendamento.setStatus(StatusAgendamento.AGENDADO);
+    private static final ResultadoEnvioEmailDTO SEM_FALHAS = new ResultadoEnvioEmailDTO(List.of(), List.of());
 
-        when(agendamentoRepository.findByDataConsultaAndStatus(amanha, StatusAgendamento.AGENDADO))
-                .thenReturn(Arrays.asList(agendamento));
+    // Separa do lote enviado as mensagens para os destinatários informados
+    private static Answer<ResultadoEnvioEmailDTO> falhar(boolean definitiva, String... destinatarios) {
+        return inv -> {
+            List<MensagemEmailDTO> falhas = inv.<List<MensagemEmailDTO>>getArgument(0).stream()
+                    .filter(m -> List.of(destinatarios).contains(m.destinatario()))
+                    .toList();
+            return definitiva ? new ResultadoEnvioEmailDTO(List.of(), falhas)
+                    : new ResultadoEnvioEmailDTO(falhas, List.of());
+        };
+    }
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ModelosEmail modelosEmail = new ModelosEmail(modeloEmailRepository, clinicaRepository, 100,
+                Duration.ofMinutes(1));
+        lembreteJob = new LembreteAgendamentoJob(agendamentoRepository, emailService, modelosEmail, controle,
+                meterRegistry, TAMANHO_LOTE, 10, 2, 0);
+        lenient().when(controle.adquirir(amanha)).thenReturn(Optional.of(0L));
+        lenient().when(controle.avancar(eq(amanha), any())).thenReturn(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lembreteJob.encerrar();
+    }
+
+    private LembreteAgendamentoDTO lembrete(long id, long clinicId, String email) {
+        return new LembreteAgendamentoDTO(id, clinicId, "Paciente " + id, email, "Dr. House", amanha,
+                LocalTime.of(10, 0));
+    }
+
+    @Test
+    void deveDispararEmailParaAgendamentosDeAmanha() {
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(0L), any()))
+                .thenReturn(List.of(lembrete(1L, 1L, "joao@teste.com")));
+        when(emailService.enviarEmails(anyList())).thenReturn(SEM_FALHAS);
 
         lembreteJob.dispararLembretesDeConsulta();
 
-        verify(emailService, times(1)).enviarEmail(eq("joao@teste.com"), anyString(), anyString());
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<MensagemEmailDTO>> captor = ArgumentCaptor.forClass(List.class);
+        verify(emailService).enviarEmails(captor.capture());
+        assertThat(captor.getValue()).singleElement().satisfies(m -> {
+            assertThat(m.destinatario()).isEqualTo("joao@teste.com");
+            assertThat(m.mensagem()).contains("Paciente 1", "Dr. House", "10:00",
+                    amanha.format(DateTimeFormatter.ofPattern("dd/MM/yyyy")));
+        });
+        assertThat(meterRegistry.counter("lembretes.enviados").count()).isEqualTo(1);
     }
 
     @Test
     void naoDeveDispararEmailSeNaoHouverAgendamentos() {
-        LocalDate amanha = LocalDate.now().plusDays(1);
-        when(agendamentoRepository.findByDataConsultaAndStatus(amanha, StatusAgendamento.AGENDADO))
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(0L), any()))
                 .thenReturn(Collections.emptyList());
 
         lembreteJob.dispararLembretesDeConsulta();
 
-        verify(emailService, never()).enviarEmail(anyString(), anyString(), anyString());
+        verify(emailService, never()).enviarEmails(anyList());
+    }
+
+    @Test
+    void devePercorrerOsAgendamentosEmLotesPorId() {
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(0L), any()))
+                .thenReturn(List.of(lembrete(1L, 1L, "a@teste.com"), lembrete(2L, 1L, "b@teste.com")));
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(2L), any()))
+                .thenReturn(List.of(lembrete(3L, 1L, "c@teste.com")));
+        when(emailService.enviarEmails(anyList())).thenReturn(SEM_FALHAS);
+
+        lembreteJob.dispararLembretesDeConsulta();
+
+        // O segundo lote veio incompleto: não há terceira consulta
+        verify(agendamentoRepository, times(2)).findLembretes(any(), any(), any(), any());
+        verify(emailService, times(2)).enviarEmails(anyList());
+        assertThat(meterRegistry.counter("lembretes.enviados").count()).isEqualTo(3);
+        verify(controle).avancar(amanha, 2L);
+        verify(controle).avancar(amanha, 3L);
+        verify(controle).concluir(amanha);
+    }
+
+    @Test
+    void deveEnviarSeparadoPorClinicaEIgnorarEmailEmBranco() {
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(0L), any()))
+                .thenReturn(List.of(lembrete(1L, 1L, "a@teste.com"), lembrete(2L, 2L, "  ")));
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(2L), any()))
+                .thenReturn(List.of(lembrete(3L, 2L, "c@teste.com")));
+        when(emailService.enviarEmails(anyList())).thenReturn(SEM_FALHAS);
+
+        lembreteJob.dispararLembretesDeConsulta();
+
+        verify(emailService, times(2)).enviarEmails(anyList());
+        assertThat(meterRegistry.counter("lembretes.enviados").count()).isEqualTo(2);
+    }
+
+    @Test
+    void deveContarFalhasDoServidorDeEmail() {
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(0L), any()))
+                .thenReturn(List.of(lembrete(1L, 1L, "a@teste.com")));
+        when(emailService.enviarEmails(anyList())).thenThrow(new IllegalStateException("SMTP fora do ar"));
+
+        lembreteJob.dispararLembretesDeConsulta();
+
+        assertThat(meterRegistry.counter("lembretes.falhas").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("lembretes.enviados").count()).isZero();
+        verify(controle).avancar(amanha, 0L);
+        verify(controle, never()).concluir(any());
+    }
+
+    @Test
+    void naoDeveProcessarSemOLeaseDaData() {
+        when(controle.adquirir(amanha)).thenReturn(Optional.empty());
+
+        lembreteJob.dispararLembretesDeConsulta();
+
+        verify(agendamentoRepository, never()).findLembretes(any(), any(), any(), any());
+        verify(controle, never()).concluir(any());
+    }
+
+    @Test
+    void deveRetomarAPartirDoCheckpoint() {
+        when(controle.adquirir(amanha)).thenReturn(Optional.of(40L));
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(40L), any()))
+                .thenReturn(List.of(lembrete(41L, 1L, "a@teste.com")));
+        when(emailService.enviarEmails(anyList())).thenReturn(SEM_FALHAS);
+
+        lembreteJob.dispararLembretesDeConsulta();
+
+        verify(agendamentoRepository, never()).findLembretes(any(), any(), eq(0L), any());
+        verify(controle).registrarEnviados(List.of(41L));
+        verify(controle).concluir(amanha);
+    }
+
+    @Test
+    void devePararAoPerderOLease() {
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(0L), any()))
+                .thenReturn(List.of(lembrete(1L, 1L, "a@teste.com"), lembrete(2L, 1L, "b@teste.com")));
+        when(emailService.enviarEmails(anyList())).thenReturn(SEM_FALHAS);
+        when(controle.avancar(amanha, 2L)).thenReturn(false);
+
+        lembreteJob.dispararLembretesDeConsulta();
+
+        verify(agendamentoRepository, times(1)).findLembretes(any(), any(), any(), any());
+        verify(controle, never()).concluir(any());
+    }
+
+    @Test
+    void naoDeveRegistrarNemEsperarPorEnderecosInvalidos() {
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(0L), any()))
+                .thenReturn(List.of(lembrete(1L, 1L, "a@teste.com"), lembrete(2L, 1L, "invalido")));
+        when(emailService.enviarEmails(anyList())).thenAnswer(falhar(true, "invalido"));
+
+        lembreteJob.dispararLembretesDeConsulta();
+
+        verify(controle).registrarEnviados(List.of(1L));
+        assertThat(meterRegistry.counter("lembretes.enviados").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("lembretes.falhas").count()).isEqualTo(1);
+        // Nenhuma nova tentativa daria certo: a data é concluída mesmo assim
+        verify(controle).avancar(amanha, 2L);
+        verify(controle).concluir(amanha);
+    }
+
+    @Test
+    void deveReenviarRecusadosNaExecucaoSeguinte() {
+        when(controle.adquirir(amanha)).thenReturn(Optional.of(0L), Optional.of(1L));
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(0L), any()))
+                .thenReturn(List.of(lembrete(1L, 1L, "a@teste.com"), lembrete(2L, 1L, "b@teste.com")));
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(2L), any()))
+                .thenReturn(List.of(lembrete(3L, 1L, "c@teste.com")));
+        // Na segunda execução o 1 já consta como enviado e não volta na consulta
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(1L), any()))
+                .thenReturn(List.of(lembrete(2L, 1L, "b@teste.com")));
+        when(emailService.enviarEmails(anyList()))
+                .thenAnswer(falhar(false, "b@teste.com"))
+                .thenReturn(SEM_FALHAS);
+
+        lembreteJob.dispararLembretesDeConsulta();
+
+        // O checkpoint para antes do recusado, mesmo com o lote seguinte enviado
+        verify(controle, times(2)).avancar(amanha, 1L);
+        verify(controle).registrarEnviados(List.of(1L));
+        verify(controle).registrarEnviados(List.of(3L));
+        verify(controle, never()).concluir(any());
+
+        lembreteJob.dispararLembretesDeConsulta();
+
+        verify(controle).registrarEnviados(List.of(2L));
+        verify(controle).avancar(amanha, 2L);
+        verify(controle).concluir(amanha);
+    }
+
+    @Test
+    void clinicaNoLimiteNaoDeveAtrasarAsDemais() {
+        // 120 por minuto, um e-mail por envio: a clínica 1 só pode enviar a cada
+        // 500 ms, e com duas threads ela ocuparia as duas se esperasse dormindo
+        LembreteAgendamentoJob job = new LembreteAgendamentoJob(agendamentoRepository, emailService,
+                new ModelosEmail(modeloEmailRepository, clinicaRepository, 100, Duration.ofMinutes(1)), controle,
+                meterRegistry, 10, 1, 2, 120);
+        when(agendamentoRepository.findLembretes(eq(amanha), eq(StatusAgendamento.AGENDADO), eq(0L), any()))
+                .thenReturn(List.of(lembrete(1L, 1L, "a@teste.com"), lembrete(2L, 1L, "b@teste.com"),
+                        lembrete(3L, 1L, "c@teste.com"), lembrete(4L, 2L, "leve@teste.com")));
+        List<String> ordem = Collections.synchronizedList(new ArrayList<>());
+        when(emailService.enviarEmails(anyList())).thenAnswer(inv -> {
+            ordem.add(inv.<List<MensagemEmailDTO>>getArgument(0).get(0).destinatario());
+            return SEM_FALHAS;
+        });
+
+        try {
+            job.dispararLembretesDeConsulta();
+        } finally {
+            job.encerrar();
+        }
+
+        assertThat(ordem).hasSize(4);
+        assertThat(ordem.indexOf("leve@teste.com")).isLessThan(ordem.indexOf("b@teste.com"));
+        verify(controle).concluir(amanha);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,44 @@
+package com.multiclinicas.api.jobs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class LimitadorPorClinicaTest {
+
+    private static final long UM_SEGUNDO = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    @DisplayName("Deve espaçar os envios de uma clínica conforme a taxa por minuto")
+    void shouldSpaceSendsPerClinic() {
+        LimitadorPorClinica limitador = new LimitadorPorClinica(60);
+
+        assertThat(limitador.reservar(1L, 10, 0)).isZero();
+        assertThat(limitador.reservar(1L, 10, 0)).isEqualTo(10 * UM_SEGUNDO);
+        // Outra clínica não espera pela primeira
+        assertThat(limitador.reservar(2L, 10, 0)).isZero();
+    }
+
+    @Test
+    @DisplayName("Não deve acumular crédito enquanto a clínica fica ociosa")
+    void shouldNotAccumulateIdleCredit() {
+        LimitadorPorClinica limitador = new LimitadorPorClinica(60);
+
+        limitador.reservar(1L, 10, 0);
+
+        assertThat(limitador.reservar(1L, 10, 60 * UM_SEGUNDO)).isZero();
+        assertThat(limitador.reservar(1L, 1, 60 * UM_SEGUNDO)).isEqualTo(10 * UM_SEGUNDO);
+    }
+
+    @Test
+    @DisplayName("Deve liberar tudo quando o limite estiver desligado")
+    void shouldNotLimitWhenDisabled() {
+        LimitadorPorClinica limitador = new LimitadorPorClinica(0);
+
+        assertThat(limitador.reservar(1L, 1000, 0)).isZero();
+        assertThat(limitador.reservar(1L, 1000, 0)).isZero();
+    }
+}
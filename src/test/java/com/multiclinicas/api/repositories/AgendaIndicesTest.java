@@ -0,0 +1,74 @@
+package com.multiclinicas.api.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Garante que as consultas mais frequentes da agenda continuam usando os
+ * índices compostos da migration V4. O SQL reproduz o que o Hibernate gera para
+ * as consultas do repositório.
+ */
+@JdbcTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class AgendaIndicesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String plano(String sql) {
+        return jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+    }
+
+    @Test
+    @DisplayName("Validação de conflito deve usar o índice de conflito")
+    void conflictCheckShouldUseCompositeIndex() {
+        String plano = plano("""
+                SELECT COUNT(*) FROM agendamentos a
+                WHERE a.clinic_id = 1 AND a.medico_id = 2 AND a.data_consulta = DATE '2030-01-07'
+                  AND a.status NOT IN ('CANCELADO_CLINICA', 'CANCELADO_PACIENTE')
+                  AND a.hora_inicio < TIME '10:00' AND a.hora_fim > TIME '09:30'
+                """);
+
+        assertThat(plano).contains("idx_agendamentos_conflito");
+    }
+
+    @Test
+    @DisplayName("Horários ocupados da disponibilidade devem usar o índice de conflito")
+    void occupiedIntervalsShouldUseCompositeIndex() {
+        String plano = plano("""
+                SELECT a.medico_id, a.data_consulta, a.hora_inicio, a.hora_fim FROM agendamentos a
+                WHERE a.clinic_id = 1 AND a.medico_id IN (1, 2, 3)
+                  AND a.data_consulta BETWEEN DATE '2030-01-07' AND DATE '2030-01-20'
+                  AND a.status NOT IN ('CANCELADO_CLINICA', 'CANCELADO_PACIENTE')
+                """);
+
+        assertThat(plano).contains("idx_agendamentos_conflito");
+    }
+
+    @Test
+    @DisplayName("Job de lembretes deve usar o índice por data e status")
+    void reminderJobShouldUseDateStatusIndex() {
+        String plano = plano("""
+                SELECT a.id FROM agendamentos a
+                WHERE a.data_consulta = DATE '2030-01-07' AND a.status = 'AGENDADO'
+                """);
+
+        assertThat(plano).contains("idx_agendamentos_data_status");
+    }
+
+    @Test
+    @DisplayName("Grade do médico no dia deve usar o índice por médico e dia da semana")
+    void gradeLookupShouldUseDoctorDayIndex() {
+        String plano = plano("SELECT g.id FROM grades_horario g WHERE g.medico_id = 1 AND g.dia_semana = 1");
+
+        assertThat(plano).contains("idx_grades_medico_dia");
+    }
+}
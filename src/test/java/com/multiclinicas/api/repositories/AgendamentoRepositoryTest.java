@@ -0,0 +1,228 @@
+package com.multiclinicas.api.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.multiclinicas.api.dtos.AgendamentoDTO;
+import com.multiclinicas.api.dtos.LembreteAgendamentoDTO;
+import com.multiclinicas.api.models.Agendamento;
+import com.multiclinicas.api.models.Clinica;
+import com.multiclinicas.api.models.Medico;
+import com.multiclinicas.api.models.Paciente;
+import com.multiclinicas.api.models.enums.StatusAgendamento;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class AgendamentoRepositoryTest {
+
+    private static final Long CLINIC_ID = 900L;
+    private static final Long PACIENTE_ID = 900L;
+
+    @Autowired
+    private AgendamentoRepository agendamentoRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        jdbcTemplate.update("INSERT INTO clinicas (id, nome_fantasia, subdominio) VALUES (?, 'Clínica', 'clinica-900')",
+                CLINIC_ID);
+        jdbcTemplate.update("INSERT INTO pacientes (id, clinic_id, nome, cpf) VALUES (?, ?, 'Paciente', '00000000900')",
+                PACIENTE_ID, CLINIC_ID);
+    }
+
+    // Cada agendamento com médico e plano diferentes: o pior caso para N+1
+    private void criarAgendamentos(int quantidade, long primeiroId) {
+        LocalDate data = LocalDate.of(2030, 1, 7);
+        for (long id = primeiroId; id < primeiroId + quantidade; id++) {
+            jdbcTemplate.update("INSERT INTO medicos (id, clinic_id, nome, crm) VALUES (?, ?, ?, ?)",
+                    id, CLINIC_ID, "Médico " + id, "CRM-" + id);
+            jdbcTemplate.update("INSERT INTO planos_saude (id, clinic_id, nome) VALUES (?, ?, ?)",
+                    id, CLINIC_ID, "Plano " + id);
+            jdbcTemplate.update("""
+                    INSERT INTO agendamentos (id, clinic_id, paciente_id, medico_id, data_consulta, hora_inicio,
+                        hora_fim, status, tipo_pagamento, plano_saude_id)
+                    VALUES (?, ?, ?, ?, ?, ?, ?, 'AGENDADO', 'CONVENIO', ?)
+                    """, id, CLINIC_ID, PACIENTE_ID, id, data, LocalTime.of(8, 0), LocalTime.of(8, 30), id);
+        }
+        entityManager.clear();
+    }
+
+    private long contarStatements(Supplier<List<AgendamentoDTO>> consulta, int esperados) {
+        statistics.clear();
+        List<AgendamentoDTO> resultado = consulta.get();
+        assertThat(resultado).hasSize(esperados);
+        assertThat(resultado).allSatisfy(dto -> {
+            assertThat(dto.nomeMedico()).startsWith("Médico");
+            assertThat(dto.nomePlanoSaude()).startsWith("Plano");
+        });
+        return statistics.getPrepareStatementCount();
+    }
+
+    @Test
+    @DisplayName("Listagem paginada deve usar uma única consulta independentemente do número de linhas")
+    void findPaginaShouldUseSingleStatement() {
+        criarAgendamentos(1, 1000);
+        long comUm = contarStatements(() -> agendamentoRepository.findPagina(CLINIC_ID, null, null, null, null, null,
+                null, null, null, Limit.of(100)), 1);
+
+        criarAgendamentos(30, 2000);
+        long comTrintaEUm = contarStatements(() -> agendamentoRepository.findPagina(CLINIC_ID, null, null, null, null,
+                null, null, null, null, Limit.of(100)), 31);
+
+        assertThat(comUm).isEqualTo(1);
+        assertThat(comTrintaEUm).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Agendamentos do paciente devem usar uma única consulta independentemente do número de linhas")
+    void findDTOsByPacienteShouldUseSingleStatement() {
+        criarAgendamentos(1, 1000);
+        long comUm = contarStatements(
+                () -> agendamentoRepository.findDTOsByPacienteIdAndClinicaId(PACIENTE_ID, CLINIC_ID), 1);
+
+        criarAgendamentos(30, 2000);
+        long comTrintaEUm = contarStatements(
+                () -> agendamentoRepository.findDTOsByPacienteIdAndClinicaId(PACIENTE_ID, CLINIC_ID), 31);
+
+        assertThat(comUm).isEqualTo(1);
+        assertThat(comTrintaEUm).isEqualTo(1);
+    }
+
+    private Agendamento novoAgendamento(long medicoId, LocalTime inicio, LocalTime fim) {
+        Agendamento agendamento = new Agendamento();
+        agendamento.setClinica(entityManager.getReference(Clinica.class, CLINIC_ID));
+        agendamento.setPaciente(entityManager.getReference(Paciente.class, PACIENTE_ID));
+        agendamento.setMedico(entityManager.getReference(Medico.class, medicoId));
+        agendamento.setDataConsulta(LocalDate.of(2030, 1, 7));
+        agendamento.setHoraInicio(inicio);
+        agendamento.setHoraFim(fim);
+        agendamento.setStatus(StatusAgendamento.AGENDADO);
+        return agendamento;
+    }
+
+    @Test
+    @DisplayName("Banco deve rejeitar agendamento que sobrepõe outro do mesmo médico com início diferente")
+    void shouldRejectOverlappingAppointment() {
+        criarAgendamentos(1, 1000);
+
+        assertThatThrownBy(() -> agendamentoRepository.saveAndFlush(
+                novoAgendamento(1000L, LocalTime.of(8, 15), LocalTime.of(8, 45))))
+                .isInstanceOf(DataIntegrityViolationException.class)
+                .hasStackTraceContaining("ex_agendamentos_sem_sobreposicao");
+    }
+
+    @Test
+    @DisplayName("Banco deve aceitar horários adjacentes e o mesmo horário para outro médico")
+    void shouldAcceptAdjacentAndOtherDoctor() {
+        criarAgendamentos(2, 1000);
+
+        agendamentoRepository.saveAndFlush(novoAgendamento(1000L, LocalTime.of(8, 30), LocalTime.of(9, 0)));
+        agendamentoRepository.saveAndFlush(novoAgendamento(1001L, LocalTime.of(8, 30), LocalTime.of(9, 0)));
+
+        assertThat(agendamentoRepository.count()).isEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Banco deve liberar o horário de um agendamento cancelado")
+    void shouldAllowRebookingCancelledSlot() {
+        criarAgendamentos(1, 1000);
+        jdbcTemplate.update("UPDATE agendamentos SET status = 'CANCELADO_PACIENTE' WHERE id = 1000");
+
+        Agendamento novo = agendamentoRepository.saveAndFlush(
+                novoAgendamento(1000L, LocalTime.of(8, 0), LocalTime.of(8, 30)));
+
+        assertThat(novo.getId()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Inserções em lote devem reservar ids em blocos e agrupar os INSERTs")
+    void saveAllShouldBatchInserts() {
+        criarAgendamentos(1, 1000);
+        List<Agendamento> novos = new ArrayList<>();
+        for (int i = 1; i <= 20; i++) {
+            LocalTime inicio = LocalTime.of(8, 0).plusMinutes(30L * i);
+            novos.add(novoAgendamento(1000L, inicio, inicio.plusMinutes(30)));
+        }
+
+        statistics.clear();
+        agendamentoRepository.saveAll(novos);
+        agendamentoRepository.flush();
+
+        // Até duas chamadas à sequência (a primeira do otimizador pode pedir duas) e um INSERT em lote
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(20);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Lembretes devem vir em lotes por id, só do dia e status pedidos e de pacientes com e-mail")
+    void findLembretesShouldPageByIdAndFilter() {
+        jdbcTemplate.update("UPDATE pacientes SET email = 'paciente@teste.com' WHERE id = ?", PACIENTE_ID);
+        criarAgendamentos(5, 1000);
+        jdbcTemplate.update("UPDATE agendamentos SET status = 'CONFIRMADO' WHERE id = 1001");
+        LocalDate data = LocalDate.of(2030, 1, 7);
+
+        statistics.clear();
+        List<LembreteAgendamentoDTO> primeiro = agendamentoRepository.findLembretes(data,
+                StatusAgendamento.AGENDADO, 0L, Limit.of(2));
+        List<LembreteAgendamentoDTO> segundo = agendamentoRepository.findLembretes(data,
+                StatusAgendamento.AGENDADO, primeiro.get(1).id(), Limit.of(2));
+
+        assertThat(primeiro).extracting(LembreteAgendamentoDTO::id).containsExactly(1000L, 1002L);
+        assertThat(segundo).extracting(LembreteAgendamentoDTO::id).containsExactly(1003L, 1004L);
+        assertThat(segundo.get(0).emailPaciente()).isEqualTo("paciente@teste.com");
+        assertThat(segundo.get(0).nomeMedico()).isEqualTo("Médico 1003");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+
+        jdbcTemplate.update("UPDATE pacientes SET email = NULL WHERE id = ?", PACIENTE_ID);
+        assertThat(agendamentoRepository.findLembretes(data, StatusAgendamento.AGENDADO, 0L, Limit.of(2))).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findLembretes deve ignorar agendamentos já lembrados")
+    void findLembretesShouldSkipRemindersAlreadySent() {
+        jdbcTemplate.update("UPDATE pacientes SET email = 'paciente@teste.com' WHERE id = ?", PACIENTE_ID);
+        criarAgendamentos(3, 1100);
+        jdbcTemplate.update("INSERT INTO lembretes_enviados (agendamento_id, enviado_em) VALUES (1101, ?)",
+                LocalDateTime.now());
+
+        List<LembreteAgendamentoDTO> lembretes = agendamentoRepository.findLembretes(LocalDate.of(2030, 1, 7),
+                StatusAgendamento.AGENDADO, 0L, Limit.of(10));
+
+        assertThat(lembretes).extracting(LembreteAgendamentoDTO::id).containsExactly(1100L, 1102L);
+    }
+}
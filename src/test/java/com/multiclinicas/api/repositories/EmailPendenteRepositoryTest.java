@@ -0,0 +1,68 @@
+package com.multiclinicas.api.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.multiclinicas.api.models.EmailPendente;
+import com.multiclinicas.api.services.CaixaSaidaEmailService;
+import com.multiclinicas.api.services.CaixaSaidaEmailServiceImpl;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(CaixaSaidaEmailServiceImpl.class)
+class EmailPendenteRepositoryTest {
+
+    private static final Long CLINIC_ID = 920L;
+
+    @Autowired
+    private EmailPendenteRepository emailPendenteRepository;
+
+    @Autowired
+    private CaixaSaidaEmailService caixaSaidaEmailService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Deve buscar só os pendentes cuja tentativa já venceu, em ordem de id")
+    void shouldFindDueEmailsInIdOrder() {
+        jdbcTemplate.update("INSERT INTO clinicas (id, nome_fantasia, subdominio) VALUES (?, 'Clínica', 'clinica-920')",
+                CLINIC_ID);
+        caixaSaidaEmailService.enfileirar(CLINIC_ID, "a@teste.com", "Assunto", "Mensagem");
+        caixaSaidaEmailService.enfileirar(CLINIC_ID, "b@teste.com", "Assunto", "Mensagem");
+        caixaSaidaEmailService.enfileirar(CLINIC_ID, "c@teste.com", "Assunto", "Mensagem");
+        emailPendenteRepository.flush();
+        jdbcTemplate.update("UPDATE emails_pendentes SET status = 'ENVIADO' WHERE destinatario = 'b@teste.com'");
+        jdbcTemplate.update("UPDATE emails_pendentes SET proxima_tentativa = ? WHERE destinatario = 'c@teste.com'",
+                LocalDateTime.now().plusMinutes(5));
+
+        List<EmailPendente> prontos = emailPendenteRepository.findProntosParaEnvio(LocalDateTime.now(), Limit.of(10));
+
+        assertThat(prontos).extracting(EmailPendente::getDestinatario).containsExactly("a@teste.com");
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    @DisplayName("Deve exigir a transação da operação que gera o e-mail")
+    void shouldRequireCallerTransaction() {
+        assertThatThrownBy(() -> caixaSaidaEmailService.enfileirar(CLINIC_ID, "a@teste.com", "Assunto", "Mensagem"))
+                .isInstanceOf(IllegalTransactionStateException.class);
+    }
+}
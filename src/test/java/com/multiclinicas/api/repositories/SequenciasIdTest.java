@@ -0,0 +1,102 @@
+package com.multiclinicas.api.repositories;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.multiclinicas.api.models.Clinica;
+import com.multiclinicas.api.models.Endereco;
+import com.multiclinicas.api.models.Medico;
+import com.multiclinicas.api.models.Paciente;
+import com.multiclinicas.api.models.UsuarioAdmin;
+import com.multiclinicas.api.models.enums.Role;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cada entidade com id por sequência (V10) precisa usar a sequência da própria
+ * tabela, inclusive as três que estendem BaseUsuario.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class SequenciasIdTest {
+
+    private static final Long CLINIC_ID = 930L;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Deve gerar o id de cada entidade na sequência da própria tabela")
+    void shouldUseOwnSequencePerEntity() {
+        jdbcTemplate.update("INSERT INTO clinicas (id, nome_fantasia, subdominio) VALUES (?, 'Clínica', 'clinica-930')",
+                CLINIC_ID);
+        Clinica clinica = entityManager.find(Clinica.class, CLINIC_ID);
+
+        Endereco endereco = new Endereco();
+        endereco.setCidade("Recife");
+
+        Paciente paciente = new Paciente();
+        paciente.setClinica(clinica);
+        paciente.setNome("Paciente");
+        paciente.setCpf("52998224725");
+        paciente.setEndereco(endereco);
+
+        Medico medico = new Medico();
+        medico.setClinica(clinica);
+        medico.setNome("Médico");
+        medico.setCrm("CRM-930");
+
+        UsuarioAdmin admin = new UsuarioAdmin();
+        admin.setClinica(clinica);
+        admin.setNome("Admin");
+        admin.setEmail("admin@clinica-930.com");
+        admin.setSenhaHash("hash");
+        admin.setRole(Role.ADMIN);
+
+        entityManager.persist(paciente);
+        entityManager.persist(medico);
+        entityManager.persist(admin);
+        entityManager.flush();
+
+        assertSequencia(Paciente.class, paciente.getId(), "pacientes_id_seq");
+        assertSequencia(Medico.class, medico.getId(), "medicos_id_seq");
+        assertSequencia(UsuarioAdmin.class, admin.getId(), "usuarios_admin_id_seq");
+        assertSequencia(Endereco.class, endereco.getId(), "enderecos_id_seq");
+    }
+
+    // O gerador aponta para a sequência e o id está abaixo do próximo valor dela
+    // (o otimizador pooled entrega ids até o último valor lido da sequência)
+    private void assertSequencia(Class<?> entidade, Long id, String sequencia) {
+        SequenceStyleGenerator gerador = (SequenceStyleGenerator) entityManagerFactory
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(entidade)
+                .getGenerator();
+        assertThat(gerador.getDatabaseStructure().getPhysicalName().getObjectName().getText())
+                .as(entidade.getSimpleName())
+                .isEqualTo(sequencia);
+        assertThat(gerador.getDatabaseStructure().getIncrementSize()).isEqualTo(50);
+
+        Long proximo = jdbcTemplate.queryForObject(
+                "SELECT base_value FROM information_schema.sequences WHERE sequence_name = ?", Long.class,
+                sequencia);
+        assertThat(id).as(entidade.getSimpleName()).isNotNull().isLessThan(proximo);
+    }
+}
@@ -0,0 +1,86 @@
+package com.multiclinicas.api.repositories;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import org.h2.api.Trigger;
+
+/**
+ * Reproduz no H2 a constraint {@code ex_agendamentos_sem_sobreposicao} do
+ * PostgreSQL (migration V5): um agendamento ativo não pode sobrepor outro do
+ * mesmo médico na mesma clínica e data. Usada apenas pelos testes.
+ */
+public class SobreposicaoAgendamentoTrigger implements Trigger {
+
+    private static final Set<String> CANCELADOS = Set.of("CANCELADO_CLINICA", "CANCELADO_PACIENTE");
+
+    private static final String FIM_DO_DIA = "TIME '23:59:59.999999999'";
+
+    private static final String SQL_SOBREPOSICAO = """
+            SELECT COUNT(*) FROM agendamentos a
+            WHERE a.clinic_id = ? AND a.medico_id = ? AND a.data_consulta = ?
+              AND (CAST(? AS BIGINT) IS NULL OR a.id <> ?)
+              AND a.status NOT IN ('CANCELADO_CLINICA', 'CANCELADO_PACIENTE')
+              AND a.hora_inicio < CASE WHEN CAST(? AS TIME) > CAST(? AS TIME) THEN CAST(? AS TIME) ELSE %1$s END
+              AND CASE WHEN a.hora_fim > a.hora_inicio THEN a.hora_fim ELSE %1$s END > CAST(? AS TIME)
+            """.formatted(FIM_DO_DIA);
+
+    private final Map<String, Integer> colunas = new HashMap<>();
+
+    @Override
+    public void init(Connection conn, String schemaName, String triggerName, String tableName, boolean before,
+            int type) throws SQLException {
+        try (PreparedStatement ps = conn.prepareStatement("""
+                SELECT LOWER(column_name), ordinal_position FROM information_schema.columns
+                WHERE LOWER(table_schema) = LOWER(?) AND LOWER(table_name) = LOWER(?)
+                """)) {
+            ps.setString(1, schemaName);
+            ps.setString(2, tableName);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    colunas.put(rs.getString(1), rs.getInt(2) - 1);
+                }
+            }
+        }
+    }
+
+    @Override
+    public void fire(Connection conn, Object[] oldRow, Object[] newRow) throws SQLException {
+        if (CANCELADOS.contains(String.valueOf(valor(newRow, "status")))) {
+            return;
+        }
+
+        Object id = valor(newRow, "id");
+        Object inicio = valor(newRow, "hora_inicio");
+        Object fim = valor(newRow, "hora_fim");
+
+        try (PreparedStatement ps = conn.prepareStatement(SQL_SOBREPOSICAO)) {
+            ps.setObject(1, valor(newRow, "clinic_id"));
+            ps.setObject(2, valor(newRow, "medico_id"));
+            ps.setObject(3, valor(newRow, "data_consulta"));
+            ps.setObject(4, id);
+            ps.setObject(5, id);
+            ps.setObject(6, fim);
+            ps.setObject(7, inicio);
+            ps.setObject(8, fim);
+            ps.setObject(9, inicio);
+            try (ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                if (rs.getLong(1) > 0) {
+                    throw new SQLException(
+                            "conflicting key value violates exclusion constraint \"ex_agendamentos_sem_sobreposicao\"",
+                            "23P01");
+                }
+            }
+        }
+    }
+
+    private Object valor(Object[] linha, String coluna) {
+        return linha[colunas.get(coluna)];
+    }
+}
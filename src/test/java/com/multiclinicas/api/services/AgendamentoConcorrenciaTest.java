@@ -0,0 +1,151 @@
+package com.multiclinicas.api.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.multiclinicas.api.dtos.AgendamentoCreateDTO;
+import com.multiclinicas.api.exceptions.ResourceConflictException;
+import com.multiclinicas.api.models.enums.TipoPagamento;
+
+/**
+ * Dispara milhares de agendamentos em paralelo contra poucos médicos, com
+ * horários desalinhados da duração da consulta (sobreposições com início
+ * diferente), e verifica que nenhum par de agendamentos ativos se sobrepõe.
+ */
+@SpringBootTest(properties = { "spring.jpa.show-sql=false", "logging.level.org.hibernate.SQL=WARN",
+        "api.agenda.lock.timeout=PT5S" })
+@ActiveProfiles("test")
+class AgendamentoConcorrenciaTest {
+
+    private static final long CLINIC_ID = 7000L;
+    private static final int MEDICOS = 8;
+    private static final int PACIENTES = 50;
+    private static final int AGENDAMENTOS = 2000;
+    private static final int THREADS = 16;
+    // Bem abaixo de api.agenda.lock.timeout, para que espera por trava apareça
+    private static final long ESPERA_MAXIMA_MS = 2000;
+    private static final String TRAVA_ESGOTADA = "está sendo alterada por outra solicitação";
+
+    @Autowired
+    private AgendamentoService agendamentoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private LocalDate data;
+
+    @BeforeEach
+    void setUp() {
+        data = LocalDate.now().plusDays(1).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+        jdbcTemplate.update("INSERT INTO clinicas (id, nome_fantasia, subdominio) VALUES (?, 'Clínica', 'stress')",
+                CLINIC_ID);
+        for (long medico = 1; medico <= MEDICOS; medico++) {
+            jdbcTemplate.update("""
+                    INSERT INTO medicos (id, clinic_id, nome, crm, duracao_consulta) VALUES (?, ?, ?, ?, 30)
+                    """, CLINIC_ID + medico, CLINIC_ID, "Médico " + medico, "STRESS-" + medico);
+            jdbcTemplate.update("""
+                    INSERT INTO grades_horario (medico_id, dia_semana, hora_inicio, hora_fim)
+                    VALUES (?, ?, TIME '08:00', TIME '18:00')
+                    """, CLINIC_ID + medico, data.getDayOfWeek().getValue());
+        }
+        for (long paciente = 1; paciente <= PACIENTES; paciente++) {
+            jdbcTemplate.update("INSERT INTO pacientes (id, clinic_id, nome, cpf) VALUES (?, ?, ?, ?)",
+                    CLINIC_ID + paciente, CLINIC_ID, "Paciente " + paciente, "STRESS-" + paciente);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM clinicas WHERE id = ?", CLINIC_ID);
+    }
+
+    @Test
+    @DisplayName("Agendamentos concorrentes não devem gerar sobreposição")
+    void concurrentBookingsShouldNeverOverlap() throws Exception {
+        Random random = new Random(42);
+        List<AgendamentoCreateDTO> pedidos = new ArrayList<>();
+        for (int i = 0; i < AGENDAMENTOS; i++) {
+            // Inícios a cada 10 minutos com consultas de 30: a maioria colide
+            LocalTime inicio = LocalTime.of(8, 0).plusMinutes(10L * random.nextInt(57));
+            pedidos.add(new AgendamentoCreateDTO(CLINIC_ID + 1 + random.nextInt(PACIENTES),
+                    CLINIC_ID + 1 + random.nextInt(MEDICOS), data, inicio, TipoPagamento.PARTICULAR, null, null));
+        }
+
+        AtomicInteger criados = new AtomicInteger();
+        AtomicInteger conflitos = new AtomicInteger();
+        AtomicInteger travasEsgotadas = new AtomicInteger();
+        List<Long> latencias = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch largada = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (AgendamentoCreateDTO pedido : pedidos) {
+            tarefas.add(executor.submit(() -> {
+                largada.await();
+                long inicio = System.nanoTime();
+                try {
+                    agendamentoService.create(CLINIC_ID, pedido);
+                    criados.incrementAndGet();
+                } catch (ResourceConflictException ex) {
+                    conflitos.incrementAndGet();
+                    if (ex.getMessage().contains(TRAVA_ESGOTADA)) {
+                        travasEsgotadas.incrementAndGet();
+                    }
+                }
+                latencias.add(System.nanoTime() - inicio);
+                return null;
+            }));
+        }
+        largada.countDown();
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        Integer sobrepostos = jdbcTemplate.queryForObject("""
+                SELECT COUNT(*) FROM agendamentos a
+                JOIN agendamentos b ON b.medico_id = a.medico_id AND b.data_consulta = a.data_consulta AND b.id > a.id
+                WHERE a.clinic_id = ?
+                  AND a.hora_inicio < b.hora_fim AND b.hora_inicio < a.hora_fim
+                """, Integer.class, CLINIC_ID);
+        Integer gravados = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM agendamentos WHERE clinic_id = ?",
+                Integer.class, CLINIC_ID);
+
+        List<Long> ordenadas = new ArrayList<>(latencias);
+        Collections.sort(ordenadas);
+        long p99Ms = TimeUnit.NANOSECONDS.toMillis(ordenadas.get((int) Math.ceil(ordenadas.size() * 0.99) - 1));
+
+        assertThat(sobrepostos).isZero();
+        assertThat(criados.get() + conflitos.get()).isEqualTo(AGENDAMENTOS);
+        assertThat(gravados).isEqualTo(criados.get());
+        // 8 médicos x 20 slots de 30 minutos entre 08:00 e 18:00
+        assertThat(criados.get()).isPositive().isLessThanOrEqualTo(MEDICOS * 20);
+        // Ninguém fica esperando a trava até estourar o tempo limite
+        assertThat(travasEsgotadas.get()).isZero();
+        assertThat(p99Ms).isLessThan(ESPERA_MAXIMA_MS);
+    }
+}
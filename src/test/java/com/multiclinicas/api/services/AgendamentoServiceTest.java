@@ -3,34 +3,64 @@ package com.multiclinicas.api.services;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.multiclinicas.api.agenda.CoordenadorAgenda;
+import com.multiclinicas.api.agenda.CursorAgendamento;
+import com.multiclinicas.api.agenda.GradeSemanalCache;
+import com.multiclinicas.api.agenda.IntervaloOcupado;
+import com.multiclinicas.api.agenda.MedicoAgenda;
+import com.multiclinicas.api.agenda.MetricasAgenda;
+import com.multiclinicas.api.catalogo.CatalogoClinica;
+import com.multiclinicas.api.catalogo.ListaCatalogo;
+import com.multiclinicas.api.agenda.OcupacaoAgendaCache;
+import com.multiclinicas.api.agenda.PeriodoGrade;
 import com.multiclinicas.api.config.tenant.TenantContext;
 import com.multiclinicas.api.dtos.AgendamentoDTO;
-import com.multiclinicas.api.mappers.AgendamentoMapper;
 import com.multiclinicas.api.dtos.AgendamentoCreateDTO;
+import com.multiclinicas.api.dtos.AgendamentoFiltroDTO;
+import com.multiclinicas.api.dtos.AgendamentoLoteDTO;
 import com.multiclinicas.api.dtos.AgendamentoRemarcarDTO;
 import com.multiclinicas.api.dtos.AgendamentoStatusDTO;
 import com.multiclinicas.api.dtos.AgendamentoTokenDTO;
 import com.multiclinicas.api.dtos.DisponibilidadeDTO;
+import com.multiclinicas.api.dtos.HorarioAgendamentoDTO;
+import com.multiclinicas.api.dtos.HorarioLivreDTO;
+import com.multiclinicas.api.dtos.ItemLoteDTO;
+import com.multiclinicas.api.dtos.PaginaAgendamentosDTO;
+import com.multiclinicas.api.dtos.PlanoSaudeDTO;
+import com.multiclinicas.api.dtos.RecorrenciaDTO;
+import com.multiclinicas.api.dtos.ResultadoLoteDTO;
+import com.multiclinicas.api.email.ModelosEmail;
 import com.multiclinicas.api.exceptions.BusinessException;
 import com.multiclinicas.api.exceptions.ResourceConflictException;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
@@ -39,15 +69,19 @@ import com.multiclinicas.api.models.Clinica;
 import com.multiclinicas.api.models.GradeHorario;
 import com.multiclinicas.api.models.Medico;
 import com.multiclinicas.api.models.Paciente;
+import com.multiclinicas.api.models.PlanoSaude;
 import com.multiclinicas.api.models.enums.StatusAgendamento;
 import com.multiclinicas.api.models.enums.TipoPagamento;
 import com.multiclinicas.api.repositories.AgendamentoRepository;
 import com.multiclinicas.api.repositories.ClinicaRepository;
 import com.multiclinicas.api.repositories.GradeHorarioRepository;
 import com.multiclinicas.api.repositories.MedicoRepository;
+import com.multiclinicas.api.repositories.ModeloEmailRepository;
 import com.multiclinicas.api.repositories.PacienteRepository;
 import com.multiclinicas.api.repositories.PlanoSaudeRepository;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
 @ExtendWith(MockitoExtension.class)
 class AgendamentoServiceTest {
 
@@ -66,14 +100,21 @@ class AgendamentoServiceTest {
     @Mock
     private PlanoSaudeRepository planoSaudeRepository;
     @Mock
+    private CatalogoClinica catalogoClinica;
+    @Mock
     private GradeHorarioRepository gradeHorarioRepository;
-        @Mock
-        private EmailService emailService;
-        @Mock
-        private AgendamentoMapper agendamentoMapper;
+    @Mock
+    private CaixaSaidaEmailService caixaSaidaEmailService;
+    @Mock
+    private ModeloEmailRepository modeloEmailRepository;
+    @Mock
+    private CoordenadorAgenda coordenadorAgenda;
+    @Mock
+    private PlatformTransactionManager transactionManager;
 
-    @InjectMocks
+    private OcupacaoAgendaCache ocupacaoAgendaCache;
     private AgendamentoServiceImpl agendamentoService;
+    private SimpleMeterRegistry meterRegistry;
 
     private Clinica clinica;
     private Paciente paciente;
@@ -85,6 +126,17 @@ class AgendamentoServiceTest {
         TenantContext.setClinicId(CLINIC_ID);
         SecurityContextHolder.clearContext();
 
+        meterRegistry = new SimpleMeterRegistry();
+        GradeSemanalCache gradeSemanalCache = new GradeSemanalCache(gradeHorarioRepository, 1000,
+                Duration.ofMinutes(5));
+        ocupacaoAgendaCache = new OcupacaoAgendaCache(medicoRepository, gradeSemanalCache,
+                agendamentoRepository, transactionManager, 1000, Duration.ofMinutes(5));
+        agendamentoService = new AgendamentoServiceImpl(agendamentoRepository, clinicaRepository,
+                medicoRepository, pacienteRepository, planoSaudeRepository, catalogoClinica, gradeSemanalCache,
+                caixaSaidaEmailService, new ModelosEmail(modeloEmailRepository, clinicaRepository, 100,
+                        Duration.ofMinutes(1)),
+                ocupacaoAgendaCache, coordenadorAgenda, new MetricasAgenda(meterRegistry, 50));
+
         clinica = new Clinica();
         clinica.setId(CLINIC_ID);
 
@@ -105,6 +157,11 @@ class AgendamentoServiceTest {
         gradeHorario.setHoraFim(LocalTime.of(18, 0));
     }
 
+    private static AgendamentoDTO agendamentoDTO(Long id, LocalDate data, LocalTime hora) {
+        return new AgendamentoDTO(id, PACIENTE_ID, "Paciente", MEDICO_ID, "Médico", data, hora, hora.plusMinutes(30),
+                StatusAgendamento.AGENDADO, TipoPagamento.PARTICULAR, null, null, null);
+    }
+
     @Nested
     @DisplayName("Testes de Listagem")
     class ListagemTests {
@@ -144,16 +201,14 @@ class AgendamentoServiceTest {
                             List.of(() -> "ROLE_PACIENTE")));
 
             when(pacienteRepository.findByIdAndClinicaId(PACIENTE_ID, CLINIC_ID)).thenReturn(Optional.of(paciente));
-            when(agendamentoRepository.findByPacienteIdAndClinicaIdOrderByDataConsultaDescHoraInicioDesc(PACIENTE_ID, CLINIC_ID))
-                    .thenReturn(List.of(agendamento));
-            when(agendamentoMapper.toDTO(agendamento)).thenReturn(dto);
+            when(agendamentoRepository.findDTOsByPacienteIdAndClinicaId(PACIENTE_ID, CLINIC_ID))
+                    .thenReturn(List.of(dto));
 
             List<AgendamentoDTO> result = agendamentoService.buscarMeusAgendamentos();
 
             assertThat(result).hasSize(1);
             assertThat(result.get(0).nomeMedico()).isEqualTo("Médico Teste");
-            verify(agendamentoRepository).findByPacienteIdAndClinicaIdOrderByDataConsultaDescHoraInicioDesc(PACIENTE_ID,
-                    CLINIC_ID);
+            verify(agendamentoRepository).findDTOsByPacienteIdAndClinicaId(PACIENTE_ID, CLINIC_ID);
         }
 
         @Test
@@ -171,20 +226,63 @@ class AgendamentoServiceTest {
         }
 
         @Test
-        @DisplayName("Deve listar todos os agendamentos da clínica")
-        void shouldListAllAgendamentos() {
-            Agendamento a1 = new Agendamento();
-            a1.setId(1L);
-            Agendamento a2 = new Agendamento();
-            a2.setId(2L);
+        @DisplayName("Deve listar a primeira página e devolver o cursor da próxima")
+        void shouldListFirstPageWithNextCursor() {
+            AgendamentoFiltroDTO filtro = new AgendamentoFiltroDTO(null, null, null, null, null);
+            LocalDate data = LocalDate.of(2030, 1, 10);
+            AgendamentoDTO a1 = agendamentoDTO(1L, data, LocalTime.of(8, 0));
+            AgendamentoDTO a2 = agendamentoDTO(2L, data, LocalTime.of(8, 30));
+            AgendamentoDTO a3 = agendamentoDTO(3L, data, LocalTime.of(9, 0));
+
+            when(agendamentoRepository.findPagina(CLINIC_ID, null, null, null, null, null, null, null, null,
+                    Limit.of(3))).thenReturn(List.of(a1, a2, a3));
+
+            PaginaAgendamentosDTO pagina = agendamentoService.listar(CLINIC_ID, filtro, null, 2);
+
+            assertThat(pagina.itens()).containsExactly(a1, a2);
+            assertThat(CursorAgendamento.decodificar(pagina.proximoCursor()))
+                    .isEqualTo(new CursorAgendamento(data, LocalTime.of(8, 30), 2L));
+        }
 
-            when(agendamentoRepository.findAllByClinicaId(CLINIC_ID))
-                    .thenReturn(List.of(a1, a2));
+        @Test
+        @DisplayName("Deve continuar a listagem a partir do cursor e aplicar os filtros")
+        void shouldContinueFromCursorWithFilters() {
+            LocalDate inicio = LocalDate.of(2030, 1, 1);
+            LocalDate fim = LocalDate.of(2030, 1, 31);
+            AgendamentoFiltroDTO filtro = new AgendamentoFiltroDTO(inicio, fim, MEDICO_ID,
+                    StatusAgendamento.AGENDADO, TipoPagamento.CONVENIO);
+            CursorAgendamento cursor = new CursorAgendamento(LocalDate.of(2030, 1, 10), LocalTime.of(8, 30), 2L);
+            AgendamentoDTO a3 = agendamentoDTO(3L, LocalDate.of(2030, 1, 10), LocalTime.of(9, 0));
+
+            when(agendamentoRepository.findPagina(CLINIC_ID, inicio, fim, MEDICO_ID, StatusAgendamento.AGENDADO,
+                    TipoPagamento.CONVENIO, cursor.dataConsulta(), cursor.horaInicio(), cursor.id(), Limit.of(3)))
+                    .thenReturn(List.of(a3));
+
+            PaginaAgendamentosDTO pagina = agendamentoService.listar(CLINIC_ID, filtro, cursor.codificar(), 2);
+
+            assertThat(pagina.itens()).containsExactly(a3);
+            assertThat(pagina.proximoCursor()).isNull();
+        }
 
-            List<Agendamento> result = agendamentoService.findAllByClinicId(CLINIC_ID);
+        @Test
+        @DisplayName("Deve rejeitar cursor inválido")
+        void shouldRejectInvalidCursor() {
+            AgendamentoFiltroDTO filtro = new AgendamentoFiltroDTO(null, null, null, null, null);
+
+            assertThatThrownBy(() -> agendamentoService.listar(CLINIC_ID, filtro, "nao-e-um-cursor", 10))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("Cursor");
+        }
 
-            assertThat(result).hasSize(2);
-            verify(agendamentoRepository).findAllByClinicaId(CLINIC_ID);
+        @Test
+        @DisplayName("Deve rejeitar limite fora do permitido")
+        void shouldRejectInvalidLimit() {
+            AgendamentoFiltroDTO filtro = new AgendamentoFiltroDTO(null, null, null, null, null);
+
+            assertThatThrownBy(() -> agendamentoService.listar(CLINIC_ID, filtro, null, 0))
+                    .isInstanceOf(BusinessException.class);
+            assertThatThrownBy(() -> agendamentoService.listar(CLINIC_ID, filtro, null, 201))
+                    .isInstanceOf(BusinessException.class);
         }
 
         @Test
@@ -239,11 +337,9 @@ class AgendamentoServiceTest {
             when(pacienteRepository.findByIdAndClinicaId(PACIENTE_ID, CLINIC_ID))
                     .thenReturn(Optional.of(paciente));
             when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
-            when(gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(MEDICO_ID, 1))
-                    .thenReturn(List.of(gradeHorario));
-            when(agendamentoRepository.existsConflict(any(), any(), any(), any(), any()))
-                    .thenReturn(false);
-            when(agendamentoRepository.save(any(Agendamento.class)))
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
+            when(agendamentoRepository.saveAndFlush(any(Agendamento.class)))
                     .thenAnswer(inv -> {
                         Agendamento a = inv.getArgument(0);
                         a.setId(1L);
@@ -255,7 +351,38 @@ class AgendamentoServiceTest {
             assertThat(result).isNotNull();
             assertThat(result.getStatus()).isEqualTo(StatusAgendamento.AGENDADO);
             assertThat(result.getHoraFim()).isEqualTo(LocalTime.of(9, 30));
-            verify(agendamentoRepository).save(any(Agendamento.class));
+            verify(agendamentoRepository).saveAndFlush(any(Agendamento.class));
+            InOrder ordem = inOrder(coordenadorAgenda, medicoRepository);
+            ordem.verify(coordenadorAgenda).bloquear(CLINIC_ID, MEDICO_ID, dataFutura);
+            ordem.verify(medicoRepository).findByIdAndClinicaId(MEDICO_ID, CLINIC_ID);
+        }
+
+        @Test
+        @DisplayName("Deve gravar a confirmação na caixa de saída em vez de enviar o e-mail")
+        void shouldQueueConfirmationEmail() {
+            LocalDate dataFutura = LocalDate.now().plusDays(7);
+            while (dataFutura.getDayOfWeek().getValue() != 1) {
+                dataFutura = dataFutura.plusDays(1);
+            }
+            paciente.setNome("Maria");
+            paciente.setEmail("maria@teste.com");
+            clinica.setNomeFantasia("Clínica Central");
+
+            AgendamentoCreateDTO dto = new AgendamentoCreateDTO(PACIENTE_ID, MEDICO_ID, dataFutura,
+                    LocalTime.of(9, 0), TipoPagamento.PARTICULAR, null, null);
+
+            when(clinicaRepository.findById(CLINIC_ID)).thenReturn(Optional.of(clinica));
+            when(pacienteRepository.findByIdAndClinicaId(PACIENTE_ID, CLINIC_ID))
+                    .thenReturn(Optional.of(paciente));
+            when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
+            when(agendamentoRepository.saveAndFlush(any(Agendamento.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            agendamentoService.create(CLINIC_ID, dto);
+
+            verify(caixaSaidaEmailService).enfileirar(eq(CLINIC_ID), eq("maria@teste.com"),
+                    eq("Confirmação de Agendamento - Clínica Central"), contains("Olá, Maria, seu agendamento"));
         }
 
         @Test
@@ -295,14 +422,47 @@ class AgendamentoServiceTest {
             when(pacienteRepository.findByIdAndClinicaId(PACIENTE_ID, CLINIC_ID))
                     .thenReturn(Optional.of(paciente));
             when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
-            when(gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(MEDICO_ID, 1))
-                    .thenReturn(List.of(gradeHorario));
-            when(agendamentoRepository.existsConflict(any(), any(), any(), any(), any()))
-                    .thenReturn(true);
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
+            when(agendamentoRepository.saveAndFlush(any(Agendamento.class)))
+                    .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                            new SQLException("conflicting key value violates exclusion constraint "
+                                    + "\"ex_agendamentos_sem_sobreposicao\"", "23P01")));
 
             assertThatThrownBy(() -> agendamentoService.create(CLINIC_ID, dto))
                     .isInstanceOf(ResourceConflictException.class)
                     .hasMessageContaining("já possui agendamento");
+            assertThat(meterRegistry.get("agenda.conflitos").tag("operacao", "criar").tag("clinica", "1")
+                    .counter().count()).isEqualTo(1.0);
+            assertThat(meterRegistry.get("agenda.operacao").tag("resultado", "conflito").timer().count())
+                    .isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("Deve reconhecer o conflito pelo nome da constraint extraído pelo Hibernate")
+        void shouldDetectConflitoByConstraintName() {
+            LocalDate dataFutura = LocalDate.now().plusDays(7);
+            while (dataFutura.getDayOfWeek().getValue() != 1) {
+                dataFutura = dataFutura.plusDays(1);
+            }
+
+            AgendamentoCreateDTO dto = new AgendamentoCreateDTO(PACIENTE_ID, MEDICO_ID, dataFutura,
+                    LocalTime.of(9, 0), TipoPagamento.PARTICULAR, null, null);
+
+            when(clinicaRepository.findById(CLINIC_ID)).thenReturn(Optional.of(clinica));
+            when(pacienteRepository.findByIdAndClinicaId(PACIENTE_ID, CLINIC_ID))
+                    .thenReturn(Optional.of(paciente));
+            when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
+            when(agendamentoRepository.saveAndFlush(any(Agendamento.class)))
+                    .thenThrow(new DataIntegrityViolationException("could not execute statement",
+                            new ConstraintViolationException("could not execute statement",
+                                    new SQLException("erro do driver", "23000"),
+                                    "EX_AGENDAMENTOS_SEM_SOBREPOSICAO")));
+
+            assertThatThrownBy(() -> agendamentoService.create(CLINIC_ID, dto))
+                    .isInstanceOf(ResourceConflictException.class);
         }
 
         @Test
@@ -322,8 +482,8 @@ class AgendamentoServiceTest {
             when(pacienteRepository.findByIdAndClinicaId(PACIENTE_ID, CLINIC_ID))
                     .thenReturn(Optional.of(paciente));
             when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
-            when(gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(MEDICO_ID, 2))
-                    .thenReturn(List.of()); // Não atende terça
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario))); // Só atende segunda
 
             assertThatThrownBy(() -> agendamentoService.create(CLINIC_ID, dto))
                     .isInstanceOf(BusinessException.class)
@@ -347,15 +507,165 @@ class AgendamentoServiceTest {
             when(pacienteRepository.findByIdAndClinicaId(PACIENTE_ID, CLINIC_ID))
                     .thenReturn(Optional.of(paciente));
             when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
-            when(gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(MEDICO_ID, 1))
-                    .thenReturn(List.of(gradeHorario));
-            when(agendamentoRepository.existsConflict(any(), any(), any(), any(), any()))
-                    .thenReturn(false);
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
 
             assertThatThrownBy(() -> agendamentoService.create(CLINIC_ID, dto))
                     .isInstanceOf(BusinessException.class)
                     .hasMessageContaining("plano de saúde é obrigatório");
         }
+
+        @Test
+        @DisplayName("Deve validar o plano de saúde pelo catálogo da clínica")
+        void shouldUsePlanoFromCatalogo() {
+            LocalDate dataFutura = LocalDate.now().plusDays(7);
+            while (dataFutura.getDayOfWeek().getValue() != 1) {
+                dataFutura = dataFutura.plusDays(1);
+            }
+
+            AgendamentoCreateDTO dto = new AgendamentoCreateDTO(
+                    PACIENTE_ID, MEDICO_ID,
+                    dataFutura, LocalTime.of(9, 0),
+                    TipoPagamento.CONVENIO, 5L, null);
+
+            when(clinicaRepository.findById(CLINIC_ID)).thenReturn(Optional.of(clinica));
+            when(pacienteRepository.findByIdAndClinicaId(PACIENTE_ID, CLINIC_ID))
+                    .thenReturn(Optional.of(paciente));
+            when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
+            when(catalogoClinica.planosSaude(CLINIC_ID)).thenReturn(new ListaCatalogo<>(
+                    List.of(new PlanoSaudeDTO(5L, "Unimed", true), new PlanoSaudeDTO(6L, "Amil", false),
+                            new PlanoSaudeDTO(7L, "Bradesco", true)),
+                    PlanoSaudeDTO::id, 1, "\"planos_saude-1-1\""));
+            PlanoSaude unimed = new PlanoSaude();
+            unimed.setId(5L);
+            unimed.setNome("Unimed");
+            when(planoSaudeRepository.getReferenceById(5L)).thenReturn(unimed);
+            when(agendamentoRepository.saveAndFlush(any(Agendamento.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            Agendamento result = agendamentoService.create(CLINIC_ID, dto);
+
+            assertThat(result.getPlanoSaude()).isSameAs(unimed);
+
+            AgendamentoCreateDTO inativo = new AgendamentoCreateDTO(
+                    PACIENTE_ID, MEDICO_ID,
+                    dataFutura, LocalTime.of(9, 0),
+                    TipoPagamento.CONVENIO, 6L, null);
+            assertThatThrownBy(() -> agendamentoService.create(CLINIC_ID, inativo))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("inativo");
+
+            // Desativado há pouco: o catálogo ainda o mostra ativo, a gravação não
+            PlanoSaude bradesco = new PlanoSaude();
+            bradesco.setId(7L);
+            bradesco.setAtivo(false);
+            when(planoSaudeRepository.getReferenceById(7L)).thenReturn(bradesco);
+            AgendamentoCreateDTO recemDesativado = new AgendamentoCreateDTO(
+                    PACIENTE_ID, MEDICO_ID,
+                    dataFutura, LocalTime.of(9, 0),
+                    TipoPagamento.CONVENIO, 7L, null);
+            assertThatThrownBy(() -> agendamentoService.create(CLINIC_ID, recemDesativado))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("inativo");
+        }
+    }
+
+    @Nested
+    @DisplayName("Testes de Criação em Lote")
+    class LoteTests {
+
+        private LocalDate proximaSegunda() {
+            LocalDate data = LocalDate.now().plusDays(7);
+            while (data.getDayOfWeek().getValue() != 1) {
+                data = data.plusDays(1);
+            }
+            return data;
+        }
+
+        private void prepararCadastros() {
+            when(clinicaRepository.findById(CLINIC_ID)).thenReturn(Optional.of(clinica));
+            when(pacienteRepository.findByIdAndClinicaId(PACIENTE_ID, CLINIC_ID))
+                    .thenReturn(Optional.of(paciente));
+            when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
+            when(agendamentoRepository.saveAll(any())).thenAnswer(inv -> {
+                List<Agendamento> agendamentos = inv.getArgument(0);
+                long id = 100L;
+                for (Agendamento a : agendamentos) {
+                    a.setId(id++);
+                }
+                return agendamentos;
+            });
+        }
+
+        @Test
+        @DisplayName("Deve criar a série semanal com uma leitura da agenda e um único e-mail")
+        void shouldCreateRecurringSeries() {
+            LocalDate primeira = proximaSegunda();
+            paciente.setNome("Maria");
+            paciente.setEmail("maria@teste.com");
+            clinica.setNomeFantasia("Clínica Central");
+            prepararCadastros();
+            when(agendamentoRepository.findIntervalosOcupados(CLINIC_ID, List.of(MEDICO_ID), primeira,
+                    primeira.plusWeeks(3)))
+                    .thenReturn(List.of(new IntervaloOcupado(MEDICO_ID, primeira.plusWeeks(2), LocalTime.of(9, 0),
+                            LocalTime.of(9, 30))));
+
+            AgendamentoLoteDTO dto = new AgendamentoLoteDTO(PACIENTE_ID, MEDICO_ID, TipoPagamento.PARTICULAR,
+                    null, null, null, new RecorrenciaDTO(primeira, LocalTime.of(9, 0), 1, 4));
+
+            ResultadoLoteDTO resultado = agendamentoService.criarLote(CLINIC_ID, dto);
+
+            assertThat(resultado.criados()).isEqualTo(3);
+            assertThat(resultado.recusados()).isEqualTo(1);
+            assertThat(resultado.itens()).extracting(ItemLoteDTO::dataConsulta)
+                    .containsExactly(primeira, primeira.plusWeeks(1), primeira.plusWeeks(2), primeira.plusWeeks(3));
+            assertThat(resultado.itens().get(2).criado()).isFalse();
+            assertThat(resultado.itens().get(2).motivo()).contains("já possui agendamento");
+            assertThat(resultado.itens().get(3).agendamentoId()).isEqualTo(102L);
+
+            verify(coordenadorAgenda).bloquearDias(eq(CLINIC_ID), eq(MEDICO_ID), any());
+            verify(agendamentoRepository).saveAll(any());
+            verify(caixaSaidaEmailService, times(1)).enfileirar(eq(CLINIC_ID), eq("maria@teste.com"),
+                    eq("Confirmação de Agendamentos - Clínica Central"),
+                    contains(primeira.plusWeeks(3).format(DateTimeFormatter.ofPattern("dd/MM/yyyy"))));
+        }
+
+        @Test
+        @DisplayName("Deve recusar por item os horários repetidos no lote ou fora da grade")
+        void shouldRejectItemsIndividually() {
+            LocalDate segunda = proximaSegunda();
+            prepararCadastros();
+
+            AgendamentoLoteDTO dto = new AgendamentoLoteDTO(PACIENTE_ID, MEDICO_ID, TipoPagamento.PARTICULAR,
+                    null, null, List.of(
+                            new HorarioAgendamentoDTO(segunda, LocalTime.of(10, 0)),
+                            new HorarioAgendamentoDTO(segunda, LocalTime.of(10, 15)),
+                            new HorarioAgendamentoDTO(segunda.plusDays(1), LocalTime.of(10, 0))),
+                    null);
+
+            ResultadoLoteDTO resultado = agendamentoService.criarLote(CLINIC_ID, dto);
+
+            assertThat(resultado.criados()).isEqualTo(1);
+            assertThat(resultado.itens()).extracting(ItemLoteDTO::criado).containsExactly(true, false, false);
+            assertThat(resultado.itens().get(1).motivo()).contains("já possui agendamento");
+            assertThat(resultado.itens().get(2).motivo()).contains("não atende neste dia");
+        }
+
+        @Test
+        @DisplayName("Deve exigir a lista de horários ou a recorrência, mas não ambos")
+        void shouldRequireExactlyOneSource() {
+            LocalDate segunda = proximaSegunda();
+            AgendamentoLoteDTO dto = new AgendamentoLoteDTO(PACIENTE_ID, MEDICO_ID, TipoPagamento.PARTICULAR,
+                    null, null, List.of(new HorarioAgendamentoDTO(segunda, LocalTime.of(10, 0))),
+                    new RecorrenciaDTO(segunda, LocalTime.of(10, 0), 1, 2));
+
+            assertThatThrownBy(() -> agendamentoService.criarLote(CLINIC_ID, dto))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("não ambos");
+        }
     }
 
     @Nested
@@ -369,6 +679,7 @@ class AgendamentoServiceTest {
             Agendamento agendamento = new Agendamento();
             agendamento.setId(id);
             agendamento.setClinica(clinica);
+            agendamento.setMedico(medico);
             agendamento.setStatus(StatusAgendamento.AGENDADO);
 
             when(agendamentoRepository.findById(id)).thenReturn(Optional.of(agendamento));
@@ -386,6 +697,7 @@ class AgendamentoServiceTest {
             Agendamento agendamento = new Agendamento();
             agendamento.setId(id);
             agendamento.setClinica(clinica);
+            agendamento.setMedico(medico);
             agendamento.setStatus(StatusAgendamento.CONFIRMADO);
 
             when(agendamentoRepository.findById(id)).thenReturn(Optional.of(agendamento));
@@ -403,6 +715,7 @@ class AgendamentoServiceTest {
             Agendamento agendamento = new Agendamento();
             agendamento.setId(id);
             agendamento.setClinica(clinica);
+            agendamento.setMedico(medico);
             agendamento.setStatus(StatusAgendamento.CANCELADO_CLINICA);
 
             when(agendamentoRepository.findById(id)).thenReturn(Optional.of(agendamento));
@@ -419,6 +732,7 @@ class AgendamentoServiceTest {
             Agendamento agendamento = new Agendamento();
             agendamento.setId(id);
             agendamento.setClinica(clinica);
+            agendamento.setMedico(medico);
             agendamento.setStatus(StatusAgendamento.REALIZADO);
 
             when(agendamentoRepository.findById(id)).thenReturn(Optional.of(agendamento));
@@ -451,11 +765,9 @@ class AgendamentoServiceTest {
             AgendamentoRemarcarDTO dto = new AgendamentoRemarcarDTO(novaData, LocalTime.of(10, 0));
 
             when(agendamentoRepository.findById(id)).thenReturn(Optional.of(agendamento));
-            when(gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(MEDICO_ID, 1))
-                    .thenReturn(List.of(gradeHorario));
-            when(agendamentoRepository.existsConflict(any(), any(), any(), any(), any()))
-                    .thenReturn(false);
-            when(agendamentoRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
+            when(agendamentoRepository.saveAndFlush(any())).thenAnswer(inv -> inv.getArgument(0));
 
             Agendamento result = agendamentoService.remarcar(id, CLINIC_ID, dto);
 
@@ -504,9 +816,9 @@ class AgendamentoServiceTest {
             gradeManha.setHoraFim(LocalTime.of(12, 0));
 
             when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
-            when(gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(MEDICO_ID, 1))
-                    .thenReturn(List.of(gradeManha)); // 08:00 as 12:00
-            when(agendamentoRepository.findByMedicoIdAndDataConsultaAndClinicaId(MEDICO_ID, dataFutura, CLINIC_ID))
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeManha))); // 08:00 as 12:00
+            when(agendamentoRepository.findIntervalosOcupados(CLINIC_ID, List.of(MEDICO_ID), dataFutura, dataFutura))
                     .thenReturn(List.of());
 
             DisponibilidadeDTO result = agendamentoService.buscarDisponibilidade(MEDICO_ID, dataFutura, CLINIC_ID);
@@ -530,21 +842,77 @@ class AgendamentoServiceTest {
             gradeManha.setHoraInicio(LocalTime.of(8, 0));
             gradeManha.setHoraFim(LocalTime.of(12, 0));
 
+            IntervaloOcupado ocupado = new IntervaloOcupado(MEDICO_ID, dataFutura, LocalTime.of(9, 0),
+                    LocalTime.of(9, 30));
+
+            when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeManha)));
+            when(agendamentoRepository.findIntervalosOcupados(CLINIC_ID, List.of(MEDICO_ID), dataFutura, dataFutura))
+                    .thenReturn(List.of(ocupado));
+
+            DisponibilidadeDTO result = agendamentoService.buscarDisponibilidade(MEDICO_ID, dataFutura, CLINIC_ID);
+
+            assertThat(result.horariosDisponiveis()).hasSize(7);
+            assertThat(result.horariosDisponiveis()).doesNotContain(LocalTime.of(9,0));
+        }
+
+        @Test
+        @DisplayName("Deve reutilizar o mapa de ocupação em consultas seguidas")
+        void shouldReuseMapaOcupacao() {
+            LocalDate dataFutura = LocalDate.now().plusDays(14);
+            while (dataFutura.getDayOfWeek().getValue() != 1) {
+                dataFutura = dataFutura.plusDays(1);
+            }
+
+            when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
+            when(agendamentoRepository.findIntervalosOcupados(CLINIC_ID, List.of(MEDICO_ID), dataFutura, dataFutura))
+                    .thenReturn(List.of());
+
+            agendamentoService.buscarDisponibilidade(MEDICO_ID, dataFutura, CLINIC_ID);
+            DisponibilidadeDTO result = agendamentoService.buscarDisponibilidade(MEDICO_ID, dataFutura, CLINIC_ID);
+
+            assertThat(result.horariosDisponiveis()).hasSize(20);
+            verify(medicoRepository, times(1)).findByIdAndClinicaId(MEDICO_ID, CLINIC_ID);
+            verify(agendamentoRepository, times(1))
+                    .findIntervalosOcupados(CLINIC_ID, List.of(MEDICO_ID), dataFutura, dataFutura);
+        }
+
+        @Test
+        @DisplayName("Deve liberar o horário na disponibilidade após cancelamento")
+        void shouldFreeSlotAfterCancelamento() {
+            LocalDate dataFutura = LocalDate.now().plusDays(14);
+            while (dataFutura.getDayOfWeek().getValue() != 1) {
+                dataFutura = dataFutura.plusDays(1);
+            }
+
             Agendamento agendamento = new Agendamento();
+            agendamento.setId(1L);
+            agendamento.setClinica(clinica);
+            agendamento.setMedico(medico);
+            agendamento.setDataConsulta(dataFutura);
             agendamento.setHoraInicio(LocalTime.of(9, 0));
             agendamento.setHoraFim(LocalTime.of(9, 30));
             agendamento.setStatus(StatusAgendamento.AGENDADO);
 
             when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
-            when(gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(MEDICO_ID, 1))
-                    .thenReturn(List.of(gradeManha));
-            when(agendamentoRepository.findByMedicoIdAndDataConsultaAndClinicaId(MEDICO_ID, dataFutura, CLINIC_ID))
-                    .thenReturn(List.of(agendamento));
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID)))
+                    .thenReturn(List.of(PeriodoGrade.de(gradeHorario)));
+            when(agendamentoRepository.findIntervalosOcupados(CLINIC_ID, List.of(MEDICO_ID), dataFutura, dataFutura))
+                    .thenReturn(List.of(new IntervaloOcupado(MEDICO_ID, dataFutura, LocalTime.of(9, 0),
+                            LocalTime.of(9, 30))));
+            when(agendamentoRepository.findById(1L)).thenReturn(Optional.of(agendamento));
+            when(agendamentoRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
 
-            DisponibilidadeDTO result = agendamentoService.buscarDisponibilidade(MEDICO_ID, dataFutura, CLINIC_ID);
+            assertThat(agendamentoService.buscarDisponibilidade(MEDICO_ID, dataFutura, CLINIC_ID)
+                    .horariosDisponiveis()).doesNotContain(LocalTime.of(9, 0));
 
-            assertThat(result.horariosDisponiveis()).hasSize(7);
-            assertThat(result.horariosDisponiveis()).doesNotContain(LocalTime.of(9,0));
+            agendamentoService.cancelar(1L, CLINIC_ID, true);
+
+            assertThat(agendamentoService.buscarDisponibilidade(MEDICO_ID, dataFutura, CLINIC_ID)
+                    .horariosDisponiveis()).contains(LocalTime.of(9, 0));
         }
 
         @Test
@@ -566,13 +934,83 @@ class AgendamentoServiceTest {
             LocalDate dataConsulta = LocalDate.now();
 
             when(medicoRepository.findByIdAndClinicaId(MEDICO_ID, CLINIC_ID)).thenReturn(medico);
-            when(gradeHorarioRepository.findAllByMedicoIdAndDiaSemana(any(), any())).thenReturn(List.of());
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID))).thenReturn(List.of());
 
             DisponibilidadeDTO result = agendamentoService.buscarDisponibilidade(MEDICO_ID, dataConsulta, CLINIC_ID);
             assertThat(result.horariosDisponiveis()).isEmpty();
         }
     }
 
+    @Nested
+    @DisplayName("Testes de Busca de Horários Livres")
+    class BuscaHorariosLivresTests {
+
+        @Test
+        @DisplayName("Deve retornar os primeiros horários livres entre vários médicos e dias")
+        void shouldReturnEarliestSlotsAcrossMedicosAndDias() {
+            LocalDate segunda = LocalDate.now().plusDays(7);
+            while (segunda.getDayOfWeek().getValue() != 1) {
+                segunda = segunda.plusDays(1);
+            }
+            LocalDate domingo = segunda.minusDays(1);
+            Long outroMedicoId = 21L;
+
+            when(medicoRepository.findAgendaAtivos(CLINIC_ID, null)).thenReturn(List.of(
+                    new MedicoAgenda(MEDICO_ID, "Dr. A", 30),
+                    new MedicoAgenda(outroMedicoId, "Dr. B", 60)));
+            when(gradeHorarioRepository.findPeriodosByMedicoIds(List.of(MEDICO_ID, outroMedicoId))).thenReturn(List.of(
+                    new PeriodoGrade(MEDICO_ID, 1, LocalTime.of(8, 0), LocalTime.of(9, 0)),
+                    new PeriodoGrade(outroMedicoId, 1, LocalTime.of(8, 0), LocalTime.of(10, 0))));
+            when(agendamentoRepository.findIntervalosOcupados(CLINIC_ID, List.of(MEDICO_ID, outroMedicoId), domingo,
+                    segunda.plusDays(6))).thenReturn(List.of(
+                    new IntervaloOcupado(MEDICO_ID, segunda, LocalTime.of(8, 0), LocalTime.of(8, 30))));
+
+            List<HorarioLivreDTO> result = agendamentoService.buscarHorariosLivres(
+                    CLINIC_ID, domingo, segunda.plusDays(6), null, null, 3);
+
+            assertThat(result).extracting(HorarioLivreDTO::dataConsulta).containsOnly(segunda);
+            assertThat(result).extracting(HorarioLivreDTO::horaInicio)
+                    .containsExactly(LocalTime.of(8, 0), LocalTime.of(8, 30), LocalTime.of(9, 0));
+            assertThat(result).extracting(HorarioLivreDTO::medicoId)
+                    .containsExactly(outroMedicoId, MEDICO_ID, outroMedicoId);
+        }
+
+        @Test
+        @DisplayName("Deve filtrar pelos médicos informados")
+        void shouldFilterByMedicoIds() {
+            LocalDate data = LocalDate.now().plusDays(7);
+
+            when(medicoRepository.findAgendaAtivosByIds(CLINIC_ID, List.of(MEDICO_ID), null)).thenReturn(List.of());
+
+            List<HorarioLivreDTO> result = agendamentoService.buscarHorariosLivres(
+                    CLINIC_ID, data, data, null, List.of(MEDICO_ID), 10);
+
+            assertThat(result).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar intervalo de datas invertido")
+        void shouldRejectInvertedRange() {
+            LocalDate data = LocalDate.now().plusDays(7);
+
+            assertThatThrownBy(() -> agendamentoService.buscarHorariosLivres(
+                    CLINIC_ID, data, data.minusDays(1), null, null, 10))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("data final");
+        }
+
+        @Test
+        @DisplayName("Deve rejeitar intervalo de datas muito longo")
+        void shouldRejectRangeTooLong() {
+            LocalDate data = LocalDate.now().plusDays(7);
+
+            assertThatThrownBy(() -> agendamentoService.buscarHorariosLivres(
+                    CLINIC_ID, data, data.plusDays(365), null, null, 10))
+                    .isInstanceOf(BusinessException.class)
+                    .hasMessageContaining("no máximo");
+        }
+    }
+
     @Nested
     @DisplayName("Testes de Atualização de Status")
     class StatusTests {
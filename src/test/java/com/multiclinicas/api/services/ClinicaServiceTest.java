@@ -1,5 +1,8 @@
 package com.multiclinicas.api.services;
 
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
+import com.multiclinicas.api.email.ModelosEmail;
 import com.multiclinicas.api.exceptions.BusinessException;
 import com.multiclinicas.api.exceptions.ResourceConflictException;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
@@ -34,6 +37,15 @@ class ClinicaServiceTest {
     @Mock
     private ClinicaRepository clinicaRepository;
 
+    @Mock
+    private com.multiclinicas.api.config.tenant.TenantCache tenantCache;
+
+    @Mock
+    private VersoesCatalogo versoesCatalogo;
+
+    @Mock
+    private ModelosEmail modelosEmail;
+
     @InjectMocks
     private ClinicaServiceImpl clinicaService;
 
@@ -152,6 +164,9 @@ class ClinicaServiceTest {
         assertThat(result.getNomeFantasia()).isEqualTo("Nome Novo");
         assertThat(result.getSubdominio()).isEqualTo("sub-novo");
         verify(clinicaRepository).save(clinicaExistente);
+        verify(tenantCache).invalidar(id);
+        verify(versoesCatalogo).incrementar(id, RecursoCatalogo.MEDICOS, RecursoCatalogo.ESPECIALIDADES);
+        verify(modelosEmail).invalidar(id);
     }
 
     @Test
@@ -189,6 +204,8 @@ class ClinicaServiceTest {
 
         // Then
         verify(clinicaRepository).deleteById(id);
+        verify(tenantCache).invalidar(id);
+        verify(modelosEmail).invalidar(id);
     }
 
     @Test
@@ -0,0 +1,110 @@
+package com.multiclinicas.api.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import com.multiclinicas.api.dtos.MensagemEmailDTO;
+import com.multiclinicas.api.dtos.ResultadoEnvioEmailDTO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class EmailServiceImplTest {
+
+    private ServidorSmtpFalso servidor;
+    private SimpleMeterRegistry meterRegistry;
+    private EmailServiceImpl emailService;
+
+    @BeforeEach
+    void setUp() {
+        servidor = new ServidorSmtpFalso();
+        meterRegistry = new SimpleMeterRegistry();
+        emailService = new EmailServiceImpl(servidor.mailSender(), meterRegistry, 2, 10, Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        emailService.encerrar();
+        servidor.close();
+    }
+
+    private static List<MensagemEmailDTO> mensagens(String... destinatarios) {
+        return List.of(destinatarios).stream()
+                .map(d -> new MensagemEmailDTO(d, "Assunto", "Olá, Ação às 10:00"))
+                .toList();
+    }
+
+    @Test
+    @DisplayName("Deve enviar o lote numa conexão e reaproveitá-la no lote seguinte")
+    void shouldReuseConnectionAcrossBatches() {
+        assertThat(emailService.enviarEmails(mensagens("a@teste.com", "b@teste.com", "c@teste.com")))
+                .isEqualTo(new ResultadoEnvioEmailDTO(List.of(), List.of()));
+        assertThat(emailService.enviarEmails(mensagens("d@teste.com")))
+                .isEqualTo(new ResultadoEnvioEmailDTO(List.of(), List.of()));
+
+        assertThat(servidor.mensagens()).isEqualTo(4);
+        assertThat(servidor.conexoes()).isEqualTo(1);
+        assertThat(meterRegistry.counter("email.enviados").count()).isEqualTo(4);
+        assertThat(meterRegistry.timer("email.envio").count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve separar recusas temporárias de definitivas e manter a conexão")
+    void shouldReturnRejectedMessages() {
+        List<MensagemEmailDTO> lote = mensagens("a@teste.com", "recusado@teste.com", "ocupado@teste.com",
+                "c@teste.com");
+
+        ResultadoEnvioEmailDTO resultado = emailService.enviarEmails(lote);
+
+        assertThat(resultado.recusadas()).containsExactly(lote.get(2));
+        assertThat(resultado.invalidas()).containsExactly(lote.get(1));
+        assertThat(servidor.mensagens()).isEqualTo(2);
+        assertThat(meterRegistry.counter("email.falhas").count()).isEqualTo(2);
+
+        emailService.enviarEmails(mensagens("d@teste.com"));
+        assertThat(servidor.conexoes()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve tratar endereço malformado como inválido sem tentar enviar")
+    void shouldReportMalformedAddressAsInvalid() {
+        List<MensagemEmailDTO> lote = mensagens("a@teste.com", "sem arroba");
+
+        ResultadoEnvioEmailDTO resultado = emailService.enviarEmails(lote);
+
+        assertThat(resultado.invalidas()).containsExactly(lote.get(1));
+        assertThat(resultado.recusadas()).isEmpty();
+        assertThat(servidor.mensagens()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve abrir mais conexões que o limite configurado")
+    void shouldBoundOpenConnections() {
+        List<CompletableFuture<ResultadoEnvioEmailDTO>> envios = IntStream.range(0, 20)
+                .mapToObj(i -> CompletableFuture.supplyAsync(
+                        () -> emailService.enviarEmails(mensagens("p" + i + "@teste.com", "q" + i + "@teste.com"))))
+                .toList();
+
+        envios.forEach(envio -> assertThat(envio.join().recusadas()).isEmpty());
+        assertThat(servidor.mensagens()).isEqualTo(40);
+        assertThat(servidor.conexoes()).isLessThanOrEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Deve devolver o lote inteiro quando o servidor estiver fora do ar")
+    void shouldReturnWholeBatchWhenServerIsDown() throws Exception {
+        servidor.close();
+        List<MensagemEmailDTO> lote = mensagens("a@teste.com", "b@teste.com");
+
+        assertThat(emailService.enviarEmails(lote).recusadas()).containsExactlyElementsOf(lote);
+        assertThat(meterRegistry.counter("email.falhas").count()).isEqualTo(2);
+    }
+}
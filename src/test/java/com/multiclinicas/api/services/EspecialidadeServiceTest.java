@@ -1,5 +1,7 @@
 package com.multiclinicas.api.services;
 
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.exceptions.BusinessException;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
 import com.multiclinicas.api.models.Clinica;
@@ -34,6 +36,9 @@ class EspecialidadeServiceTest {
     @Mock
     private ClinicaRepository clinicaRepository;
 
+    @Mock
+    private VersoesCatalogo versoesCatalogo;
+
     @InjectMocks
     private EspecialidadeServiceImpl especialidadeService;
 
@@ -291,6 +296,7 @@ class EspecialidadeServiceTest {
         especialidadeService.delete(id, CLINIC_ID);
 
         verify(especialidadeRepository).delete(especialidade);
+        verify(versoesCatalogo).incrementar(CLINIC_ID, RecursoCatalogo.ESPECIALIDADES, RecursoCatalogo.MEDICOS);
     }
 
     @Test
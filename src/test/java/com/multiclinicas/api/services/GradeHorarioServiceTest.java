@@ -1,5 +1,9 @@
 package com.multiclinicas.api.services;
 
+import com.multiclinicas.api.agenda.GradeSemanalCache;
+import com.multiclinicas.api.agenda.OcupacaoAgendaCache;
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
 import com.multiclinicas.api.models.Clinica;
 import com.multiclinicas.api.models.GradeHorario;
@@ -31,6 +35,15 @@ class GradeHorarioServiceTest {
     @Mock
     private MedicoRepository medicoRepository;
 
+    @Mock
+    private OcupacaoAgendaCache ocupacaoAgendaCache;
+
+    @Mock
+    private GradeSemanalCache gradeSemanalCache;
+
+    @Mock
+    private VersoesCatalogo versoesCatalogo;
+
     @InjectMocks
     private GradeHorarioServiceImpl gradeHorarioService;
 
@@ -73,6 +86,7 @@ class GradeHorarioServiceTest {
         assertEquals(medicoId, result.getMedico().getId());
         verify(medicoRepository).findByIdAndClinicaId(medicoId, clinicId);
         verify(gradeHorarioRepository).save(novaGrade);
+        verify(gradeSemanalCache).invalidar(clinicId, medicoId);
     }
 
     @Test
@@ -132,6 +146,7 @@ class GradeHorarioServiceTest {
 
         verify(gradeHorarioRepository).findByIdAndMedico_ClinicaId(gradeId, clinicId);
         verify(gradeHorarioRepository).delete(gradeHorario);
+        verify(gradeSemanalCache).invalidar(clinicId, medicoId);
     }
 
     @Test
@@ -144,4 +159,17 @@ class GradeHorarioServiceTest {
             
         verify(gradeHorarioRepository, never()).delete(any());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Deve invalidar a grade em cache ao sincronizar a grade do médico")
+    void shouldInvalidateCacheWhenSyncingGrade() {
+        when(medicoRepository.findByIdAndClinicaId(medicoId, clinicId)).thenReturn(medico);
+
+        gradeHorarioService.sincronizarGrade(clinicId, medicoId, List.of(gradeHorario));
+
+        verify(gradeHorarioRepository).deleteByMedicoId(medicoId);
+        verify(gradeHorarioRepository).save(gradeHorario);
+        verify(gradeSemanalCache).invalidar(clinicId, medicoId);
+        verify(versoesCatalogo).incrementar(clinicId, RecursoCatalogo.GRADE_HORARIO);
+    }
+}
@@ -0,0 +1,80 @@
+package com.multiclinicas.api.services;
+
+import com.multiclinicas.api.config.UsuarioAutenticado;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTest {
+
+    private JwtService jwtService;
+
+    @BeforeEach
+    void setUp() {
+        jwtService = criarJwtService(86400000L);
+    }
+
+    private static JwtService criarJwtService(long expiration) {
+        JwtService service = new JwtService();
+        ReflectionTestUtils.setField(service, "secretKey", "mySecretKeyWithAtLeast32CharactersLongToEnsureHS256Algorithm");
+        ReflectionTestUtils.setField(service, "jwtExpiration", expiration);
+        ReflectionTestUtils.setField(service, "cacheMaxEntries", 100L);
+        ReflectionTestUtils.setField(service, "cacheTtl", Duration.ofMinutes(5));
+        service.init();
+        return service;
+    }
+
+    @Test
+    @DisplayName("Deve extrair usuário, perfil e clínica do token gerado")
+    void shouldAuthenticateGeneratedToken() {
+        String token = jwtService.generateToken(10L, "ADMIN", 1L);
+
+        UsuarioAutenticado usuario = jwtService.autenticar(token);
+
+        assertThat(usuario.userId()).isEqualTo(10L);
+        assertThat(usuario.role()).isEqualTo("ADMIN");
+        assertThat(usuario.clinicId()).isEqualTo(1L);
+        assertThat(usuario.getName()).isEqualTo("10");
+    }
+
+    @Test
+    @DisplayName("Deve aceitar token sem clínica (super admin)")
+    void shouldAuthenticateTokenWithoutClinic() {
+        String token = jwtService.generateToken(1L, "SUPER_ADMIN", null);
+
+        assertThat(jwtService.autenticar(token).clinicId()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve reutilizar o resultado da verificação para o mesmo token")
+    void shouldReuseVerifiedToken() {
+        String token = jwtService.generateToken(10L, "PACIENTE", 1L);
+
+        assertThat(jwtService.autenticar(token)).isSameAs(jwtService.autenticar(token));
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token com assinatura adulterada")
+    void shouldRejectTamperedToken() {
+        String token = jwtService.generateToken(10L, "ADMIN", 1L);
+        String adulterado = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThatThrownBy(() -> jwtService.autenticar(adulterado)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar token expirado")
+    void shouldRejectExpiredToken() {
+        String token = criarJwtService(-1000L).generateToken(10L, "ADMIN", 1L);
+
+        assertThatThrownBy(() -> jwtService.autenticar(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+}
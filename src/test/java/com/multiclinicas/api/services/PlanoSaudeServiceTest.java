@@ -1,5 +1,7 @@
 package com.multiclinicas.api.services;
 
+import com.multiclinicas.api.catalogo.RecursoCatalogo;
+import com.multiclinicas.api.catalogo.VersoesCatalogo;
 import com.multiclinicas.api.exceptions.ResourceNotFoundException;
 import com.multiclinicas.api.models.Clinica;
 import com.multiclinicas.api.models.PlanoSaude;
@@ -28,6 +30,9 @@ class PlanoSaudeServiceTest {
     @Mock
     private ClinicaRepository clinicaRepository;
 
+    @Mock
+    private VersoesCatalogo versoesCatalogo;
+
     @InjectMocks
     private PlanoSaudeServiceImpl planoSaudeService;
 
@@ -178,5 +183,6 @@ class PlanoSaudeServiceTest {
 
         // Then
         verify(planoSaudeRepository, times(1)).delete(existingPlano);
+        verify(versoesCatalogo).incrementar(clinicId, RecursoCatalogo.PLANOS_SAUDE);
     }
 }
@@ -0,0 +1,119 @@
+package com.multiclinicas.api.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Servidor SMTP mínimo, em memória, para testes e benchmarks sem rede. Aceita
+ * tudo, exceto destinatários que começam com "recusado" (550, definitivo) ou
+ * "ocupado" (450, temporário), e conta conexões e mensagens recebidas.
+ */
+public class ServidorSmtpFalso implements AutoCloseable {
+
+    private final ServerSocket servidor;
+    private final ExecutorService sessoes = Executors.newCachedThreadPool();
+    private final AtomicInteger conexoes = new AtomicInteger();
+    private final AtomicInteger mensagens = new AtomicInteger();
+
+    public ServidorSmtpFalso() {
+        try {
+            servidor = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        sessoes.execute(this::aceitar);
+    }
+
+    public int porta() {
+        return servidor.getLocalPort();
+    }
+
+    public int conexoes() {
+        return conexoes.get();
+    }
+
+    public int mensagens() {
+        return mensagens.get();
+    }
+
+    public JavaMailSenderImpl mailSender() {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost(servidor.getInetAddress().getHostAddress());
+        mailSender.setPort(porta());
+        return mailSender;
+    }
+
+    @Override
+    public void close() throws IOException {
+        servidor.close();
+        sessoes.shutdownNow();
+    }
+
+    private void aceitar() {
+        while (!servidor.isClosed()) {
+            try {
+                Socket socket = servidor.accept();
+                conexoes.incrementAndGet();
+                sessoes.execute(() -> atender(socket));
+            } catch (IOException e) {
+                return;
+            }
+        }
+    }
+
+    private void atender(Socket socket) {
+        try (socket;
+                BufferedReader entrada = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+                PrintWriter saida = new PrintWriter(socket.getOutputStream(), true, StandardCharsets.US_ASCII)) {
+            responder(saida, "220 localhost SMTP de teste");
+            String linha;
+            while ((linha = entrada.readLine()) != null) {
+                String comando = linha.toUpperCase();
+                if (comando.startsWith("RCPT TO:")) {
+                    if (comando.contains("<RECUSADO")) {
+                        responder(saida, "550 Destinatario recusado");
+                    } else if (comando.contains("<OCUPADO")) {
+                        responder(saida, "450 Caixa indisponivel");
+                    } else {
+                        responder(saida, "250 OK");
+                    }
+                } else if (comando.equals("DATA")) {
+                    responder(saida, "354 Fim com <CRLF>.<CRLF>");
+                    while ((linha = entrada.readLine()) != null && !linha.equals(".")) {
+                        // corpo da mensagem
+                    }
+                    mensagens.incrementAndGet();
+                    responder(saida, "250 OK");
+                } else if (comando.startsWith("QUIT")) {
+                    responder(saida, "221 Tchau");
+                    return;
+                } else if (comando.startsWith("EHLO") || comando.startsWith("HELO") || comando.startsWith("MAIL FROM:")
+                        || comando.startsWith("RSET") || comando.startsWith("NOOP")) {
+                    responder(saida, "250 OK");
+                } else {
+                    responder(saida, "502 Comando nao suportado");
+                }
+            }
+        } catch (IOException e) {
+            // Cliente desconectou
+        }
+    }
+
+    private static void responder(PrintWriter saida, String resposta) {
+        saida.print(resposta + "\r\n");
+        saida.flush();
+    }
+}